@@ -86,6 +86,16 @@ run_test_method() {
     log_success "Test method completed!"
 }
 
+# Generate synthetic data or replay the load-test workload (mode: generate, workload or all)
+run_load_test() {
+    local mode="${1:-workload}"
+    log_info "Running load test in '$mode' mode..."
+    docker-compose exec app mvn spring-boot:run \
+        -Dspring-boot.run.profiles=docker,loadtest \
+        -Dspring-boot.run.arguments="--app.loadtest.mode=$mode --server.port=0"
+    log_success "Load test completed!"
+}
+
 # Show help
 show_help() {
     echo "KiotViet Test Runner"
@@ -100,6 +110,7 @@ show_help() {
     echo "  report        Generate test coverage report"
     echo "  class <name>  Run specific test class"
     echo "  method <name> Run specific test method"
+    echo "  load [mode]   Generate synthetic data or run the workload (generate|workload|all)"
     echo "  help          Show this help message"
     echo ""
     echo "Examples:"
@@ -107,6 +118,7 @@ show_help() {
     echo "  $0 class UserServiceTest"
     echo "  $0 method UserServiceTest#testCreateUser"
     echo "  $0 coverage"
+    echo "  $0 load generate"
 }
 
 # Main logic
@@ -138,6 +150,10 @@ case "${1:-help}" in
         check_services
         run_test_method "$2"
         ;;
+    load)
+        check_services
+        run_load_test "$2"
+        ;;
     help|--help|-h)
         show_help
         ;;
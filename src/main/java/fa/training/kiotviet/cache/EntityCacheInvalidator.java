@@ -0,0 +1,32 @@
+package fa.training.kiotviet.cache;
+
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.model.Category;
+import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached products and categories from every node once the changing transaction commits.
+ * Users are not cached, so they need no invalidation.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator {
+
+    public static final String CATEGORY_TREE_KEY = AppConstants.CATEGORY_CACHE_PREFIX + "tree";
+
+    private final NearCache nearCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(EntityChangedEvent<Product> event) {
+        nearCache.evict(AppConstants.PRODUCT_CACHE_PREFIX + event.getEntity().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(EntityChangedEvent<Category> event) {
+        nearCache.evict(AppConstants.CATEGORY_CACHE_PREFIX + event.getEntity().getId(), CATEGORY_TREE_KEY);
+    }
+}
@@ -0,0 +1,73 @@
+package fa.training.kiotviet.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-local stand-in for Redis, used for single-node development and tests.
+ * Several instances can share one store to simulate a cluster.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private record Expiring(String value, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    private final Map<String, Expiring> values = new ConcurrentHashMap<>();
+    private final Map<String, Expiring> locks = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String get(String key) {
+        Expiring entry = values.get(key);
+        if (entry == null || entry.isExpired()) {
+            values.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        values.put(key, new Expiring(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        keys.forEach(values::remove);
+    }
+
+    @Override
+    public boolean tryLock(String key, String owner, Duration ttl) {
+        Expiring lock = new Expiring(owner, System.currentTimeMillis() + ttl.toMillis());
+        Expiring result = locks.compute(key, (k, current) -> current == null || current.isExpired() ? lock : current);
+        return result == lock;
+    }
+
+    @Override
+    public void unlock(String key, String owner) {
+        locks.computeIfPresent(key, (k, current) -> current.value().equals(owner) ? null : current);
+    }
+
+    @Override
+    public void publishInvalidation(String message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+}
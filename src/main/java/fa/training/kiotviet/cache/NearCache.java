@@ -0,0 +1,228 @@
+package fa.training.kiotviet.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fa.training.kiotviet.exception.KiotVietException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Two-level cache: a bounded in-process Caffeine cache (L1) in front of a {@link SharedCacheStore} (L2).
+ * <p>
+ * On a miss, concurrent callers on one node share a single load, and across nodes only the holder of a
+ * short L2 lock runs the loader while the others poll L2 for its result. Evictions remove the key from L2
+ * and are broadcast so that every node drops it from L1.
+ */
+@Slf4j
+@Component
+public class NearCache {
+
+    private static final String MESSAGE_SEPARATOR = "\n";
+    private static final long LOCK_POLL_INTERVAL_MS = 25;
+
+    private final SharedCacheStore sharedStore;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Object> localCache;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong evictionEpoch = new AtomicLong();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Duration sharedTtl;
+    private final Duration lockTtl;
+    private final Duration lockWait;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter loads;
+
+    public NearCache(SharedCacheStore sharedStore, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     @Value("${app.cache.local.max-size:10000}") long localMaxSize,
+                     @Value("${app.cache.local.ttl:5m}") Duration localTtl,
+                     @Value("${app.cache.shared.ttl:30m}") Duration sharedTtl,
+                     @Value("${app.cache.lock.ttl:5s}") Duration lockTtl,
+                     @Value("${app.cache.lock.wait:2s}") Duration lockWait) {
+        this.sharedStore = sharedStore;
+        this.objectMapper = objectMapper;
+        this.sharedTtl = sharedTtl;
+        this.lockTtl = lockTtl;
+        this.lockWait = lockWait;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "near-cache-l1");
+        this.l1Hits = meterRegistry.counter("kiotviet.cache.requests", "result", "l1-hit");
+        this.l2Hits = meterRegistry.counter("kiotviet.cache.requests", "result", "l2-hit");
+        this.loads = meterRegistry.counter("kiotviet.cache.requests", "result", "load");
+        sharedStore.subscribeInvalidations(this::onInvalidationMessage);
+    }
+
+    /**
+     * Returns the cached value for {@code key}, loading it with {@code loader} on a miss.
+     * Null results are not cached.
+     */
+    public <T> T get(String key, Class<T> type, Supplier<T> loader) {
+        Object local = localCache.getIfPresent(key);
+        if (local != null) {
+            l1Hits.increment();
+            return type.cast(local);
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return type.cast(existing.join());
+        }
+        try {
+            long epoch = evictionEpoch.get();
+            T value = loadThroughShared(key, type, loader, epoch);
+            if (value != null && evictionEpoch.get() == epoch) {
+                localCache.put(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Removes the keys from both tiers on this node and tells the other nodes to drop them from L1.
+     */
+    public void evict(String... keys) {
+        evict(Arrays.asList(keys));
+    }
+
+    public void evict(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        evictLocal(keys);
+        sharedStore.delete(keys);
+        sharedStore.publishInvalidation(nodeId + MESSAGE_SEPARATOR + String.join(MESSAGE_SEPARATOR, keys));
+    }
+
+    /**
+     * Registers a callback for every key evicted on this node, whether locally or by another node.
+     */
+    public void addEvictionListener(Consumer<String> listener) {
+        evictionListeners.add(listener);
+    }
+
+    private <T> T loadThroughShared(String key, Class<T> type, Supplier<T> loader, long epoch) {
+        T shared = readShared(key, type);
+        if (shared != null) {
+            l2Hits.increment();
+            return shared;
+        }
+
+        String owner = nodeId + ":" + Thread.currentThread().getId();
+        if (sharedStore.tryLock(key, owner, lockTtl)) {
+            try {
+                shared = readShared(key, type);
+                if (shared != null) {
+                    l2Hits.increment();
+                    return shared;
+                }
+                return loadAndPublish(key, loader, epoch);
+            } finally {
+                sharedStore.unlock(key, owner);
+            }
+        }
+
+        // Another node is computing the value; wait for it briefly before loading ourselves
+        long deadline = System.currentTimeMillis() + lockWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            shared = readShared(key, type);
+            if (shared != null) {
+                l2Hits.increment();
+                return shared;
+            }
+        }
+        log.debug("Timed out waiting for another node to load '{}', loading locally", key);
+        return loadAndPublish(key, loader, epoch);
+    }
+
+    /**
+     * Runs the loader and writes its result to L2, unless an eviction arrived since {@code epoch}: the
+     * loaded value may then predate the change that caused it, so it must not outlive this call in L2.
+     * An eviction racing with the write itself is caught by re-checking afterwards and deleting the key.
+     */
+    private <T> T loadAndPublish(String key, Supplier<T> loader, long epoch) {
+        loads.increment();
+        T value = loader.get();
+        if (value == null || evictionEpoch.get() != epoch) {
+            return value;
+        }
+        try {
+            sharedStore.put(key, objectMapper.writeValueAsString(value), sharedTtl);
+        } catch (JsonProcessingException e) {
+            throw new KiotVietException("CACHE_ERROR", "Cannot serialize cache entry '" + key + "'", e);
+        }
+        if (evictionEpoch.get() != epoch) {
+            log.debug("Eviction raced with the load of '{}', dropping it from the shared cache", key);
+            sharedStore.delete(List.of(key));
+        }
+        return value;
+    }
+
+    private <T> T readShared(String key, Class<T> type) {
+        String json = sharedStore.get(key);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable cache entry '{}'", key, e);
+            sharedStore.delete(List.of(key));
+            return null;
+        }
+    }
+
+    private void onInvalidationMessage(String message) {
+        String[] parts = message.split(MESSAGE_SEPARATOR);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        evictLocal(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    private void evictLocal(Collection<String> keys) {
+        evictionEpoch.incrementAndGet();
+        localCache.invalidateAll(keys);
+        for (String key : keys) {
+            evictionListeners.forEach(listener -> listener.accept(key));
+        }
+    }
+}
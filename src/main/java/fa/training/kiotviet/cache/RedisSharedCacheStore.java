@@ -0,0 +1,77 @@
+package fa.training.kiotviet.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Redis-backed {@link SharedCacheStore}. Locks are {@code SET NX PX} keys released with a compare-and-delete
+ * script; invalidations go over a pub/sub channel.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    static final String INVALIDATION_CHANNEL = "kiotviet:cache:invalidate";
+    private static final String LOCK_PREFIX = "lock:";
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisSharedCacheStore(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        redisTemplate.delete(keys);
+    }
+
+    @Override
+    public boolean tryLock(String key, String owner, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_PREFIX + key, owner, ttl));
+    }
+
+    @Override
+    public void unlock(String key, String owner) {
+        redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_PREFIX + key), owner);
+    }
+
+    @Override
+    public void publishInvalidation(String message) {
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+}
@@ -0,0 +1,32 @@
+package fa.training.kiotviet.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Second-level cache shared by all application nodes, plus the pub/sub channel used to tell other nodes
+ * which keys to drop from their local cache.
+ */
+public interface SharedCacheStore {
+
+    String get(String key);
+
+    void put(String key, String value, Duration ttl);
+
+    void delete(Collection<String> keys);
+
+    /**
+     * Acquires a short-lived cluster-wide lock. Returns false if another caller holds it.
+     */
+    boolean tryLock(String key, String owner, Duration ttl);
+
+    /**
+     * Releases the lock only if it is still held by {@code owner}.
+     */
+    void unlock(String key, String owner);
+
+    void publishInvalidation(String message);
+
+    void subscribeInvalidations(Consumer<String> listener);
+}
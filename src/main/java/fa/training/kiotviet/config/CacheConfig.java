@@ -0,0 +1,22 @@
+package fa.training.kiotviet.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis beans for the shared cache tier. Only active when {@code app.cache.redis.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+public class CacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
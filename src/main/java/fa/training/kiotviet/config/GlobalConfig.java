@@ -1,12 +1,23 @@
 package fa.training.kiotviet.config;
 
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.exception.ServiceOverloadedException;
+import fa.training.kiotviet.limiter.ConcurrencyLimitInterceptor;
+import fa.training.kiotviet.limiter.ConcurrencyLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.Optional;
@@ -17,8 +28,18 @@ import java.util.Optional;
  */
 @Configuration
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
+@EnableScheduling
+@RequiredArgsConstructor
 public class GlobalConfig implements WebMvcConfigurer {
 
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+
+    @Value("${app.async.queue-capacity:10}")
+    private int asyncQueueCapacity;
+
+    private ThreadPoolTaskExecutor asyncResponseExecutor;
+
     @Bean
     public AuditorAware<String> auditorProvider() {
         return new AuditorAwareImpl();
@@ -38,6 +59,47 @@ public class GlobalConfig implements WebMvcConfigurer {
                 .allowCredentials(false);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        asyncResponseExecutor = asyncResponseExecutor();
+        configurer.setTaskExecutor(asyncResponseExecutor);
+    }
+
+    @PreDestroy
+    public void shutdownAsyncResponseExecutor() {
+        if (asyncResponseExecutor != null) {
+            asyncResponseExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Executor for streamed responses. Only REPORT endpoints stream, so it has as many threads as that
+     * class may ever admit; a response that finds them busy and the short queue full is shed with a 503
+     * and a retry hint, like any other overload, instead of waiting on a shared pool.
+     * <p>
+     * Deliberately not a bean: Boot's {@code applicationTaskExecutor} backs off when any executor bean
+     * exists, and {@code @Async} methods must not end up on this pool and its REPORT rejection policy.
+     */
+    private ThreadPoolTaskExecutor asyncResponseExecutor() {
+        int threads = EndpointClass.REPORT.getMaxLimit();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(asyncQueueCapacity);
+        executor.setThreadNamePrefix("async-response-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            throw new ServiceOverloadedException(EndpointClass.REPORT.name(),
+                    concurrencyLimiterRegistry.getLimiters().get(EndpointClass.REPORT).retryAfterSeconds());
+        });
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Implementation of AuditorAware to get current user for JPA auditing.
      */
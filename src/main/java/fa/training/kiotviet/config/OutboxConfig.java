@@ -0,0 +1,21 @@
+package fa.training.kiotviet.config;
+
+import fa.training.kiotviet.outbox.InProcessOutboxPublisher;
+import fa.training.kiotviet.outbox.OutboxPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Falls back to in-process delivery of outbox messages unless another {@link OutboxPublisher} is defined.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxPublisher.class)
+    public OutboxPublisher inProcessOutboxPublisher(ApplicationEventPublisher eventPublisher) {
+        return new InProcessOutboxPublisher(eventPublisher);
+    }
+}
@@ -0,0 +1,159 @@
+package fa.training.kiotviet.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.job.ReportFile;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes large lists straight from a repository {@link Stream} to the response with Jackson's streaming
+ * generator, so heap use does not grow with the result size and the first elements leave within
+ * milliseconds.
+ * <p>
+ * Clients that accept {@code application/x-ndjson} get one element per line followed by an envelope line
+ * without {@code data}. Everyone else gets a regular {@link ApiResponse} object whose {@code data} array is
+ * written first and whose {@code success}, {@code error} and {@code timestamp} fields follow it, so that a
+ * failure in the middle of the stream is still reported in the envelope instead of being masked by an
+ * already committed success flag. The trailing envelope also carries the element {@code count}.
+ */
+@Slf4j
+@Component
+public class ApiResponseStreamer {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern(AppConstants.DATETIME_FORMAT);
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.streaming.flush-interval:200}")
+    private int flushInterval;
+
+    public ApiResponseStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams the elements produced by {@code source}, which is opened and consumed inside a read-only
+     * transaction on the response thread.
+     *
+     * @param accept the request's {@code Accept} header, selecting NDJSON or a JSON envelope
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String accept, Supplier<Stream<T>> source) {
+        boolean ndjson = accept != null && accept.contains(NDJSON.toString());
+        StreamingResponseBody body = out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> write(out, source, ndjson, status));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Streams a {@link ReportFile} as the {@code data} array of a JSON envelope shaped like the one of
+     * {@link #stream}. The file is copied as it is, without parsing it.
+     */
+    public ResponseEntity<StreamingResponseBody> streamFile(ReportFile file) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeFieldName("data");
+            // Lets the generator account for the array that is copied from the file below
+            generator.writeRawValue("");
+            generator.flush();
+            Files.copy(file.path(), out);
+            writeTrailer(generator, true, file.count());
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private <T> void write(OutputStream out, Supplier<Stream<T>> source, boolean ndjson,
+                           TransactionStatus transaction) {
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("data");
+            }
+
+            long count = 0;
+            RuntimeException failure = null;
+            try (Stream<T> elements = source.get()) {
+                Iterator<T> iterator = elements.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                    if (++count == 1 || count % flushInterval == 0) {
+                        generator.flush();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Streaming response failed after {} elements", count, e);
+                failure = e;
+                transaction.setRollbackOnly();
+            }
+
+            if (ndjson) {
+                generator.writeStartObject();
+            } else {
+                generator.writeEndArray();
+            }
+            writeTrailer(generator, failure == null, count);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeTrailer(JsonGenerator generator, boolean success, long count) throws IOException {
+        generator.writeBooleanField("success", success);
+        generator.writeNumberField("count", count);
+        if (success) {
+            generator.writeStringField("message", AppConstants.SUCCESS_MESSAGE);
+        } else {
+            generator.writeObjectField("error",
+                    new ApiResponse.ApiError("STREAM_FAILED", "Response stream ended early", null));
+        }
+        generator.writeStringField("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMAT));
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,69 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.PriceChangeBatchDto;
+import fa.training.kiotviet.dto.PriceChangeRequest;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.model.PriceChangeEntry;
+import fa.training.kiotviet.service.BulkPricingService;
+import fa.training.kiotviet.util.AppConstants;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bulk price, sale price and tax rate changes across a category subtree, and their reverts.
+ */
+@RestController
+@RequestMapping("/api/pricing/batches")
+@RequiredArgsConstructor
+public class BulkPricingController {
+
+    private final BulkPricingService pricingService;
+
+    @PostMapping
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<PriceChangeBatchDto>> apply(@Valid @RequestBody PriceChangeRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(pricingService.apply(request), "Price change applied"));
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<PriceChangeBatchDto>>> getBatches(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "id"));
+        return ResponseEntity.ok(ApiResponse.success(pricingService.getBatches(pageable)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<PriceChangeBatchDto>> getBatch(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(pricingService.getBatch(id)));
+    }
+
+    @GetMapping("/{id}/entries")
+    public ResponseEntity<ApiResponse<Page<PriceChangeEntry>>> getEntries(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(pricingService.getEntries(id, pageable)));
+    }
+
+    @PostMapping("/{id}/revert")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<PriceChangeBatchDto>> revert(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(pricingService.revert(id), "Price change reverted"));
+    }
+}
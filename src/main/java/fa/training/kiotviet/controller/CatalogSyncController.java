@@ -0,0 +1,82 @@
+package fa.training.kiotviet.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.CatalogChangeDto;
+import fa.training.kiotviet.dto.CatalogChangePage;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.CatalogSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Delta catalog feed for POS terminals, served as (optionally gzip'd) NDJSON.
+ * <p>
+ * Every line is a {@link CatalogChangeDto}; the last line is a checkpoint carrying the version the terminal
+ * should send on its next call and whether more changes are already waiting.
+ */
+@RestController
+@RequestMapping("/api/catalog/sync")
+@RequiredArgsConstructor
+public class CatalogSyncController {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final String VERSION_HEADER = "X-Catalog-Version";
+
+    private final CatalogSyncService catalogSyncService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + CatalogSyncService.DEFAULT_LIMIT) int limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogChangePage page = catalogSyncService.getChanges(since, limit);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            for (CatalogChangeDto change : page.getChanges()) {
+                writeLine(target, change);
+            }
+            Map<String, Object> checkpoint = new LinkedHashMap<>();
+            checkpoint.put("type", "CHECKPOINT");
+            checkpoint.put("version", page.getNextVersion());
+            checkpoint.put("hasMore", page.isHasMore());
+            writeLine(target, checkpoint);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            target.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(VERSION_HEADER, page.getNextVersion())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
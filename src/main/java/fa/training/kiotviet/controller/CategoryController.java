@@ -0,0 +1,38 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.CategoryNodeDto;
+import fa.training.kiotviet.dto.CategorySummaryDto;
+import fa.training.kiotviet.service.CategoryTreeService;
+import fa.training.kiotviet.service.EntityLookupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Read-only category endpoints served from caches, with ETags for conditional requests.
+ */
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private final CategoryTreeService categoryTreeService;
+    private final EntityLookupService entityLookupService;
+    private final ConditionalResponses conditionalResponses;
+
+    @GetMapping("/tree")
+    public ResponseEntity<ApiResponse<List<CategoryNodeDto>>> getTree() {
+        return conditionalResponses.ok(categoryTreeService.getTree());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CategorySummaryDto>> getCategory(@PathVariable Long id) {
+        return conditionalResponses.ok(entityLookupService.getCategory(id));
+    }
+}
@@ -0,0 +1,38 @@
+package fa.training.kiotviet.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.exception.KiotVietException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Builds responses for read-mostly catalog data that clients can revalidate with {@code If-None-Match}.
+ * <p>
+ * The ETag is a hash of the serialized data rather than of the whole {@link ApiResponse}, whose timestamp
+ * differs on every call. Spring MVC compares it with the request and answers a match with an empty
+ * {@code 304}. The data is still serialized once per call to compute the hash, so repeated polls of
+ * unchanged data save the response body and bandwidth, not the serialization.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalResponses {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<ApiResponse<T>> ok(T data) {
+        try {
+            String etag = '"' + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(data)) + '"';
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(ApiResponse.success(data));
+        } catch (JsonProcessingException e) {
+            throw new KiotVietException("SERIALIZATION_ERROR", "Cannot serialize response data", e);
+        }
+    }
+}
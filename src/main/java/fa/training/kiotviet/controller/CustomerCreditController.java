@@ -0,0 +1,64 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.CreditAccountDto;
+import fa.training.kiotviet.dto.CreditChargeRequest;
+import fa.training.kiotviet.dto.CreditEntryDto;
+import fa.training.kiotviet.dto.CreditPaymentLine;
+import fa.training.kiotviet.dto.CreditSettlementResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.CustomerCreditService;
+import fa.training.kiotviet.util.AppConstants;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Customer credit accounts: credit-sale charges against the credit limit and batched payment settlement.
+ */
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+public class CustomerCreditController {
+
+    private final CustomerCreditService creditService;
+
+    @GetMapping("/{id}/credit")
+    public ResponseEntity<ApiResponse<CreditAccountDto>> getAccount(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(creditService.getAccount(id)));
+    }
+
+    @GetMapping("/{id}/credit/entries")
+    public ResponseEntity<ApiResponse<Page<CreditEntryDto>>> getEntries(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(creditService.getEntries(id, pageable)));
+    }
+
+    @PostMapping("/{id}/credit/charges")
+    @ConcurrencyLimited(EndpointClass.CHECKOUT)
+    public ResponseEntity<ApiResponse<CreditEntryDto>> charge(@PathVariable Long id,
+                                                              @Valid @RequestBody CreditChargeRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(creditService.charge(id, request), "Credit sale charged"));
+    }
+
+    @PostMapping("/credit/settlements")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<CreditSettlementResult>> settle(@RequestBody List<CreditPaymentLine> payments) {
+        return ResponseEntity.ok(ApiResponse.success(creditService.settle(payments)));
+    }
+}
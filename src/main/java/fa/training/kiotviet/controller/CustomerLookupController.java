@@ -0,0 +1,34 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.CustomerSummaryDto;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.CustomerLookupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Checkout type-ahead for customers by phone number or name.
+ */
+@RestController
+@RequestMapping("/api/customers/lookup")
+@RequiredArgsConstructor
+public class CustomerLookupController {
+
+    private final CustomerLookupService customerLookupService;
+
+    @GetMapping
+    @ConcurrencyLimited(EndpointClass.CHECKOUT)
+    public ResponseEntity<ApiResponse<List<CustomerSummaryDto>>> lookup(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "" + CustomerLookupService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(ApiResponse.success(customerLookupService.lookup(query, limit)));
+    }
+}
@@ -0,0 +1,64 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.CustomerPurchaseSummaryDto;
+import fa.training.kiotviet.dto.SummaryBackfillResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.CustomerPurchaseSummaryService;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Customer purchase summaries for CRM profile headers and segment lists.
+ */
+@RestController
+@RequestMapping("/api/customers")
+@RequiredArgsConstructor
+public class CustomerPurchaseSummaryController {
+
+    private final CustomerPurchaseSummaryService summaryService;
+
+    @GetMapping("/{id}/purchase-summary")
+    public ResponseEntity<ApiResponse<CustomerPurchaseSummaryDto>> getSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(summaryService.getSummary(id)));
+    }
+
+    /**
+     * Customers matching a segment, highest lifetime value first.
+     */
+    @GetMapping("/purchase-summaries")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<Page<CustomerPurchaseSummaryDto>>> findSegment(
+            @RequestParam(required = false) BigDecimal minLifetimeValue,
+            @RequestParam(required = false) Integer minOrders,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastPurchaseFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastPurchaseTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "lifetimeValue").and(Sort.by("customerId")));
+        return ResponseEntity.ok(ApiResponse.success(
+                summaryService.findSegment(minLifetimeValue, minOrders, lastPurchaseFrom, lastPurchaseTo, pageable)));
+    }
+
+    @PostMapping("/purchase-summaries/backfill")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<SummaryBackfillResult>> backfill() {
+        return ResponseEntity.ok(ApiResponse.success(summaryService.backfill(), "Customer purchase summaries rebuilt"));
+    }
+}
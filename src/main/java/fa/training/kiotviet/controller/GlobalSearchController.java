@@ -0,0 +1,34 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.GlobalSearchResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.GlobalSearchService;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Cashier search box across products, customers and orders.
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class GlobalSearchController {
+
+    private final GlobalSearchService globalSearchService;
+
+    @GetMapping
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<ApiResponse<GlobalSearchResult>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int limit) {
+        int size = Math.min(Math.max(1, limit), AppConstants.MAX_PAGE_SIZE);
+        return ResponseEntity.ok(ApiResponse.success(globalSearchService.search(query, size)));
+    }
+}
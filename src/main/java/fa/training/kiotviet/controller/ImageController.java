@@ -0,0 +1,141 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.enums.ImageVariant;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.catalina.Globals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored images. Image URLs are content-addressed, so responses are cacheable for a year as
+ * {@code immutable}, and any conditional request is answered with {@code 304}.
+ * <p>
+ * Files are never read into the heap. Above {@code app.images.sendfile-min-size}, Tomcat is asked to send
+ * the file itself with {@code sendfile}, after the handler returns; smaller files, or all files on
+ * connectors without sendfile support, are copied with {@link FileChannel#transferTo}. A single byte range
+ * is honoured with {@code 206}; requests for several ranges get the whole file.
+ * <p>
+ * Served outside {@code /api}, so thousands of thumbnails on a catalog grid do not count against the API
+ * concurrency limits.
+ */
+@RestController
+@RequestMapping("/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final ImageStorageService imageStorageService;
+
+    @Value("${app.images.sendfile-min-size:48KB}")
+    private DataSize sendfileMinSize;
+
+    @GetMapping("/{key}")
+    public void getImage(@PathVariable String key, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(key, ImageVariant.FULL, request, response);
+    }
+
+    @GetMapping("/{key}/{variant}")
+    public void getVariant(@PathVariable String key, @PathVariable String variant, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        serve(key, variantOf(variant, key), request, response);
+    }
+
+    private void serve(String key, ImageVariant variant, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = imageStorageService.resolve(key, variant);
+        String etag = '"' + key + '-' + variant.getPathName() + '"';
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (range.getRangeStart(length) >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length) + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setContentType(file.getFileName().toString().endsWith(".png")
+                ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        if (end - start >= sendfileMinSize.toBytes()
+                && Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+
+    private static ImageVariant variantOf(String name, String key) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (variant.getPathName().equals(name)) {
+                return variant;
+            }
+        }
+        throw new ResourceNotFoundException("Image", key + "/" + name);
+    }
+}
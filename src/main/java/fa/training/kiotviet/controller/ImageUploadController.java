@@ -0,0 +1,51 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.ImageDto;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Image uploads. The request body is the image itself, sent with its {@code Content-Type}, and is streamed
+ * to disk as it arrives.
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@ConcurrencyLimited(EndpointClass.REPORT)
+public class ImageUploadController {
+
+    private final ImageStorageService imageStorageService;
+
+    @PostMapping("/images")
+    public ResponseEntity<ApiResponse<ImageDto>> upload(HttpServletRequest request) throws IOException {
+        ImageDto image = imageStorageService.store(request.getInputStream(), request.getContentType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(image, "Image stored"));
+    }
+
+    @PutMapping("/products/{id}/image")
+    public ResponseEntity<ApiResponse<ImageDto>> uploadProductImage(@PathVariable Long id,
+                                                                    HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(
+                imageStorageService.attachToProduct(id, request.getInputStream(), request.getContentType())));
+    }
+
+    @PutMapping("/categories/{id}/image")
+    public ResponseEntity<ApiResponse<ImageDto>> uploadCategoryImage(@PathVariable Long id,
+                                                                     HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(
+                imageStorageService.attachToCategory(id, request.getInputStream(), request.getContentType())));
+    }
+}
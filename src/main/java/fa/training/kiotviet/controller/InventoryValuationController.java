@@ -0,0 +1,76 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.CogsReportDto;
+import fa.training.kiotviet.dto.InventoryValuationDto;
+import fa.training.kiotviet.dto.ProductValuationDto;
+import fa.training.kiotviet.dto.ValuationRebuildResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.service.InventoryValuationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inventory ledger export, valuation and cost of goods sold.
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryValuationController {
+
+    private final InventoryValuationService valuationService;
+    private final InventoryTransactionRepository transactionRepository;
+    private final ApiResponseStreamer responseStreamer;
+
+    /**
+     * Streams the inventory ledger of a period as JSON or, with {@code Accept: application/x-ndjson}, NDJSON.
+     */
+    @GetMapping("/ledger")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<StreamingResponseBody> getLedger(
+            @RequestParam(required = false) Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseStreamer.stream(accept, () -> transactionRepository.streamLedgerRows(productId, from, to));
+    }
+
+    @GetMapping("/valuation")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<InventoryValuationDto>> getInventoryValue() {
+        return ResponseEntity.ok(ApiResponse.success(valuationService.getInventoryValue()));
+    }
+
+    @GetMapping("/valuation/products/{productId}")
+    public ResponseEntity<ApiResponse<ProductValuationDto>> getProductValuation(@PathVariable Long productId) {
+        return ResponseEntity.ok(ApiResponse.success(valuationService.getProductValuation(productId)));
+    }
+
+    @GetMapping("/cogs")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<CogsReportDto>> getCogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(ApiResponse.success(valuationService.getCogs(from, to)));
+    }
+
+    @PostMapping("/valuation/rebuild")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<ValuationRebuildResult>> rebuild() {
+        return ResponseEntity.ok(ApiResponse.success(valuationService.rebuild(), "Inventory valuation rebuilt"));
+    }
+}
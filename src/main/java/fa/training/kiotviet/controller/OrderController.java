@@ -0,0 +1,72 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.OrderStatusTransitionRequest;
+import fa.training.kiotviet.dto.OrderStatusTransitionResult;
+import fa.training.kiotviet.dto.OrderSummaryDto;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.service.OrderStatusService;
+import fa.training.kiotviet.util.AppConstants;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Order endpoints.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusService orderStatusService;
+
+    @GetMapping("/search")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<ApiResponse<Page<OrderSummaryDto>>> search(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(
+                orderRepository.searchOrders(keyword, pageable).map(OrderSummaryDto::from)));
+    }
+
+    /**
+     * Number of orders in each status, served from memory.
+     */
+    @GetMapping("/status-counts")
+    public ResponseEntity<ApiResponse<Map<OrderStatus, Long>>> getStatusCounts() {
+        return ResponseEntity.ok(ApiResponse.success(orderStatusService.getCounts()));
+    }
+
+    @PutMapping("/{id}/status")
+    @ConcurrencyLimited(EndpointClass.CHECKOUT)
+    public ResponseEntity<ApiResponse<OrderSummaryDto>> transition(@PathVariable Long id,
+                                                                   @RequestParam OrderStatus status) {
+        return ResponseEntity.ok(ApiResponse.success(orderStatusService.transition(id, status), "Order status updated"));
+    }
+
+    @PostMapping("/status-transitions")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<OrderStatusTransitionResult>> transitionAll(
+            @Valid @RequestBody OrderStatusTransitionRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(orderStatusService.transitionAll(request)));
+    }
+}
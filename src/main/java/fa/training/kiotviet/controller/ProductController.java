@@ -0,0 +1,80 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.BestsellerDto;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import fa.training.kiotviet.enums.BestsellerWindow;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.service.BestsellerService;
+import fa.training.kiotviet.service.EntityLookupService;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Read-only product endpoints.
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    private final EntityLookupService entityLookupService;
+    private final BestsellerService bestsellerService;
+    private final ApiResponseStreamer responseStreamer;
+    private final ProductRepository productRepository;
+    private final ConditionalResponses conditionalResponses;
+
+    /**
+     * Streams the whole catalog, optionally narrowed to a category and a status, as JSON or, with
+     * {@code Accept: application/x-ndjson}, NDJSON.
+     */
+    @GetMapping("/export")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) ProductStatus status,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseStreamer.stream(accept, () -> productRepository.streamSummaries(categoryId, status));
+    }
+
+    @GetMapping("/bestsellers")
+    public ResponseEntity<ApiResponse<List<BestsellerDto>>> getBestsellers(
+            @RequestParam(defaultValue = "TODAY") BestsellerWindow window,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int limit) {
+        return conditionalResponses.ok(bestsellerService.getBestsellers(window, categoryId, limit));
+    }
+
+    @GetMapping("/{id}")
+    @ConcurrencyLimited(EndpointClass.CHECKOUT)
+    public ResponseEntity<ApiResponse<ProductSummaryDto>> getProduct(@PathVariable Long id) {
+        return conditionalResponses.ok(entityLookupService.getProduct(id));
+    }
+
+    @GetMapping("/search")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<ApiResponse<Page<ProductSummaryDto>>> search(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(
+                productRepository.searchProducts(keyword, pageable).map(ProductSummaryDto::from)));
+    }
+}
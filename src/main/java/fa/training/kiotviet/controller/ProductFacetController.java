@@ -0,0 +1,52 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.ProductFacetQuery;
+import fa.training.kiotviet.dto.ProductFacetResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.ProductFacetService;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Faceted catalog filtering backed by the in-memory product facet index.
+ */
+@RestController
+@RequestMapping("/api/products/facets")
+@RequiredArgsConstructor
+public class ProductFacetController {
+
+    private final ProductFacetService productFacetService;
+
+    @GetMapping
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public ResponseEntity<ApiResponse<ProductFacetResult>> search(
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<ProductStatus> status,
+            @RequestParam(required = false) Boolean taxable,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        ProductFacetQuery query = ProductFacetQuery.builder()
+                .categoryIds(categoryId)
+                .statuses(status)
+                .taxable(taxable)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .page(page)
+                .size(size)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(productFacetService.search(query)));
+    }
+}
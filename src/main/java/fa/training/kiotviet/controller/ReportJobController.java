@@ -0,0 +1,99 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.ReportJobDto;
+import fa.training.kiotviet.dto.ReportJobRequest;
+import fa.training.kiotviet.job.ReportFile;
+import fa.training.kiotviet.job.ReportJob;
+import fa.training.kiotviet.job.ReportJobRunner;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Background report jobs: submit a report, then poll its state or follow it as server-sent events, and
+ * fetch the result once it succeeded.
+ */
+@RestController
+@RequestMapping("/api/report-jobs")
+@RequiredArgsConstructor
+public class ReportJobController {
+
+    private final ReportJobRunner jobRunner;
+    private final ApiResponseStreamer responseStreamer;
+
+    @Value("${app.report-jobs.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    /**
+     * Submits a report. Answers 202 with the job, which is an already running or finished job when an
+     * identical report was requested recently.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReportJobDto>> submit(@Valid @RequestBody ReportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(jobRunner.submit(request), "Report job accepted"));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReportJobDto>> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(jobRunner.getJob(id).toDto()));
+    }
+
+    /**
+     * Returns the result of a succeeded job; results kept in a file, such as ledger exports, are streamed.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> getResult(@PathVariable String id) {
+        Object result = jobRunner.getResult(id);
+        if (result instanceof ReportFile file) {
+            return responseStreamer.streamFile(file);
+        }
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    /**
+     * Streams the job state as {@code progress} events and a final {@code done} event, after which the
+     * stream ends.
+     */
+    @GetMapping("/{id}/events")
+    public SseEmitter events(@PathVariable String id) {
+        ReportJob job = jobRunner.getJob(id);
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Consumer<ReportJobDto> listener = state -> {
+            boolean finished = state.getStatus().isFinished();
+            try {
+                emitter.send(SseEmitter.event().name(finished ? "done" : "progress").data(state));
+                if (finished) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(listener));
+        emitter.onTimeout(() -> job.unsubscribe(listener));
+        emitter.onError(e -> job.unsubscribe(listener));
+        job.subscribe(listener);
+        return emitter;
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<ReportJobDto>> cancel(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(jobRunner.cancel(id)));
+    }
+}
@@ -0,0 +1,66 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.StockAsOfDto;
+import fa.training.kiotviet.dto.StockCheckpointResult;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.StockHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Point-in-time stock from ledger checkpoints. {@code at} is exclusive: stock "on" a day is stock as of
+ * the start of the next day.
+ */
+@RestController
+@RequestMapping("/api/inventory/stock")
+@RequiredArgsConstructor
+public class StockHistoryController {
+
+    private final StockHistoryService stockHistoryService;
+    private final ApiResponseStreamer responseStreamer;
+
+    @GetMapping("/{productId}/as-of")
+    public ResponseEntity<ApiResponse<StockAsOfDto>> getStockAsOf(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(ApiResponse.success(stockHistoryService.getStockAsOf(productId, at)));
+    }
+
+    /**
+     * Streams the stock of the whole catalog as JSON or, with {@code Accept: application/x-ndjson}, NDJSON.
+     */
+    @GetMapping("/as-of")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<StreamingResponseBody> getSnapshot(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseStreamer.stream(accept, () -> stockHistoryService.getSnapshot(at));
+    }
+
+    /**
+     * Writes checkpoints at {@code at}, by default the start of today, e.g. to backfill past days.
+     */
+    @PostMapping("/checkpoints")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<StockCheckpointResult>> writeCheckpoints(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime checkpointAt = at != null ? at : LocalDate.now().atStartOfDay();
+        return ResponseEntity.ok(ApiResponse.success(stockHistoryService.writeCheckpoints(checkpointAt),
+                "Stock checkpoints written"));
+    }
+}
@@ -0,0 +1,78 @@
+package fa.training.kiotviet.controller;
+
+import fa.training.kiotviet.dto.ApiResponse;
+import fa.training.kiotviet.dto.StockTakeDto;
+import fa.training.kiotviet.dto.StockTakeSubmitResult;
+import fa.training.kiotviet.dto.StockTakeVarianceDto;
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.limiter.ConcurrencyLimited;
+import fa.training.kiotviet.service.StockTakeService;
+import fa.training.kiotviet.util.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Stock-take sessions. Counts are posted as a JSON array or NDJSON of
+ * {@code {"productId": 1, "quantity": 5}} or {@code {"sku": "SP001", "quantity": 5}} lines, in as many
+ * requests as needed, before the session is reconciled.
+ */
+@RestController
+@RequestMapping("/api/stock-takes")
+@RequiredArgsConstructor
+public class StockTakeController {
+
+    private final StockTakeService stockTakeService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<StockTakeDto>> create(@RequestParam(required = false) String notes) {
+        return ResponseEntity.ok(ApiResponse.success(stockTakeService.create(notes), "Stock take started"));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<StockTakeDto>> get(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(stockTakeService.get(id)));
+    }
+
+    @PostMapping("/{id}/counts")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<StockTakeSubmitResult>> submitCounts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean accumulate,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(ApiResponse.success(
+                stockTakeService.submitCounts(id, request.getInputStream(), accumulate)));
+    }
+
+    @PostMapping("/{id}/reconcile")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<StockTakeDto>> reconcile(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(stockTakeService.reconcile(id), "Stock take reconciled"));
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<ApiResponse<StockTakeDto>> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(stockTakeService.cancel(id), "Stock take cancelled"));
+    }
+
+    @GetMapping("/{id}/variances")
+    @ConcurrencyLimited(EndpointClass.REPORT)
+    public ResponseEntity<ApiResponse<Page<StockTakeVarianceDto>>> getVariances(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean discrepanciesOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(ApiResponse.success(stockTakeService.getVariances(id, discrepanciesOnly, pageable)));
+    }
+}
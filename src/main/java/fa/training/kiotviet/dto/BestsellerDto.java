@@ -0,0 +1,22 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A ranked bestseller. {@code quantity} is an upper bound that may overstate units sold by at most
+ * {@code maxOverestimate}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestsellerDto {
+
+    private int rank;
+    private ProductSummaryDto product;
+    private long quantity;
+    private long maxOverestimate;
+}
@@ -0,0 +1,21 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order line projected for the bestseller tracker.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestsellerItemRow {
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private Long productId;
+    private Long categoryId;
+    private Integer quantity;
+}
@@ -0,0 +1,52 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of the catalog sync feed. Tombstones ({@code op = DELETE}) only carry the id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChangeDto {
+
+    public static final String TYPE_PRODUCT = "PRODUCT";
+    public static final String TYPE_CATEGORY = "CATEGORY";
+    public static final String OP_UPSERT = "UPSERT";
+    public static final String OP_DELETE = "DELETE";
+
+    private String type;
+    private String op;
+    private Long id;
+
+    // Shared fields
+    private String name;
+    private String imageUrl;
+
+    // Product fields
+    private String sku;
+    private String barcode;
+    private Long categoryId;
+    private String status;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private Boolean taxable;
+    private BigDecimal taxRate;
+
+    // Category fields
+    private Long parentId;
+    private Integer sortOrder;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A bounded slice of the catalog change feed together with the version to resume from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangePage {
+
+    private List<CatalogChangeDto> changes;
+    private String nextVersion;
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Category with its active sub-categories, used to render the category tree.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryNodeDto {
+
+    private Long id;
+    private String name;
+    private String imageUrl;
+    private Integer sortOrder;
+    private List<CategoryNodeDto> children;
+}
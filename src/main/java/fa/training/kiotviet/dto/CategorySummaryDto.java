@@ -0,0 +1,37 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.model.Category;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight category view without its product and sub-category collections.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDto {
+
+    private Long id;
+    private String name;
+    private String description;
+    private String imageUrl;
+    private Long parentId;
+    private Integer sortOrder;
+    private Boolean active;
+
+    public static CategorySummaryDto from(Category category) {
+        return CategorySummaryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .imageUrl(category.getImageUrl())
+                .parentId(category.getParentId())
+                .sortOrder(category.getSortOrder())
+                .active(category.getActive())
+                .build();
+    }
+}
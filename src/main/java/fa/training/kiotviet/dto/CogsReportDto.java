@@ -0,0 +1,34 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cost of goods sold over a period, net of customer returns, under both costing methods.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CogsReportDto {
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime from;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime to;
+    private Long quantitySold;
+    private BigDecimal averageCostCogs;
+    private BigDecimal fifoCogs;
+
+    public CogsReportDto(Long quantitySold, BigDecimal averageCostCogs, BigDecimal fifoCogs) {
+        this.quantitySold = quantitySold;
+        this.averageCostCogs = averageCostCogs;
+        this.fifoCogs = fifoCogs;
+    }
+}
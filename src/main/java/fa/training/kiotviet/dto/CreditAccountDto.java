@@ -0,0 +1,25 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Credit position of a customer. {@code ledgerBalance} is recomputed from the credit ledger and equals
+ * {@code currentBalance} unless the account carried a balance from before the ledger was introduced.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditAccountDto {
+
+    private Long customerId;
+    private BigDecimal creditLimit;
+    private BigDecimal currentBalance;
+    private BigDecimal availableCredit;
+    private BigDecimal ledgerBalance;
+}
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A credit sale to charge against a customer's limit, optionally tied to an order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditChargeRequest {
+
+    private Long orderId;
+
+    @NotNull
+    @DecimalMin(value = "0.01")
+    private BigDecimal amount;
+}
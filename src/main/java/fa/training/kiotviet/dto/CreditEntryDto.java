@@ -0,0 +1,41 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.enums.CreditEntryType;
+import fa.training.kiotviet.model.CustomerCreditEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Customer credit ledger entry.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditEntryDto {
+
+    private Long id;
+    private Long customerId;
+    private Long orderId;
+    private CreditEntryType entryType;
+    private BigDecimal amount;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    public static CreditEntryDto from(CustomerCreditEntry entry) {
+        return CreditEntryDto.builder()
+                .id(entry.getId())
+                .customerId(entry.getCustomerId())
+                .orderId(entry.getOrderId())
+                .entryType(entry.getEntryType())
+                .amount(entry.getAmount())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
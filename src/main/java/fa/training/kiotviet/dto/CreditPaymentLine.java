@@ -0,0 +1,18 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One payment received against a credit-sale order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditPaymentLine {
+    private Long orderId;
+    private BigDecimal amount;
+}
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of settling a batch of credit payments.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreditSettlementResult {
+
+    private long applied;
+    private long rejected;
+    private BigDecimal settledAmount;
+    private List<String> rejectedSamples;
+}
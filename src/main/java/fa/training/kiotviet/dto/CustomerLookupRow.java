@@ -0,0 +1,19 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Narrow projection of a customer holding only the attributes used by the checkout lookup index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupRow {
+
+    private Long id;
+    private String name;
+    private String phoneNumber;
+    private Boolean active;
+}
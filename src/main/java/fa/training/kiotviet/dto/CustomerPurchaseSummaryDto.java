@@ -0,0 +1,62 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.model.CustomerPurchaseSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Purchase history header of a customer profile.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPurchaseSummaryDto {
+
+    private Long customerId;
+    private int orderCount;
+    private BigDecimal lifetimeValue;
+    private BigDecimal averageBasket;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime firstPurchaseAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastPurchaseAt;
+    private List<Long> topCategoryIds;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    public static CustomerPurchaseSummaryDto from(CustomerPurchaseSummary summary) {
+        String categories = summary.getTopCategoryIds();
+        return CustomerPurchaseSummaryDto.builder()
+                .customerId(summary.getCustomerId())
+                .orderCount(summary.getOrderCount())
+                .lifetimeValue(summary.getLifetimeValue())
+                .averageBasket(summary.getAverageBasket())
+                .firstPurchaseAt(summary.getFirstPurchaseAt())
+                .lastPurchaseAt(summary.getLastPurchaseAt())
+                .topCategoryIds(categories == null || categories.isEmpty() ? List.of()
+                        : Arrays.stream(categories.split(",")).map(Long::valueOf).toList())
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Summary of a customer without any purchase yet.
+     */
+    public static CustomerPurchaseSummaryDto empty(Long customerId) {
+        return CustomerPurchaseSummaryDto.builder()
+                .customerId(customerId)
+                .lifetimeValue(BigDecimal.ZERO)
+                .averageBasket(BigDecimal.ZERO)
+                .topCategoryIds(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.model.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight customer view used in lookup and search responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummaryDto {
+
+    private Long id;
+    private String customerCode;
+    private String name;
+    private String phoneNumber;
+    private String email;
+    private Integer loyaltyPoints;
+    private BigDecimal currentBalance;
+
+    public static CustomerSummaryDto from(Customer customer) {
+        return CustomerSummaryDto.builder()
+                .id(customer.getId())
+                .customerCode(customer.getCustomerCode())
+                .name(customer.getName())
+                .phoneNumber(customer.getPhoneNumber())
+                .email(customer.getEmail())
+                .loyaltyPoints(customer.getLoyaltyPoints())
+                .currentBalance(customer.getCurrentBalance())
+                .build();
+    }
+}
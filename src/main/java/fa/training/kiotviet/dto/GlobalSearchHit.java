@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.SearchSource;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ranked hit of a global search. {@code item} is the source's summary DTO, e.g. a
+ * {@link ProductSummaryDto} for {@link SearchSource#PRODUCT}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlobalSearchHit {
+
+    private SearchSource source;
+    private Long id;
+    private String title;
+    private int score;
+    private Object item;
+}
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Merged, relevance-ranked hits of a global search. {@code partial} is set when at least one source did
+ * not complete, in which case {@code sources} tells which.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlobalSearchResult {
+
+    private String query;
+    private boolean partial;
+    private List<GlobalSearchHit> hits;
+    private List<GlobalSearchSourceDto> sources;
+}
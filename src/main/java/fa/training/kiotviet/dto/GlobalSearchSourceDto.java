@@ -0,0 +1,23 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.SearchSource;
+import fa.training.kiotviet.enums.SearchSourceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one source of a global search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GlobalSearchSourceDto {
+
+    private SearchSource source;
+    private SearchSourceStatus status;
+    private int hits;
+    private long durationMs;
+}
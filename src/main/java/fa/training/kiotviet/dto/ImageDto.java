@@ -0,0 +1,27 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.ImageVariant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A stored image. {@code url} serves the full variant and is what products and categories keep as their
+ * image URL; {@code variants} lists the URL of every size.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageDto {
+
+    private String key;
+    private String url;
+    private String format;
+    private int width;
+    private int height;
+    private Map<ImageVariant, String> variants;
+}
@@ -0,0 +1,23 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Current inventory value under both costing methods.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationDto {
+
+    private Long productCount;
+    private Long quantityOnHand;
+    private BigDecimal averageCostValue;
+    private BigDecimal fifoValue;
+}
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of an inventory transaction used for stock and cost computations.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerRow {
+
+    private Long id;
+    private Long productId;
+    private String transactionType;
+    private Integer quantity;
+    private BigDecimal unitCost;
+    private LocalDateTime transactionDate;
+}
@@ -0,0 +1,27 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Orders to move to one target status in bulk.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransitionRequest {
+
+    @NotEmpty
+    @Size(max = 10000)
+    private List<Long> orderIds;
+
+    @NotNull
+    private OrderStatus targetStatus;
+}
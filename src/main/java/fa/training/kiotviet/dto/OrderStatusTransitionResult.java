@@ -0,0 +1,26 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status transition. Orders that are unknown or whose current status cannot move to the
+ * target are rejected and left unchanged.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransitionResult {
+
+    private OrderStatus targetStatus;
+    private long transitioned;
+    private long rejected;
+    private List<String> rejectedSamples;
+    private long durationMs;
+}
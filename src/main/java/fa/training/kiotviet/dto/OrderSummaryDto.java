@@ -0,0 +1,45 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight order view used in list and search responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDto {
+
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private OrderStatus status;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime orderDate;
+    private BigDecimal totalAmount;
+    private BigDecimal paidAmount;
+    private String paymentStatus;
+
+    public static OrderSummaryDto from(Order order) {
+        return OrderSummaryDto.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .customerId(order.getCustomer() != null ? order.getCustomer().getId() : null)
+                .status(order.getStatus())
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .paidAmount(order.getPaidAmount())
+                .paymentStatus(order.getPaymentStatus())
+                .build();
+    }
+}
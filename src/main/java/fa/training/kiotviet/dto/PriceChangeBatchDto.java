@@ -0,0 +1,61 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.enums.PriceChangeBatchStatus;
+import fa.training.kiotviet.enums.PriceChangeMode;
+import fa.training.kiotviet.enums.PriceField;
+import fa.training.kiotviet.model.PriceChangeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk price change. {@code conflictCount} counts products a revert left alone because their value had
+ * changed again since the batch; {@code durationMs} is only set on the response that applied or reverted it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeBatchDto {
+
+    private Long id;
+    private Long categoryId;
+    private PriceField field;
+    private PriceChangeMode mode;
+    private BigDecimal value;
+    private PriceChangeBatchStatus status;
+    private String notes;
+    private Integer productCount;
+    private Integer revertedCount;
+    private Integer conflictCount;
+    private Long durationMs;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime appliedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime revertedAt;
+
+    public static PriceChangeBatchDto from(PriceChangeBatch batch) {
+        return PriceChangeBatchDto.builder()
+                .id(batch.getId())
+                .categoryId(batch.getCategoryId())
+                .field(batch.getField())
+                .mode(batch.getMode())
+                .value(batch.getValue())
+                .status(batch.getStatus())
+                .notes(batch.getNotes())
+                .productCount(batch.getProductCount())
+                .revertedCount(batch.getRevertedCount())
+                .conflictCount(batch.getConflictCount())
+                .createdAt(batch.getCreatedAt())
+                .appliedAt(batch.getAppliedAt())
+                .revertedAt(batch.getRevertedAt())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.PriceChangeMode;
+import fa.training.kiotviet.enums.PriceField;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A price change for every product in a category and its subcategories. {@code value} is a percentage for
+ * PERCENT (e.g. {@code -15}), a signed amount for AMOUNT and the new value for SET.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeRequest {
+
+    @NotNull
+    private Long categoryId;
+
+    @NotNull
+    private PriceField field;
+
+    @NotNull
+    private PriceChangeMode mode;
+
+    @NotNull
+    private BigDecimal value;
+
+    @Size(max = 255)
+    private String notes;
+}
@@ -0,0 +1,29 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Combined catalog filter. Values inside one facet are OR'ed, different facets are AND'ed;
+ * a null or empty facet does not constrain the result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetQuery {
+
+    private Set<Long> categoryIds;
+    private Set<ProductStatus> statuses;
+    private Boolean taxable;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private int page;
+    private int size;
+}
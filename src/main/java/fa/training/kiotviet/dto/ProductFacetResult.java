@@ -0,0 +1,40 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import fa.training.kiotviet.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of matching products plus facet counts. Each facet is counted against the filters of all
+ * other facets, so the counts show what selecting another value of that facet would return.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductFacetResult {
+
+    private long total;
+    private List<Long> productIds;
+    private List<ProductSummaryDto> products;
+    private Map<Long, Long> categoryCounts;
+    private Map<ProductStatus, Long> statusCounts;
+    private Map<Boolean, Long> taxableCounts;
+    private List<PriceBucketCount> priceBucketCounts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PriceBucketCount {
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
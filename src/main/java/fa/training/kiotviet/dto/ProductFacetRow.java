@@ -0,0 +1,23 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Narrow projection of a product holding only the attributes used for faceted filtering.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetRow {
+
+    private Long id;
+    private Long categoryId;
+    private ProductStatus status;
+    private Boolean taxable;
+    private BigDecimal price;
+}
@@ -0,0 +1,17 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Product id and SKU, used to resolve externally supplied product references in bulk.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductKeyRow {
+
+    private Long id;
+    private String sku;
+}
@@ -0,0 +1,46 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Lightweight product view used in list and search responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDto {
+
+    private Long id;
+    private String sku;
+    private String barcode;
+    private String name;
+    private Long categoryId;
+    private ProductStatus status;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private Boolean taxable;
+    private String imageUrl;
+
+    public static ProductSummaryDto from(Product product) {
+        return ProductSummaryDto.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .barcode(product.getBarcode())
+                .name(product.getName())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .status(product.getStatus())
+                .price(product.getPrice())
+                .salePrice(product.getSalePrice())
+                .taxable(product.getTaxable())
+                .imageUrl(product.getImageUrl())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.model.ProductValuation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Valuation of a single product.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductValuationDto {
+
+    private Long productId;
+    private Integer quantityOnHand;
+    private BigDecimal averageCost;
+    private BigDecimal averageCostValue;
+    private BigDecimal fifoValue;
+    private Long lastTransactionId;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    public static ProductValuationDto from(ProductValuation valuation) {
+        return ProductValuationDto.builder()
+                .productId(valuation.getProductId())
+                .quantityOnHand(valuation.getQuantityOnHand())
+                .averageCost(valuation.getAverageCost())
+                .averageCostValue(valuation.getTotalValue())
+                .fifoValue(valuation.getFifoValue())
+                .lastTransactionId(valuation.getLastTransactionId())
+                .updatedAt(valuation.getUpdatedAt())
+                .build();
+    }
+}
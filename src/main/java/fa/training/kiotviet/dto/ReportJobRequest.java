@@ -0,0 +1,28 @@
+package fa.training.kiotviet.dto;
+
+import fa.training.kiotviet.enums.ReportType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A report to run in the background. {@code from} (inclusive) and {@code to} (exclusive) are required by
+ * period reports; {@code productId} optionally narrows the ledger export.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+
+    @NotNull
+    private ReportType type;
+
+    private LocalDateTime from;
+
+    private LocalDateTime to;
+
+    private Long productId;
+}
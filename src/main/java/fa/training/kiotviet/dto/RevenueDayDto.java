@@ -0,0 +1,25 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sales of one day within a revenue report.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueDayDto {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private long orders;
+    private BigDecimal revenue;
+}
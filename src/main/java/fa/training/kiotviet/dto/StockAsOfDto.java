@@ -0,0 +1,25 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of one product from the ledger rows dated before {@code at}, together with the checkpoint it was
+ * computed from and the number of ledger rows added on top of it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAsOfDto {
+
+    private Long productId;
+    private LocalDateTime at;
+    private Integer quantity;
+    private LocalDateTime checkpointAt;
+    private Long tailTransactions;
+}
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of writing stock checkpoints for one point in time.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockCheckpointResult {
+
+    private LocalDateTime checkpointAt;
+    private int products;
+    private int checkpoints;
+    private int failedChunks;
+    private long durationMs;
+}
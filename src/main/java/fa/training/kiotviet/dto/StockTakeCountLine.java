@@ -0,0 +1,18 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One submitted count. The product is identified by id or, when the id is absent, by SKU.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeCountLine {
+
+    private Long productId;
+    private String sku;
+    private Integer quantity;
+}
@@ -0,0 +1,48 @@
+package fa.training.kiotviet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import fa.training.kiotviet.enums.StockTakeStatus;
+import fa.training.kiotviet.model.StockTake;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stock-take session with its reconciliation totals.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeDto {
+
+    private Long id;
+    private StockTakeStatus status;
+    private String notes;
+    private Integer countedItems;
+    private Integer varianceItems;
+    private Long netVarianceQuantity;
+    private BigDecimal netVarianceValue;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime reconciledAt;
+
+    public static StockTakeDto from(StockTake stockTake) {
+        return StockTakeDto.builder()
+                .id(stockTake.getId())
+                .status(stockTake.getStatus())
+                .notes(stockTake.getNotes())
+                .countedItems(stockTake.getCountedItems())
+                .varianceItems(stockTake.getVarianceItems())
+                .netVarianceQuantity(stockTake.getNetVarianceQuantity())
+                .netVarianceValue(stockTake.getNetVarianceValue())
+                .createdAt(stockTake.getCreatedAt())
+                .reconciledAt(stockTake.getReconciledAt())
+                .build();
+    }
+}
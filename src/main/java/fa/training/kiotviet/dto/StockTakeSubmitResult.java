@@ -0,0 +1,22 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of streaming a set of counts into a stock take.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeSubmitResult {
+
+    private long accepted;
+    private long rejected;
+    private List<String> rejectedSamples;
+}
@@ -0,0 +1,26 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a stock-take variance report. Expected quantity and variance are null until reconciliation.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeVarianceDto {
+
+    private Long productId;
+    private String sku;
+    private String productName;
+    private Integer countedQuantity;
+    private Integer expectedQuantity;
+    private Integer variance;
+    private BigDecimal varianceValue;
+}
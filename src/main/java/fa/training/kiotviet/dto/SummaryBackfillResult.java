@@ -0,0 +1,20 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of recomputing the purchase summary of every customer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryBackfillResult {
+
+    private int customers;
+    private int failedChunks;
+    private long durationMs;
+}
@@ -0,0 +1,21 @@
+package fa.training.kiotviet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of replaying the inventory ledger into the valuation tables.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationRebuildResult {
+
+    private int products;
+    private long transactions;
+    private int failedProducts;
+    private long durationMs;
+}
@@ -0,0 +1,17 @@
+package fa.training.kiotviet.enums;
+
+public enum BestsellerWindow {
+    LAST_HOUR("Last hour"),
+    TODAY("Today"),
+    LAST_7_DAYS("Last 7 days");
+
+    private final String displayName;
+
+    BestsellerWindow(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
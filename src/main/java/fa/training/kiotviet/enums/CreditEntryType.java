@@ -0,0 +1,16 @@
+package fa.training.kiotviet.enums;
+
+public enum CreditEntryType {
+    CHARGE("Credit sale"),
+    PAYMENT("Payment");
+
+    private final String displayName;
+
+    CreditEntryType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
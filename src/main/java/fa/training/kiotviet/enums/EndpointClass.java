@@ -0,0 +1,40 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Groups of endpoints that share an adaptive concurrency limit. Declaration order is priority order:
+ * earlier classes may use the whole global budget, later ones must leave the checkout reserve free.
+ */
+public enum EndpointClass {
+    CHECKOUT("Checkout", 10, 2, 20),
+    DEFAULT("Default", 10, 2, 20),
+    SEARCH("Search", 6, 1, 16),
+    REPORT("Report", 2, 1, 6);
+
+    private final String displayName;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    EndpointClass(String displayName, int initialLimit, int minLimit, int maxLimit) {
+        this.displayName = displayName;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -0,0 +1,34 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Sizes generated for every uploaded image, largest first. {@code maxSide} bounds the longer edge in
+ * pixels; smaller images are never upscaled.
+ */
+public enum ImageVariant {
+    FULL("Full", 1600),
+    GRID("Grid", 480),
+    THUMBNAIL("Thumbnail", 160);
+
+    private final String displayName;
+    private final int maxSide;
+
+    ImageVariant(String displayName, int maxSide) {
+        this.displayName = displayName;
+        this.maxSide = maxSide;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    /**
+     * Name of the variant in image URLs and file names.
+     */
+    public String getPathName() {
+        return name().toLowerCase();
+    }
+}
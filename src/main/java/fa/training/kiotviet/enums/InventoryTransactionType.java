@@ -0,0 +1,33 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Types stored in {@code InventoryTransaction.transactionType} and how each one moves stock.
+ * IN and RETURN add stock, OUT removes it, and ADJUSTMENT carries a signed quantity.
+ */
+public enum InventoryTransactionType {
+    IN("Stock In"),
+    OUT("Stock Out"),
+    ADJUSTMENT("Adjustment"),
+    RETURN("Return");
+
+    private final String displayName;
+
+    InventoryTransactionType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the change in stock caused by a transaction of this type with the given quantity.
+     */
+    public int signedQuantity(int quantity) {
+        return switch (this) {
+            case IN, RETURN -> Math.abs(quantity);
+            case OUT -> -Math.abs(quantity);
+            case ADJUSTMENT -> quantity;
+        };
+    }
+}
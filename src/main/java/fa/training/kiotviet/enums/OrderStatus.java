@@ -1,5 +1,12 @@
 package fa.training.kiotviet.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order lifecycle. An order moves forward from PENDING to DELIVERED, may be cancelled until it ships and
+ * may be refunded once delivered; CANCELLED and REFUNDED are final.
+ */
 public enum OrderStatus {
     PENDING("Pending"),
     CONFIRMED("Confirmed"),
@@ -9,6 +16,8 @@ public enum OrderStatus {
     CANCELLED("Cancelled"),
     REFUNDED("Refunded");
 
+    private static final Set<OrderStatus> SALE_STATUSES = EnumSet.of(CONFIRMED, PROCESSING, SHIPPED, DELIVERED);
+
     private final String displayName;
 
     OrderStatus(String displayName) {
@@ -18,4 +27,29 @@ public enum OrderStatus {
     public String getDisplayName() {
         return displayName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the statuses an order in this status may move to.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(PROCESSING, SHIPPED, CANCELLED);
+            case PROCESSING -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case DELIVERED -> EnumSet.of(REFUNDED);
+            case CANCELLED, REFUNDED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return nextStatuses().contains(target);
+    }
+
+    /**
+     * Returns the statuses of orders that count as sales: confirmed and not cancelled or refunded.
+     */
+    public static Set<OrderStatus> saleStatuses() {
+        return EnumSet.copyOf(SALE_STATUSES);
+    }
+}
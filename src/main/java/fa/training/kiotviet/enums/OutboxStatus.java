@@ -0,0 +1,17 @@
+package fa.training.kiotviet.enums;
+
+public enum OutboxStatus {
+    PENDING("Pending"),
+    PUBLISHED("Published"),
+    FAILED("Failed");
+
+    private final String displayName;
+
+    OutboxStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,22 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Lifecycle of a bulk price change. A FAILED batch applied some of its chunks; it can be reverted like an
+ * APPLIED one.
+ */
+public enum PriceChangeBatchStatus {
+    APPLYING("Applying"),
+    APPLIED("Applied"),
+    FAILED("Failed"),
+    REVERTED("Reverted");
+
+    private final String displayName;
+
+    PriceChangeBatchStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
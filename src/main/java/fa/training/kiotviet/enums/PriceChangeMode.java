@@ -0,0 +1,21 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * How a bulk price change combines its value with the current one: PERCENT and AMOUNT adjust it and leave
+ * empty values empty, SET replaces it.
+ */
+public enum PriceChangeMode {
+    PERCENT("Percent"),
+    AMOUNT("Amount"),
+    SET("Set");
+
+    private final String displayName;
+
+    PriceChangeMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,32 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Product columns a bulk price change can target, with the largest value each accepts.
+ */
+public enum PriceField {
+    PRICE("Price", "price", null),
+    SALE_PRICE("Sale price", "sale_price", null),
+    TAX_RATE("Tax rate", "tax_rate", "100");
+
+    private final String displayName;
+    private final String column;
+    private final String maxValue;
+
+    PriceField(String displayName, String column, String maxValue) {
+        this.displayName = displayName;
+        this.column = column;
+        this.maxValue = maxValue;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getMaxValue() {
+        return maxValue;
+    }
+}
@@ -0,0 +1,26 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Lifecycle of a report job. Only SUCCEEDED jobs carry a result.
+ */
+public enum ReportJobStatus {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    SUCCEEDED("Succeeded"),
+    FAILED("Failed"),
+    CANCELLED("Cancelled");
+
+    private final String displayName;
+
+    ReportJobStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,34 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Heavy reports that run as background jobs. {@code maxConcurrent} caps how many jobs of one type run at
+ * the same time, so a burst of one expensive report cannot take every job thread.
+ */
+public enum ReportType {
+    REVENUE("Revenue", 2, true),
+    COGS("Cost of goods sold", 2, true),
+    LEDGER("Inventory ledger", 1, true),
+    VALUATION("Inventory valuation", 1, false);
+
+    private final String displayName;
+    private final int maxConcurrent;
+    private final boolean periodRequired;
+
+    ReportType(String displayName, int maxConcurrent, boolean periodRequired) {
+        this.displayName = displayName;
+        this.maxConcurrent = maxConcurrent;
+        this.periodRequired = periodRequired;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public boolean isPeriodRequired() {
+        return periodRequired;
+    }
+}
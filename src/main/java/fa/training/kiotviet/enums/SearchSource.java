@@ -0,0 +1,21 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * Entity searches combined by the global search box. Declaration order breaks ties between equally
+ * relevant hits.
+ */
+public enum SearchSource {
+    PRODUCT("Product"),
+    CUSTOMER("Customer"),
+    ORDER("Order");
+
+    private final String displayName;
+
+    SearchSource(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,21 @@
+package fa.training.kiotviet.enums;
+
+/**
+ * How one source of a global search ended. Only COMPLETED sources contributed all of their hits.
+ */
+public enum SearchSourceStatus {
+    COMPLETED("Completed"),
+    TIMED_OUT("Timed out"),
+    FAILED("Failed"),
+    REJECTED("Rejected");
+
+    private final String displayName;
+
+    SearchSourceStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,17 @@
+package fa.training.kiotviet.enums;
+
+public enum StockTakeStatus {
+    OPEN("Open"),
+    RECONCILED("Reconciled"),
+    CANCELLED("Cancelled");
+
+    private final String displayName;
+
+    StockTakeStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
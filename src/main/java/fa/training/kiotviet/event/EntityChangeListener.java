@@ -0,0 +1,34 @@
+package fa.training.kiotviet.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that republishes entity lifecycle callbacks as {@link EntityChangedEvent}s.
+ * Hibernate obtains this listener from the Spring context, so it can use injected beans.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent<>(entity, EntityChangedEvent.ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent<>(entity, EntityChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent<>(entity, EntityChangedEvent.ChangeType.DELETED));
+    }
+}
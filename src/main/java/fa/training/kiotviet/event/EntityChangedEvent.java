@@ -0,0 +1,35 @@
+package fa.training.kiotviet.event;
+
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * Published by {@link EntityChangeListener} whenever a tracked entity is inserted, updated or deleted.
+ * <p>
+ * The event is generic over the entity type, so listeners can subscribe to e.g.
+ * {@code EntityChangedEvent<Product>} only. Listeners that must not observe rolled-back changes should use
+ * {@code @TransactionalEventListener}.
+ */
+@Getter
+public class EntityChangedEvent<T> implements ResolvableTypeProvider {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final T entity;
+    private final ChangeType changeType;
+
+    public EntityChangedEvent(T entity, ChangeType changeType) {
+        this.entity = entity;
+        this.changeType = changeType;
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(entity));
+    }
+}
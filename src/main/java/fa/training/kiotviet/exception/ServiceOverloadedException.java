@@ -0,0 +1,25 @@
+package fa.training.kiotviet.exception;
+
+/**
+ * Exception thrown when a request is shed because its endpoint class is at its concurrency limit, or
+ * because a resource it needs is not available yet. Either way the client should retry later.
+ */
+public class ServiceOverloadedException extends KiotVietException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String endpointClass, long retryAfterSeconds) {
+        super("SERVICE_OVERLOADED", String.format("Too many concurrent %s requests, retry in %d s",
+                endpointClass, retryAfterSeconds));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ServiceOverloadedException(String errorCode, String message, long retryAfterSeconds) {
+        super(errorCode, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package fa.training.kiotviet.job;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progress sink handed to a running report. Reports announce their amount of work once it is known and
+ * advance it as units complete; both calls throw {@link CancellationException} once the job was cancelled,
+ * which stops the report at its next step.
+ */
+public interface JobProgress {
+
+    JobProgress NONE = new JobProgress() {
+        @Override
+        public void total(long units) {
+        }
+
+        @Override
+        public void advance(long units) {
+        }
+    };
+
+    void total(long units);
+
+    void advance(long units);
+}
@@ -0,0 +1,23 @@
+package fa.training.kiotviet.job;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A report result kept in a temporary file as a JSON array of {@code count} elements, so large results are
+ * not held in the heap while they wait to be downloaded.
+ */
+@Slf4j
+public record ReportFile(Path path, long count) {
+
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}", path, e);
+        }
+    }
+}
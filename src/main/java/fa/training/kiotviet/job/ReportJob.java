@@ -0,0 +1,214 @@
+package fa.training.kiotviet.job;
+
+import fa.training.kiotviet.dto.ReportJobDto;
+import fa.training.kiotviet.dto.ReportJobRequest;
+import fa.training.kiotviet.enums.ReportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * One submitted report: its parameters, status, progress and, once it succeeded, its result.
+ * <p>
+ * Listeners receive a snapshot whenever the status changes and whenever progress crosses another percent,
+ * so a report advancing row by row does not flood subscribers.
+ */
+public class ReportJob implements JobProgress {
+
+    private final String id;
+    private final String key;
+    private final ReportJobRequest request;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final List<Consumer<ReportJobDto>> listeners = new CopyOnWriteArrayList<>();
+
+    private ReportJobStatus status = ReportJobStatus.QUEUED;
+    private long completed;
+    private long total;
+    private Integer lastPercent;
+    private String error;
+    private Object result;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Future<?> future;
+
+    public ReportJob(String id, String key, ReportJobRequest request) {
+        this.id = id;
+        this.key = key;
+        this.request = request;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public ReportJobRequest getRequest() {
+        return request;
+    }
+
+    public synchronized ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public synchronized Object getResult() {
+        return result;
+    }
+
+    public synchronized LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Adds a listener and sends it the current state right away.
+     */
+    public void subscribe(Consumer<ReportJobDto> listener) {
+        listeners.add(listener);
+        listener.accept(toDto());
+    }
+
+    public void unsubscribe(Consumer<ReportJobDto> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void total(long units) {
+        synchronized (this) {
+            checkCancelled();
+            total = Math.max(0, units);
+        }
+        publishIfPercentChanged();
+    }
+
+    @Override
+    public void advance(long units) {
+        synchronized (this) {
+            checkCancelled();
+            completed += units;
+        }
+        publishIfPercentChanged();
+    }
+
+    /**
+     * Moves a queued job to RUNNING; returns false when it was cancelled while waiting.
+     */
+    boolean start() {
+        synchronized (this) {
+            if (status != ReportJobStatus.QUEUED) {
+                return false;
+            }
+            status = ReportJobStatus.RUNNING;
+            startedAt = LocalDateTime.now();
+        }
+        publish();
+        return true;
+    }
+
+    void succeed(Object value) {
+        synchronized (this) {
+            if (status.isFinished()) {
+                return;
+            }
+            result = value;
+            if (total > 0) {
+                completed = total;
+            }
+            finish(ReportJobStatus.SUCCEEDED);
+        }
+        publish();
+    }
+
+    void fail(String message) {
+        synchronized (this) {
+            if (status.isFinished()) {
+                return;
+            }
+            error = message;
+            finish(ReportJobStatus.FAILED);
+        }
+        publish();
+    }
+
+    /**
+     * Cancels the job unless it already finished, interrupting it if it is running.
+     *
+     * @return whether the job was cancelled by this call
+     */
+    boolean cancel() {
+        Future<?> running;
+        synchronized (this) {
+            if (status.isFinished()) {
+                return false;
+            }
+            finish(ReportJobStatus.CANCELLED);
+            running = future;
+        }
+        if (running != null) {
+            running.cancel(true);
+        }
+        publish();
+        return true;
+    }
+
+    public synchronized ReportJobDto toDto() {
+        return ReportJobDto.builder()
+                .id(id)
+                .type(request.getType())
+                .status(status)
+                .request(request)
+                .completed(completed)
+                .total(total)
+                .percent(percent())
+                .error(error)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private void finish(ReportJobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = LocalDateTime.now();
+    }
+
+    private void checkCancelled() {
+        if (status == ReportJobStatus.CANCELLED) {
+            throw new CancellationException("Report job " + id + " was cancelled");
+        }
+    }
+
+    private Integer percent() {
+        if (status == ReportJobStatus.SUCCEEDED) {
+            return 100;
+        }
+        return total > 0 ? (int) Math.min(99, completed * 100 / total) : null;
+    }
+
+    private void publishIfPercentChanged() {
+        synchronized (this) {
+            Integer percent = percent();
+            if (percent == null || percent.equals(lastPercent)) {
+                return;
+            }
+            lastPercent = percent;
+        }
+        publish();
+    }
+
+    private void publish() {
+        ReportJobDto snapshot = toDto();
+        for (Consumer<ReportJobDto> listener : listeners) {
+            listener.accept(snapshot);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package fa.training.kiotviet.job;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.dto.ReportJobDto;
+import fa.training.kiotviet.dto.ReportJobRequest;
+import fa.training.kiotviet.enums.ReportJobStatus;
+import fa.training.kiotviet.enums.ReportType;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.exception.ServiceOverloadedException;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.service.InventoryValuationService;
+import fa.training.kiotviet.service.RevenueReportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs heavy reports as background jobs, so they no longer hold a request thread until an HTTP timeout.
+ * <p>
+ * Jobs run on a dedicated pool of {@code app.report-jobs.threads} threads. At most
+ * {@link ReportType#getMaxConcurrent()} jobs of one type run at once; further jobs of that type wait in a
+ * per-type queue without occupying a thread, and submissions are refused once
+ * {@code app.report-jobs.max-queued} jobs are waiting in total.
+ * <p>
+ * Jobs are keyed by their type and parameters. A submission matching a queued or running job joins it,
+ * and one matching a job that succeeded within {@code app.report-jobs.result-ttl} gets its result, so
+ * identical report requests share one computation. Finished jobs are forgotten after the same window, and
+ * only the latest {@code app.report-jobs.max-results} results are kept: a newer one evicts the oldest job
+ * with a result, so memory stays bounded when many distinct reports finish within the window.
+ * <p>
+ * Ledger exports are written to a temporary {@link ReportFile} as they are read and streamed from it on
+ * download; the file is deleted when its job is forgotten.
+ * <p>
+ * Jobs and results live in this node's memory only. Behind a load balancer, status, result and cancel
+ * requests must reach the node that accepted the job, and identical requests only share work on one node.
+ */
+@Slf4j
+@Component
+public class ReportJobRunner {
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final RevenueReportService revenueReportService;
+    private final InventoryValuationService valuationService;
+    private final InventoryTransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ReportJob> jobs = new HashMap<>();
+    private final Map<String, ReportJob> jobsByKey = new HashMap<>();
+    private final Map<ReportType, Integer> running = new EnumMap<>(ReportType.class);
+    private final Map<ReportType, Deque<ReportJob>> waiting = new EnumMap<>(ReportType.class);
+    private final Deque<ReportJob> withResults = new ArrayDeque<>();
+    private final int maxQueued;
+    private final int maxResults;
+    private final Duration resultTtl;
+    private final long maxLedgerRows;
+    private int queued;
+
+    public ReportJobRunner(RevenueReportService revenueReportService,
+                           InventoryValuationService valuationService,
+                           InventoryTransactionRepository transactionRepository,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${app.report-jobs.threads:4}") int threads,
+                           @Value("${app.report-jobs.max-queued:50}") int maxQueued,
+                           @Value("${app.report-jobs.result-ttl:10m}") Duration resultTtl,
+                           @Value("${app.report-jobs.max-results:20}") int maxResults,
+                           @Value("${app.report-jobs.max-ledger-rows:200000}") long maxLedgerRows) {
+        this.revenueReportService = revenueReportService;
+        this.valuationService = valuationService;
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxQueued = maxQueued;
+        this.resultTtl = resultTtl;
+        this.maxResults = Math.max(1, maxResults);
+        this.maxLedgerRows = maxLedgerRows;
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        // Never more runnable jobs than the per-type limits allow in total, so the queue only absorbs those
+        int queueCapacity = Math.max(1, Arrays.stream(ReportType.values())
+                .mapToInt(ReportType::getMaxConcurrent).sum());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        for (ReportType type : ReportType.values()) {
+            running.put(type, 0);
+            waiting.put(type, new ArrayDeque<>());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        synchronized (this) {
+            List.copyOf(jobs.values()).forEach(this::forget);
+        }
+    }
+
+    /**
+     * Submits a report, or returns the queued, running or recently succeeded job computing the same one.
+     */
+    public ReportJobDto submit(ReportJobRequest request) {
+        validate(request);
+        String key = keyOf(request);
+        synchronized (this) {
+            ReportJob existing = jobsByKey.get(key);
+            if (existing != null && reusable(existing, LocalDateTime.now())) {
+                log.debug("Report job {} reused for {}", existing.getId(), key);
+                return existing.toDto();
+            }
+            if (queued >= maxQueued) {
+                throw new ServiceOverloadedException("report job", RETRY_AFTER_SECONDS);
+            }
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, request);
+            jobs.put(job.getId(), job);
+            jobsByKey.put(key, job);
+            ReportType type = request.getType();
+            if (running.get(type) < type.getMaxConcurrent()) {
+                dispatch(job);
+            } else {
+                waiting.get(type).addLast(job);
+                queued++;
+            }
+            return job.toDto();
+        }
+    }
+
+    public ReportJob getJob(String id) {
+        ReportJob job;
+        synchronized (this) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("Report job", id);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the result of a succeeded job.
+     */
+    public Object getResult(String id) {
+        ReportJob job = getJob(id);
+        if (job.getStatus() != ReportJobStatus.SUCCEEDED) {
+            throw new BusinessRuleException(String.format("Report job %s is %s and has no result",
+                    id, job.getStatus().getDisplayName().toLowerCase()));
+        }
+        return job.getResult();
+    }
+
+    public ReportJobDto cancel(String id) {
+        ReportJob job = getJob(id);
+        if (job.cancel()) {
+            synchronized (this) {
+                if (waiting.get(job.getRequest().getType()).remove(job)) {
+                    queued--;
+                }
+            }
+            log.info("Report job {} cancelled", id);
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Forgets finished jobs whose result window has passed. Queued and running jobs are kept.
+     */
+    @Scheduled(fixedDelayString = "${app.report-jobs.cleanup-interval:60000}")
+    public synchronized void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReportJob> expired = new ArrayList<>();
+        for (ReportJob job : jobs.values()) {
+            LocalDateTime finishedAt = job.getFinishedAt();
+            if (finishedAt != null && finishedAt.plus(resultTtl).isBefore(now)) {
+                expired.add(job);
+            }
+        }
+        expired.forEach(this::forget);
+        if (!expired.isEmpty()) {
+            log.debug("Evicted {} finished report jobs", expired.size());
+        }
+    }
+
+    private synchronized void retainResult(ReportJob job) {
+        withResults.addLast(job);
+        while (withResults.size() > maxResults) {
+            ReportJob oldest = withResults.peekFirst();
+            forget(oldest);
+            log.debug("Report job {} evicted to keep at most {} results", oldest.getId(), maxResults);
+        }
+    }
+
+    private void forget(ReportJob job) {
+        jobs.remove(job.getId());
+        jobsByKey.remove(job.getKey(), job);
+        withResults.remove(job);
+        if (job.getResult() instanceof ReportFile file) {
+            file.delete();
+        }
+    }
+
+    private boolean reusable(ReportJob job, LocalDateTime now) {
+        ReportJobStatus status = job.getStatus();
+        if (!status.isFinished()) {
+            return true;
+        }
+        return status == ReportJobStatus.SUCCEEDED && job.getFinishedAt().plus(resultTtl).isAfter(now);
+    }
+
+    private void dispatch(ReportJob job) {
+        ReportType type = job.getRequest().getType();
+        running.merge(type, 1, Integer::sum);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            running.merge(type, -1, Integer::sum);
+            job.fail("Report job pool is shut down");
+        }
+    }
+
+    private void run(ReportJob job) {
+        try {
+            if (!job.start()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            Object result = compute(job.getRequest(), job);
+            job.succeed(result);
+            if (job.getStatus() == ReportJobStatus.SUCCEEDED) {
+                retainResult(job);
+            } else if (result instanceof ReportFile file) {
+                // Cancelled after the export was written
+                file.delete();
+            }
+            log.info("Report job {} ({}) finished in {} ms", job.getId(), job.getKey(),
+                    System.currentTimeMillis() - start);
+        } catch (CancellationException e) {
+            log.debug("Report job {} stopped after cancellation", job.getId());
+        } catch (BusinessRuleException e) {
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Report job {} ({}) failed", job.getId(), job.getKey(), e);
+            job.fail("Report failed: " + e.getMessage());
+        } finally {
+            onFinished(job.getRequest().getType());
+        }
+    }
+
+    private synchronized void onFinished(ReportType type) {
+        running.merge(type, -1, Integer::sum);
+        ReportJob next = waiting.get(type).pollFirst();
+        if (next != null) {
+            queued--;
+            dispatch(next);
+        }
+    }
+
+    private Object compute(ReportJobRequest request, JobProgress progress) {
+        return switch (request.getType()) {
+            case REVENUE -> revenueReportService.getRevenue(request.getFrom(), request.getTo(), progress);
+            case COGS -> valuationService.getCogs(request.getFrom(), request.getTo());
+            case VALUATION -> valuationService.getInventoryValue();
+            case LEDGER -> readOnlyTransaction.execute(status -> exportLedger(request, progress));
+        };
+    }
+
+    private ReportFile exportLedger(ReportJobRequest request, JobProgress progress) {
+        long rows = transactionRepository.countLedgerRows(request.getProductId(), request.getFrom(), request.getTo());
+        if (rows > maxLedgerRows) {
+            throw new BusinessRuleException(String.format("Ledger export of %d rows exceeds the job limit of %d; "
+                    + "use the streaming ledger endpoint instead", rows, maxLedgerRows));
+        }
+        progress.total(rows);
+        Path path = null;
+        try {
+            path = Files.createTempFile("report-ledger-", ".json");
+            long written = 0;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path));
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+                 Stream<LedgerRow> stream = transactionRepository.streamLedgerRows(request.getProductId(),
+                         request.getFrom(), request.getTo())) {
+                generator.writeStartArray();
+                Iterator<LedgerRow> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    written++;
+                    progress.advance(1);
+                }
+                generator.writeEndArray();
+            }
+            return new ReportFile(path, written);
+        } catch (IOException e) {
+            deleteQuietly(path);
+            throw new KiotVietException("REPORT_FILE_ERROR", "Cannot write ledger export: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            new ReportFile(path, 0).delete();
+        }
+    }
+
+    private static void validate(ReportJobRequest request) {
+        if (request.getType().isPeriodRequired()) {
+            if (request.getFrom() == null || request.getTo() == null) {
+                throw new BusinessRuleException(request.getType().getDisplayName() + " report needs a from and to date");
+            }
+            if (!request.getFrom().isBefore(request.getTo())) {
+                throw new BusinessRuleException("Report period must end after it starts");
+            }
+        }
+    }
+
+    /**
+     * Identity of a report: its type and the parameters that type reads, so irrelevant parameters do not
+     * prevent two requests from sharing a result.
+     */
+    private static String keyOf(ReportJobRequest request) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (request.getType().isPeriodRequired()) {
+            parameters.put("from", request.getFrom());
+            parameters.put("to", request.getTo());
+        }
+        if (request.getType() == ReportType.LEDGER) {
+            parameters.put("productId", request.getProductId());
+        }
+        return request.getType() + parameters.toString();
+    }
+}
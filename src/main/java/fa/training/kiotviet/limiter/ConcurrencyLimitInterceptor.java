@@ -0,0 +1,90 @@
+package fa.training.kiotviet.limiter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Applies {@link ConcurrencyLimited} to controller methods: reserves a slot before the handler runs and
+ * reports latency and outcome to the limiter when the request, including any async part, completes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConcurrencyLimited limited = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), ConcurrencyLimited.class);
+        if (limited == null) {
+            limited = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), ConcurrencyLimited.class);
+        }
+        if (limited != null) {
+            request.setAttribute(PERMIT_ATTRIBUTE, limiterRegistry.acquire(limited.value()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, ex != null || response.getStatus() >= 500);
+    }
+
+    /**
+     * Streaming and other async handlers keep their slot until the async request completes, so the limit
+     * covers the whole response and the latency sample includes it. The ASYNC dispatch's
+     * {@link #afterCompletion} normally releases it; the listener covers async requests that end without
+     * one, such as a client disconnecting mid-stream.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof ConcurrencyLimiterRegistry.Permit permit)) {
+            return;
+        }
+        if (!request.isAsyncStarted()) {
+            release(request, false);
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                permit.release(false);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                permit.release(true);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                permit.release(true);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    private void release(HttpServletRequest request, boolean dropped) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof ConcurrencyLimiterRegistry.Permit reserved) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            reserved.release(dropped);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package fa.training.kiotviet.limiter;
+
+import fa.training.kiotviet.enums.EndpointClass;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method (or every method of a controller) under the adaptive limit of an endpoint class.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ConcurrencyLimited {
+
+    EndpointClass value();
+}
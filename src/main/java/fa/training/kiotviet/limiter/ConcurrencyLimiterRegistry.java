@@ -0,0 +1,133 @@
+package fa.training.kiotviet.limiter;
+
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds one {@link GradientLimit} per {@link EndpointClass} plus a global budget sized to the connection pool.
+ * <p>
+ * Requests beyond their class limit are rejected immediately instead of queueing for a connection.
+ * Every class except {@link EndpointClass#CHECKOUT} must also leave {@code app.limiter.checkout-reserve}
+ * slots of the global budget free, so search and reporting can never starve checkout.
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<EndpointClass, ClassLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+    private final int globalLimit;
+    private final int checkoutReserve;
+
+    public ConcurrencyLimiterRegistry(MeterRegistry meterRegistry,
+                                      @Value("${app.limiter.global-limit:${spring.datasource.hikari.maximum-pool-size:20}}") int globalLimit,
+                                      @Value("${app.limiter.checkout-reserve:5}") int checkoutReserve) {
+        this.globalLimit = globalLimit;
+        this.checkoutReserve = checkoutReserve;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ClassLimiter limiter = new ClassLimiter(endpointClass, meterRegistry);
+            limiters.put(endpointClass, limiter);
+        }
+        Gauge.builder("kiotviet.limiter.inflight", globalInFlight, AtomicInteger::get)
+                .tag("class", "ALL")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves a slot for the endpoint class or throws {@link ServiceOverloadedException}.
+     */
+    public Permit acquire(EndpointClass endpointClass) {
+        ClassLimiter limiter = limiters.get(endpointClass);
+        int budget = endpointClass == EndpointClass.CHECKOUT ? globalLimit : globalLimit - checkoutReserve;
+
+        int classInFlight = limiter.inFlight.incrementAndGet();
+        int totalInFlight = globalInFlight.incrementAndGet();
+        if (classInFlight > limiter.limit.getLimit() || totalInFlight > budget) {
+            limiter.inFlight.decrementAndGet();
+            globalInFlight.decrementAndGet();
+            limiter.rejected.increment();
+            throw new ServiceOverloadedException(endpointClass.name(), limiter.retryAfterSeconds());
+        }
+        return new Permit(limiter, classInFlight, System.nanoTime());
+    }
+
+    public Map<EndpointClass, ClassLimiter> getLimiters() {
+        return limiters;
+    }
+
+    public int getGlobalInFlight() {
+        return globalInFlight.get();
+    }
+
+    public int getGlobalLimit() {
+        return globalLimit;
+    }
+
+    public int getCheckoutReserve() {
+        return checkoutReserve;
+    }
+
+    /**
+     * A reserved slot. Must be released exactly once.
+     */
+    public class Permit {
+
+        private final ClassLimiter limiter;
+        private final int inFlightAtStart;
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(ClassLimiter limiter, int inFlightAtStart, long startNanos) {
+            this.limiter = limiter;
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public synchronized void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            limiter.limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            limiter.inFlight.decrementAndGet();
+            globalInFlight.decrementAndGet();
+        }
+    }
+
+    @Getter
+    public static class ClassLimiter {
+
+        private final EndpointClass endpointClass;
+        private final GradientLimit limit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter rejected;
+
+        ClassLimiter(EndpointClass endpointClass, MeterRegistry meterRegistry) {
+            this.endpointClass = endpointClass;
+            this.limit = new GradientLimit(endpointClass.getInitialLimit(), endpointClass.getMinLimit(),
+                    endpointClass.getMaxLimit());
+            String tag = endpointClass.name();
+            Gauge.builder("kiotviet.limiter.limit", limit, GradientLimit::getLimit).tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("kiotviet.limiter.inflight", inFlight, AtomicInteger::get).tag("class", tag)
+                    .register(meterRegistry);
+            this.rejected = meterRegistry.counter("kiotviet.limiter.rejected", "class", tag);
+        }
+
+        /**
+         * Suggests a retry delay of about two current response times, at least one second.
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (long) Math.ceil(limit.getShortRttMillis() * 2 / 1000));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fa.training.kiotviet.limiter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/concurrencylimits} showing the live state of every endpoint class limiter.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitsEndpoint {
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+
+    @ReadOperation
+    public Map<String, Object> limits() {
+        Map<String, Object> classes = new LinkedHashMap<>();
+        limiterRegistry.getLimiters().forEach((endpointClass, limiter) -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("limit", limiter.getLimit().getLimit());
+            state.put("inFlight", limiter.getInFlight().get());
+            state.put("rejected", (long) limiter.getRejected().count());
+            state.put("shortRttMs", limiter.getLimit().getShortRttMillis());
+            state.put("longRttMs", limiter.getLimit().getLongRttMillis());
+            classes.put(endpointClass.name(), state);
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("globalLimit", limiterRegistry.getGlobalLimit());
+        result.put("checkoutReserve", limiterRegistry.getCheckoutReserve());
+        result.put("globalInFlight", limiterRegistry.getGlobalInFlight());
+        result.put("classes", classes);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package fa.training.kiotviet.limiter;
+
+/**
+ * Concurrency limit that adapts to the latency gradient, in the spirit of Netflix's Gradient2 algorithm.
+ * <p>
+ * Two exponentially weighted moving averages of response time are kept: a fast one that tracks current
+ * latency and a slow one that acts as the baseline. When the fast average climbs above the baseline,
+ * queueing is building up and the limit shrinks in proportion; while latency is at baseline the limit
+ * grows by roughly {@code sqrt(limit)} per adjustment. A dropped request (error or timeout) cuts the
+ * limit by 10%.
+ */
+public class GradientLimit {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized double getShortRttMillis() {
+        return shortRttNanos / 1_000_000d;
+    }
+
+    public synchronized double getLongRttMillis() {
+        return longRttNanos / 1_000_000d;
+    }
+
+    /**
+     * Records one completed request.
+     *
+     * @param rttNanos  response time of the request
+     * @param inFlight  requests in flight when it started, used to avoid growing an idle limit
+     * @param dropped   whether the request failed or timed out
+     */
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        if (dropped) {
+            limit = clamp(limit * DROP_BACKOFF);
+            return;
+        }
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += SHORT_ALPHA * (rttNanos - shortRttNanos);
+            longRttNanos += LONG_ALPHA * (rttNanos - longRttNanos);
+        }
+        // Latency recovered well below the baseline: let the baseline follow quickly
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        // Do not grow a limit the traffic is not even using
+        if (newLimit > limit && inFlight < limit / 2) {
+            return;
+        }
+        limit = clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,79 @@
+package fa.training.kiotviet.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects raw latencies per operation for one worker thread; workers' recorders are merged at the end.
+ * Raw samples keep percentiles exact, which is affordable for load-test runs of a few million operations.
+ * <p>
+ * Not thread-safe.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Latency summary of one operation; times in milliseconds.
+     */
+    public record OperationStats(String operation, long count, long errors, double throughputPerSecond,
+                                 double p50, double p90, double p99, double p999, double max) {
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+
+    private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    public void record(String operation, long nanos, boolean success) {
+        Samples entry = samples.computeIfAbsent(operation, key -> new Samples());
+        entry.add(nanos);
+        if (!success) {
+            entry.errors++;
+        }
+    }
+
+    public void merge(LatencyRecorder other) {
+        other.samples.forEach((operation, entry) ->
+                samples.computeIfAbsent(operation, key -> new Samples()).addAll(entry));
+    }
+
+    public Map<String, OperationStats> summarize(long elapsedNanos) {
+        Map<String, OperationStats> result = new LinkedHashMap<>();
+        double seconds = Math.max(1, elapsedNanos) / 1e9;
+        samples.forEach((operation, entry) -> {
+            long[] sorted = Arrays.copyOf(entry.nanos, entry.size);
+            Arrays.sort(sorted);
+            result.put(operation, new OperationStats(operation, entry.size, entry.errors, entry.size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0));
+        });
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
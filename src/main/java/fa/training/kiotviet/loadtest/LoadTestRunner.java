@@ -0,0 +1,55 @@
+package fa.training.kiotviet.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entry point of the {@code loadtest} profile. Runs once the application is ready, i.e. after the
+ * startup warm-up, so the workload sees warm caches and indexes.
+ * <p>
+ * {@code app.loadtest.mode} selects {@code generate}, {@code workload} or {@code all}. Because generated
+ * rows bypass the change listeners, run {@code generate} first and {@code workload} in a fresh start.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestRunner {
+
+    private final SyntheticDataGenerator generator;
+    private final WorkloadDriver workloadDriver;
+    private final ApplicationContext applicationContext;
+
+    @Value("${app.loadtest.mode:workload}")
+    private String mode;
+
+    @Value("${app.loadtest.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int exitCode = 0;
+        try {
+            if ("generate".equals(mode) || "all".equals(mode)) {
+                generator.generate();
+            }
+            if ("workload".equals(mode) || "all".equals(mode)) {
+                workloadDriver.run();
+            }
+        } catch (RuntimeException e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        if (exitWhenDone) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> code));
+        }
+    }
+}
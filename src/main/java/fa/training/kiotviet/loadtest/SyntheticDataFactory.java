@@ -0,0 +1,160 @@
+package fa.training.kiotviet.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic source of realistic Vietnamese retail data for load testing.
+ * <p>
+ * Every value is derived from the seed and the row id, so generator threads can produce disjoint id
+ * ranges independently and a rerun with the same seed yields the same data set.
+ */
+public class SyntheticDataFactory {
+
+    private static final String[] FAMILY_NAMES = {
+            "Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan", "Vũ", "Võ", "Đặng",
+            "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý", "Đinh", "Trương", "Mai", "Lâm"
+    };
+    // Weights follow the rough distribution of Vietnamese family names; Nguyễn alone covers about 38%
+    private static final int[] FAMILY_NAME_WEIGHTS = {38, 11, 9, 7, 5, 5, 4, 4, 4, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1};
+
+    private static final String[] MALE_MIDDLE_NAMES = {"Văn", "Hữu", "Đức", "Minh", "Quang", "Công", "Thanh", "Xuân"};
+    private static final String[] FEMALE_MIDDLE_NAMES = {"Thị", "Ngọc", "Thu", "Thanh", "Kim", "Phương", "Bảo", "Mỹ"};
+    private static final String[] MALE_GIVEN_NAMES = {
+            "An", "Bình", "Cường", "Dũng", "Duy", "Hải", "Hiếu", "Hòa", "Hùng", "Huy", "Khang", "Khoa",
+            "Long", "Minh", "Nam", "Nghĩa", "Phong", "Phúc", "Quân", "Sơn", "Tài", "Thắng", "Thành",
+            "Toàn", "Trung", "Tuấn", "Việt", "Vinh"
+    };
+    private static final String[] FEMALE_GIVEN_NAMES = {
+            "Anh", "Chi", "Dung", "Giang", "Hà", "Hạnh", "Hằng", "Hoa", "Hương", "Lan", "Liên", "Linh",
+            "Loan", "Mai", "My", "Nga", "Ngân", "Nhung", "Oanh", "Phương", "Quyên", "Tâm", "Thảo",
+            "Thủy", "Trang", "Uyên", "Vy", "Yến"
+    };
+
+    private static final String[][] CITIES = {
+            {"TP. Hồ Chí Minh", "Quận 1", "Quận 3", "Quận 5", "Quận 7", "Quận 10", "Bình Thạnh", "Gò Vấp", "Tân Bình", "Thủ Đức"},
+            {"Hà Nội", "Ba Đình", "Hoàn Kiếm", "Đống Đa", "Cầu Giấy", "Hai Bà Trưng", "Thanh Xuân", "Long Biên"},
+            {"Đà Nẵng", "Hải Châu", "Thanh Khê", "Sơn Trà", "Ngũ Hành Sơn", "Liên Chiểu"},
+            {"Hải Phòng", "Hồng Bàng", "Lê Chân", "Ngô Quyền", "Kiến An"},
+            {"Cần Thơ", "Ninh Kiều", "Bình Thủy", "Cái Răng"},
+            {"Biên Hòa", "Tân Phong", "Trảng Dài", "Long Bình"},
+            {"Nha Trang", "Lộc Thọ", "Vĩnh Hải", "Phước Long"}
+    };
+    private static final int[] CITY_WEIGHTS = {40, 30, 10, 7, 5, 4, 4};
+    private static final String[] STREETS = {
+            "Nguyễn Huệ", "Lê Lợi", "Trần Hưng Đạo", "Hai Bà Trưng", "Lý Thường Kiệt", "Điện Biên Phủ",
+            "Cách Mạng Tháng Tám", "Nguyễn Trãi", "Phan Đình Phùng", "Lê Duẩn", "Võ Văn Tần", "Pasteur"
+    };
+    private static final String[] PHONE_PREFIXES = {
+            "090", "091", "093", "094", "096", "097", "098", "032", "033", "034", "035", "036", "037",
+            "038", "039", "070", "076", "077", "078", "079", "081", "082", "083", "084", "085", "088"
+    };
+
+    private static final String[] PRODUCT_TYPES = {
+            "Sữa tươi", "Sữa chua", "Nước mắm", "Nước tương", "Gạo", "Mì gói", "Phở ăn liền", "Cà phê",
+            "Trà xanh", "Bánh quy", "Kẹo", "Dầu ăn", "Nước ngọt", "Nước suối", "Bia", "Xà phòng",
+            "Dầu gội", "Sữa tắm", "Kem đánh răng", "Nước rửa chén", "Bột giặt", "Khăn giấy", "Tã em bé",
+            "Sữa bột", "Bánh tráng", "Hạt nêm", "Tương ớt", "Cháo ăn liền", "Xúc xích", "Chả lụa"
+    };
+    private static final String[] BRANDS = {
+            "Vinamilk", "TH True Milk", "Trung Nguyên", "Acecook", "Masan", "Nam Ngư", "Chinsu",
+            "Kinh Đô", "Bibica", "Tường An", "Highlands", "Lavie", "Sabeco", "Unilever", "P/S",
+            "Vifon", "Cholimex", "Vissan", "Hảo Hảo", "Omo"
+    };
+    private static final String[] SIZES = {
+            "180ml", "330ml", "500ml", "1L", "1.5L", "100g", "250g", "500g", "1kg", "5kg",
+            "gói", "hộp", "lốc 4", "thùng 24", "chai", "túi"
+    };
+
+    private final long seed;
+
+    public SyntheticDataFactory(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Random stream for one row, independent of the thread and order in which rows are generated.
+     */
+    public SplittableRandom random(String table, long id) {
+        return new SplittableRandom(seed ^ (table.hashCode() * 0x9E3779B97F4A7C15L) ^ (id * 0xBF58476D1CE4E5B9L));
+    }
+
+    public String personName(SplittableRandom random) {
+        boolean female = random.nextBoolean();
+        String family = FAMILY_NAMES[weighted(random, FAMILY_NAME_WEIGHTS)];
+        String middle = pick(random, female ? FEMALE_MIDDLE_NAMES : MALE_MIDDLE_NAMES);
+        String given = pick(random, female ? FEMALE_GIVEN_NAMES : MALE_GIVEN_NAMES);
+        return family + " " + middle + " " + given;
+    }
+
+    /**
+     * Unique mobile number in national format, derived from the customer id.
+     */
+    public String phoneNumber(SplittableRandom random, long id) {
+        String prefix = pick(random, PHONE_PREFIXES);
+        return prefix + String.format("%07d", Math.floorMod(id * 7_919L, 10_000_000L));
+    }
+
+    /**
+     * Returns {street address, city, district}.
+     */
+    public String[] address(SplittableRandom random) {
+        String[] city = CITIES[weighted(random, CITY_WEIGHTS)];
+        String district = city[1 + random.nextInt(city.length - 1)];
+        String street = (1 + random.nextInt(500)) + " " + pick(random, STREETS) + ", " + district;
+        return new String[]{street, city[0], district};
+    }
+
+    public String categoryName(SplittableRandom random) {
+        return pick(random, PRODUCT_TYPES);
+    }
+
+    public String productName(SplittableRandom random) {
+        return pick(random, PRODUCT_TYPES) + " " + pick(random, BRANDS) + " " + pick(random, SIZES);
+    }
+
+    /**
+     * Retail price in whole VND, rounded to 500 as shelf prices usually are.
+     */
+    public BigDecimal price(SplittableRandom random) {
+        // Log-uniform between 5,000 and 2,000,000 VND
+        double value = Math.exp(Math.log(5_000) + random.nextDouble() * (Math.log(2_000_000) - Math.log(5_000)));
+        return BigDecimal.valueOf(Math.round(value / 500) * 500L);
+    }
+
+    public BigDecimal costPrice(SplittableRandom random, BigDecimal price) {
+        double margin = 0.55 + random.nextDouble() * 0.3;
+        return price.multiply(BigDecimal.valueOf(margin)).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Draws an index from {@code [0, size)} with a Zipf-like skew, so that a few products sell far more
+     * often than the long tail.
+     */
+    public static int skewedIndex(SplittableRandom random, int size) {
+        // size^u is log-uniform on [1, size], i.e. density proportional to 1/rank
+        int rank = (int) Math.min(size - 1, Math.floor(Math.pow(size, random.nextDouble())) - 1);
+        // Scatter ranks over the range so that the best sellers are not simply the lowest ids
+        return (int) Math.floorMod(rank * 1_000_003L, size);
+    }
+
+    public static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,364 @@
+package fa.training.kiotviet.loadtest;
+
+import fa.training.kiotviet.enums.InventoryTransactionType;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.exception.KiotVietException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Fills the schema with synthetic categories, products, customers, orders, order items and inventory
+ * ledger rows at configurable volumes.
+ * <p>
+ * Rows are written with JDBC batch inserts in chunks of {@code app.loadtest.generate.batch-size}, one
+ * transaction per chunk, spread over {@code app.loadtest.generate.threads}. Parent rows get explicit ids
+ * allocated above the current maximum, so chunks can reference each other without reading keys back;
+ * the generator therefore expects to be the only writer while it runs.
+ * <p>
+ * The inserts bypass JPA, so entity listeners (outbox, caches, incremental valuation) do not see them.
+ * Restart the application afterwards so the startup warm-up picks the data up, and rebuild the
+ * inventory valuation.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class SyntheticDataGenerator {
+
+    private static final String INSERT_CATEGORY_SQL = "INSERT INTO categories " +
+            "(id, name, description, parent_id, sort_order, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products " +
+            "(id, name, sku, barcode, status, price, cost_price, sale_price, min_stock_level, max_stock_level, " +
+            "is_taxable, tax_rate, is_track_inventory, category_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CUSTOMER_SQL = "INSERT INTO customers " +
+            "(id, customer_code, name, phone_number, email, address, city, district, birth_date, loyalty_points, " +
+            "credit_limit, current_balance, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_SQL = "INSERT INTO orders " +
+            "(id, order_number, customer_id, status, order_date, shipping_fee, tax_amount, discount_amount, " +
+            "total_amount, paid_amount, payment_method, payment_status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM_SQL = "INSERT INTO order_items " +
+            "(order_id, product_id, quantity, unit_price, discount_amount, total_price, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LEDGER_SQL = "INSERT INTO inventory_transactions " +
+            "(product_id, transaction_type, quantity, unit_cost, total_cost, reference_type, reference_id, " +
+            "transaction_date, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final OrderStatus[] ORDER_STATUSES = {
+            OrderStatus.DELIVERED, OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED,
+            OrderStatus.PENDING, OrderStatus.CANCELLED, OrderStatus.REFUNDED
+    };
+    private static final int[] ORDER_STATUS_PERCENTILES = {70, 78, 84, 90, 95, 99, 100};
+    private static final String[] PAYMENT_METHODS = {"CASH", "CASH", "CARD", "TRANSFER", "EWALLET"};
+    private static final String NOTES = "Synthetic load-test data";
+    private static final int MIN_ROOT_CATEGORIES = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.loadtest.generate.seed:42}")
+    private long seed;
+
+    @Value("${app.loadtest.generate.categories:40}")
+    private int categoryCount;
+
+    @Value("${app.loadtest.generate.products:100000}")
+    private int productCount;
+
+    @Value("${app.loadtest.generate.customers:500000}")
+    private int customerCount;
+
+    @Value("${app.loadtest.generate.orders:1000000}")
+    private int orderCount;
+
+    @Value("${app.loadtest.generate.max-items-per-order:5}")
+    private int maxItemsPerOrder;
+
+    @Value("${app.loadtest.generate.days:365}")
+    private int days;
+
+    @Value("${app.loadtest.generate.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${app.loadtest.generate.threads:4}")
+    private int threads;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Per-product data needed to price order lines and cost receipts.
+     */
+    private record ProductCatalog(long[] ids, BigDecimal[] prices, BigDecimal[] costPrices) {
+    }
+
+    public void generate() {
+        SyntheticDataFactory factory = new SyntheticDataFactory(seed);
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = end.minusDays(days);
+        long begin = System.currentTimeMillis();
+        log.info("Generating {} categories, {} products, {} customers and {} orders over {} days",
+                categoryCount, productCount, customerCount, orderCount, days);
+
+        List<Long> categoryIds = generateCategories(factory, start);
+        generateProducts(factory, categoryIds, start);
+        generateCustomers(factory, start);
+        ProductCatalog catalog = loadCatalog();
+        long[] customerIds = jdbcTemplate.queryForList("SELECT id FROM customers WHERE is_active = true", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        if (catalog.ids().length == 0 || customerIds.length == 0) {
+            throw new KiotVietException("LOADTEST_ERROR", "Orders need at least one product and one customer");
+        }
+        generateOrders(factory, catalog, customerIds, start, end);
+
+        log.info("Synthetic data generated in {} s", (System.currentTimeMillis() - begin) / 1000);
+    }
+
+    private List<Long> generateCategories(SyntheticDataFactory factory, LocalDateTime createdAt) {
+        List<Long> roots = new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM categories WHERE parent_id IS NULL", Long.class));
+        long firstId = nextId("categories");
+        List<Object[]> rows = new ArrayList<>(categoryCount);
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        // Without seed categories the first few become roots; everything else is a subcategory
+        int newRoots = roots.isEmpty() ? MIN_ROOT_CATEGORIES : 0;
+        for (int i = 0; i < categoryCount; i++) {
+            long id = firstId + i;
+            SplittableRandom random = factory.random("categories", id);
+            Long parentId = i < newRoots ? null : roots.get(random.nextInt(roots.size()));
+            rows.add(new Object[]{id, factory.categoryName(random), NOTES, parentId, i, true, timestamp, timestamp});
+            if (parentId == null) {
+                roots.add(id);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, rows);
+        log.info("Inserted {} categories", rows.size());
+        return jdbcTemplate.queryForList("SELECT id FROM categories", Long.class);
+    }
+
+    private void generateProducts(SyntheticDataFactory factory, List<Long> categoryIds, LocalDateTime start) {
+        long firstId = nextId("products");
+        Timestamp openedAt = Timestamp.valueOf(start);
+        runChunks("products", productCount, (chunkStart, chunkEnd) -> {
+            List<Object[]> products = new ArrayList<>(chunkEnd - chunkStart);
+            List<Object[]> receipts = new ArrayList<>(chunkEnd - chunkStart);
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                long id = firstId + i;
+                SplittableRandom random = factory.random("products", id);
+                BigDecimal price = factory.price(random);
+                BigDecimal costPrice = factory.costPrice(random, price);
+                BigDecimal salePrice = random.nextInt(10) == 0
+                        ? price.multiply(BigDecimal.valueOf(0.9)).setScale(0, RoundingMode.HALF_UP) : null;
+                ProductStatus status = random.nextInt(20) == 0 ? ProductStatus.INACTIVE : ProductStatus.ACTIVE;
+                boolean taxable = random.nextInt(5) != 0;
+                products.add(new Object[]{id, factory.productName(random), String.format("LT%09d", id),
+                        String.format("893%010d", id), status.name(), price, costPrice, salePrice, 10, 1000,
+                        taxable, taxable ? BigDecimal.valueOf(8) : BigDecimal.ZERO, true,
+                        categoryIds.get(random.nextInt(categoryIds.size())), openedAt, openedAt});
+                int openingStock = 50 + random.nextInt(450);
+                receipts.add(new Object[]{id, InventoryTransactionType.IN.name(), openingStock, costPrice,
+                        costPrice.multiply(BigDecimal.valueOf(openingStock)), "PURCHASE", null, openedAt, NOTES,
+                        openedAt, openedAt});
+            }
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products);
+            jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, receipts);
+            return products.size() + receipts.size();
+        });
+    }
+
+    private void generateCustomers(SyntheticDataFactory factory, LocalDateTime start) {
+        long firstId = nextId("customers");
+        runChunks("customers", customerCount, (chunkStart, chunkEnd) -> {
+            List<Object[]> rows = new ArrayList<>(chunkEnd - chunkStart);
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                long id = firstId + i;
+                SplittableRandom random = factory.random("customers", id);
+                String[] address = factory.address(random);
+                Timestamp createdAt = Timestamp.valueOf(start.plusMinutes(random.nextLong(Math.max(1, days) * 1440L)));
+                BigDecimal creditLimit = random.nextInt(10) == 0 ? BigDecimal.valueOf(5_000_000) : BigDecimal.ZERO;
+                rows.add(new Object[]{id, String.format("KH%08d", id), factory.personName(random),
+                        factory.phoneNumber(random, id), "kh" + id + "@loadtest.kiotviet.vn", address[0], address[1],
+                        address[2], LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                        random.nextInt(2000), creditLimit, BigDecimal.ZERO, true, createdAt, createdAt});
+            }
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, rows);
+            return rows.size();
+        });
+    }
+
+    private void generateOrders(SyntheticDataFactory factory, ProductCatalog catalog, long[] customerIds,
+                                LocalDateTime start, LocalDateTime end) {
+        long firstId = nextId("orders");
+        long spanSeconds = Math.max(1, Duration.between(start, end).getSeconds());
+        runChunks("orders", orderCount, (chunkStart, chunkEnd) -> {
+            List<Object[]> orders = new ArrayList<>(chunkEnd - chunkStart);
+            List<Object[]> items = new ArrayList<>((chunkEnd - chunkStart) * 3);
+            List<Object[]> ledger = new ArrayList<>((chunkEnd - chunkStart) * 3);
+            Map<Integer, Integer> soldByProduct = new HashMap<>();
+            LocalDateTime chunkDate = start.plusSeconds(spanSeconds * chunkStart / orderCount);
+
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                long id = firstId + i;
+                SplittableRandom random = factory.random("orders", id);
+                // Order dates increase with the id, as they would in production
+                LocalDateTime orderDate = start.plusSeconds(spanSeconds * i / orderCount + random.nextInt(60));
+                Timestamp orderTimestamp = Timestamp.valueOf(orderDate);
+                OrderStatus status = orderStatus(random);
+                boolean shipped = status != OrderStatus.PENDING && status != OrderStatus.CANCELLED;
+
+                BigDecimal total = BigDecimal.ZERO;
+                int lines = 1 + random.nextInt(Math.max(1, maxItemsPerOrder));
+                for (int line = 0; line < lines; line++) {
+                    int product = SyntheticDataFactory.skewedIndex(random, catalog.ids().length);
+                    int quantity = random.nextInt(4) == 0 ? 2 + random.nextInt(4) : 1;
+                    BigDecimal unitPrice = catalog.prices()[product];
+                    BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+                    total = total.add(lineTotal);
+                    items.add(new Object[]{id, catalog.ids()[product], quantity, unitPrice, BigDecimal.ZERO,
+                            lineTotal, orderTimestamp, orderTimestamp});
+                    if (shipped) {
+                        ledger.add(new Object[]{catalog.ids()[product], InventoryTransactionType.OUT.name(), quantity,
+                                null, null, "SALE", id, orderTimestamp, null, orderTimestamp, orderTimestamp});
+                        soldByProduct.merge(product, quantity, Integer::sum);
+                    }
+                }
+                boolean paid = shipped && status != OrderStatus.CONFIRMED;
+                orders.add(new Object[]{id, String.format("LT%010d", id),
+                        customerIds[SyntheticDataFactory.skewedIndex(random, customerIds.length)], status.name(),
+                        orderTimestamp, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, total,
+                        paid ? total : BigDecimal.ZERO, SyntheticDataFactory.pick(random, PAYMENT_METHODS),
+                        paid ? "PAID" : "UNPAID", orderTimestamp, orderTimestamp});
+            }
+
+            // Restock what this chunk sells, dated before its first sale, at a slightly varying cost
+            Timestamp restockedAt = Timestamp.valueOf(chunkDate);
+            SplittableRandom costRandom = factory.random("restock", chunkStart);
+            List<Object[]> receipts = new ArrayList<>(soldByProduct.size());
+            soldByProduct.forEach((product, sold) -> {
+                BigDecimal unitCost = catalog.costPrices()[product]
+                        .multiply(BigDecimal.valueOf(0.95 + costRandom.nextDouble() * 0.1))
+                        .setScale(0, RoundingMode.HALF_UP);
+                receipts.add(new Object[]{catalog.ids()[product], InventoryTransactionType.IN.name(), sold, unitCost,
+                        unitCost.multiply(BigDecimal.valueOf(sold)), "PURCHASE", null, restockedAt, NOTES,
+                        restockedAt, restockedAt});
+            });
+
+            jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders);
+            jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, items);
+            jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, receipts);
+            jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, ledger);
+            return orders.size() + items.size() + receipts.size() + ledger.size();
+        });
+    }
+
+    private ProductCatalog loadCatalog() {
+        List<Long> ids = new ArrayList<>();
+        List<BigDecimal> prices = new ArrayList<>();
+        List<BigDecimal> costPrices = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, price, cost_price FROM products WHERE status = 'ACTIVE' ORDER BY id", rs -> {
+            ids.add(rs.getLong(1));
+            prices.add(rs.getBigDecimal(2));
+            BigDecimal costPrice = rs.getBigDecimal(3);
+            costPrices.add(costPrice != null ? costPrice : rs.getBigDecimal(2));
+        });
+        return new ProductCatalog(ids.stream().mapToLong(Long::longValue).toArray(),
+                prices.toArray(BigDecimal[]::new), costPrices.toArray(BigDecimal[]::new));
+    }
+
+    private OrderStatus orderStatus(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < ORDER_STATUS_PERCENTILES.length; i++) {
+            if (roll < ORDER_STATUS_PERCENTILES[i]) {
+                return ORDER_STATUSES[i];
+            }
+        }
+        return OrderStatus.DELIVERED;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        /**
+         * Writes rows {@code [start, end)} and returns the number of rows inserted across all tables.
+         */
+        int write(int start, int end);
+    }
+
+    private void runChunks(String name, int total, ChunkWriter writer) {
+        if (total <= 0) {
+            return;
+        }
+        long begin = System.currentTimeMillis();
+        AtomicLong rows = new AtomicLong();
+        AtomicLong done = new AtomicLong();
+        int chunkSize = Math.max(1, batchSize);
+        int logEvery = Math.max(1, total / 10);
+        LongConsumer progress = count -> {
+            long before = done.getAndAdd(count);
+            if ((before + count) / logEvery != before / logEvery) {
+                log.info("Generating {}: {}/{}", name, before + count, total);
+            }
+        };
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable ->
+                new Thread(runnable, "loadtest-" + name + "-" + threadCount.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int start = 0; start < total; start += chunkSize) {
+                int chunkStart = start;
+                int chunkEnd = Math.min(total, start + chunkSize);
+                futures.add(executor.submit(() -> {
+                    rows.addAndGet(transactionTemplate.execute(status -> writer.write(chunkStart, chunkEnd)));
+                    progress.accept(chunkEnd - chunkStart);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KiotVietException("LOADTEST_ERROR", "Generation of " + name + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new KiotVietException("LOADTEST_ERROR", "Generation of " + name + " failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - begin);
+        log.info("Inserted {} {} ({} rows including related tables) in {} ms, {} rows/s",
+                total, name, rows.get(), elapsed, rows.get() * 1000 / elapsed);
+    }
+}
@@ -0,0 +1,307 @@
+package fa.training.kiotviet.loadtest;
+
+import fa.training.kiotviet.dto.ProductFacetQuery;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import fa.training.kiotviet.enums.InventoryTransactionType;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.model.InventoryTransaction;
+import fa.training.kiotviet.model.Order;
+import fa.training.kiotviet.model.OrderItem;
+import fa.training.kiotviet.repository.CustomerRepository;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.service.CustomerLookupService;
+import fa.training.kiotviet.service.EntityLookupService;
+import fa.training.kiotviet.service.InventoryValuationService;
+import fa.training.kiotviet.service.ProductFacetService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a checkout/search/report mix against the real services and repositories from worker threads
+ * and reports throughput and latency percentiles per operation.
+ * <p>
+ * Operations run in-process, so the numbers exclude HTTP and the concurrency limiter but include the
+ * connection pool, JPA, entity listeners and caches. Checkouts write real orders and ledger rows.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class WorkloadDriver {
+
+    public static final String CHECKOUT = "checkout";
+    public static final String PRODUCT_SEARCH = "product-search";
+    public static final String FACET_SEARCH = "facet-search";
+    public static final String CUSTOMER_LOOKUP = "customer-lookup";
+    public static final String REPORT = "report";
+
+    private static final int SAMPLE_SIZE = 20_000;
+    private static final String[] SEARCH_KEYWORDS = {
+            "Sữa", "Nước", "Gạo", "Mì", "Cà phê", "Trà", "Bánh", "Dầu", "Bia", "Kem", "Vinamilk", "Acecook", "1kg"
+    };
+
+    private final CustomerLookupService customerLookupService;
+    private final EntityLookupService entityLookupService;
+    private final ProductFacetService productFacetService;
+    private final InventoryValuationService valuationService;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryTransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong orderSequence = new AtomicLong();
+
+    @Value("${app.loadtest.workload.threads:16}")
+    private int threads;
+
+    @Value("${app.loadtest.workload.duration:60s}")
+    private Duration duration;
+
+    @Value("${app.loadtest.workload.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${app.loadtest.workload.checkout-weight:50}")
+    private int checkoutWeight;
+
+    @Value("${app.loadtest.workload.search-weight:45}")
+    private int searchWeight;
+
+    @Value("${app.loadtest.workload.report-weight:5}")
+    private int reportWeight;
+
+    @Value("${app.loadtest.workload.seed:7}")
+    private long seed;
+
+    public WorkloadDriver(CustomerLookupService customerLookupService, EntityLookupService entityLookupService,
+                          ProductFacetService productFacetService, InventoryValuationService valuationService,
+                          ProductRepository productRepository, CustomerRepository customerRepository,
+                          OrderRepository orderRepository, InventoryTransactionRepository transactionRepository,
+                          JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.customerLookupService = customerLookupService;
+        this.entityLookupService = entityLookupService;
+        this.productFacetService = productFacetService;
+        this.valuationService = valuationService;
+        this.productRepository = productRepository;
+        this.customerRepository = customerRepository;
+        this.orderRepository = orderRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Ids and lookup keys the workers draw their inputs from.
+     */
+    private record Inputs(long[] productIds, long[] customerIds, String[] customerPhones, String[] customerNames,
+                          long[] categoryIds) {
+    }
+
+    public Map<String, LatencyRecorder.OperationStats> run() {
+        Inputs inputs = loadInputs();
+        if (inputs.productIds().length == 0 || inputs.customerIds().length == 0) {
+            log.warn("Workload skipped: generate products and customers first");
+            return Map.of();
+        }
+        log.info("Running workload with {} threads for {} after a {} warm-up (checkout {}%, search {}%, report {}%)",
+                threads, duration, warmup, checkoutWeight, searchWeight, reportWeight);
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            SplittableRandom random = new SplittableRandom(seed + i);
+            Thread worker = new Thread(() -> {
+                try {
+                    work(inputs, random, recorder, warmupEnd, end);
+                } finally {
+                    finished.countDown();
+                }
+            }, "workload-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach(total::merge);
+        Map<String, LatencyRecorder.OperationStats> report = total.summarize(duration.toNanos());
+        log.info(String.format("%-16s %10s %8s %10s %9s %9s %9s %9s %9s",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        report.values().forEach(stats -> log.info(String.format("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                stats.operation(), stats.count(), stats.errors(), stats.throughputPerSecond(), stats.p50(),
+                stats.p90(), stats.p99(), stats.p999(), stats.max())));
+        return report;
+    }
+
+    private void work(Inputs inputs, SplittableRandom random, LatencyRecorder recorder, long warmupEnd, long end) {
+        int totalWeight = Math.max(1, checkoutWeight + searchWeight + reportWeight);
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            int roll = random.nextInt(totalWeight);
+            String operation;
+            Runnable action;
+            if (roll < checkoutWeight) {
+                operation = CHECKOUT;
+                action = () -> checkout(inputs, random);
+            } else if (roll < checkoutWeight + searchWeight) {
+                int kind = random.nextInt(3);
+                operation = kind == 0 ? PRODUCT_SEARCH : kind == 1 ? FACET_SEARCH : CUSTOMER_LOOKUP;
+                action = kind == 0 ? () -> productSearch(random)
+                        : kind == 1 ? () -> facetSearch(inputs, random)
+                        : () -> customerLookup(inputs, random);
+            } else {
+                operation = REPORT;
+                action = () -> report(random);
+            }
+
+            boolean success = true;
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                success = false;
+                log.debug("Workload operation {} failed", operation, e);
+            }
+            long elapsed = System.nanoTime() - now;
+            if (now >= warmupEnd) {
+                recorder.record(operation, elapsed, success);
+            }
+        }
+    }
+
+    /**
+     * Looks up a customer and the basket's products, then saves the order and its stock movements.
+     */
+    private void checkout(Inputs inputs, SplittableRandom random) {
+        int customer = random.nextInt(inputs.customerIds().length);
+        customerLookupService.lookup(prefix(inputs.customerPhones()[customer], random), 10);
+
+        int lines = 1 + random.nextInt(5);
+        List<ProductSummaryDto> basket = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            int product = SyntheticDataFactory.skewedIndex(random, inputs.productIds().length);
+            basket.add(entityLookupService.getProduct(inputs.productIds()[product]));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Order order = Order.builder()
+                    .orderNumber("WL" + System.currentTimeMillis() + "-" + orderSequence.incrementAndGet())
+                    .customer(customerRepository.getReferenceById(inputs.customerIds()[customer]))
+                    .status(OrderStatus.CONFIRMED)
+                    .orderDate(now)
+                    .shippingFee(BigDecimal.ZERO)
+                    .taxAmount(BigDecimal.ZERO)
+                    .discountAmount(BigDecimal.ZERO)
+                    .paidAmount(BigDecimal.ZERO)
+                    .paymentMethod("CASH")
+                    .paymentStatus("UNPAID")
+                    .orderItems(new ArrayList<>())
+                    .build();
+            BigDecimal total = BigDecimal.ZERO;
+            for (ProductSummaryDto product : basket) {
+                int quantity = 1 + random.nextInt(2);
+                OrderItem item = OrderItem.builder()
+                        .order(order)
+                        .product(productRepository.getReferenceById(product.getId()))
+                        .quantity(quantity)
+                        .unitPrice(product.getPrice())
+                        .discountAmount(BigDecimal.ZERO)
+                        .build();
+                order.getOrderItems().add(item);
+                total = total.add(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
+            }
+            order.setTotalAmount(total);
+            orderRepository.save(order);
+
+            for (OrderItem item : order.getOrderItems()) {
+                transactionRepository.save(InventoryTransaction.builder()
+                        .product(item.getProduct())
+                        .transactionType(InventoryTransactionType.OUT.name())
+                        .quantity(item.getQuantity())
+                        .referenceType("SALE")
+                        .referenceId(order.getId())
+                        .transactionDate(now)
+                        .build());
+            }
+        });
+    }
+
+    private void productSearch(SplittableRandom random) {
+        productRepository.searchProducts(SyntheticDataFactory.pick(random, SEARCH_KEYWORDS), PageRequest.of(0, 20));
+    }
+
+    private void facetSearch(Inputs inputs, SplittableRandom random) {
+        long categoryId = inputs.categoryIds()[random.nextInt(inputs.categoryIds().length)];
+        productFacetService.search(ProductFacetQuery.builder()
+                .categoryIds(Set.of(categoryId))
+                .maxPrice(BigDecimal.valueOf(50_000L + random.nextInt(500_000)))
+                .page(0)
+                .size(20)
+                .build());
+    }
+
+    private void customerLookup(Inputs inputs, SplittableRandom random) {
+        int customer = random.nextInt(inputs.customerIds().length);
+        String text = random.nextBoolean()
+                ? prefix(inputs.customerPhones()[customer], random)
+                : inputs.customerNames()[customer].substring(inputs.customerNames()[customer].lastIndexOf(' ') + 1);
+        customerLookupService.lookup(text, 10);
+    }
+
+    private void report(SplittableRandom random) {
+        LocalDateTime to = LocalDateTime.now();
+        valuationService.getCogs(to.minusDays(1 + random.nextInt(30)), to);
+    }
+
+    private static String prefix(String phone, SplittableRandom random) {
+        if (phone == null || phone.length() < 4) {
+            return "09";
+        }
+        return phone.substring(0, 4 + random.nextInt(phone.length() - 3));
+    }
+
+    private Inputs loadInputs() {
+        long[] productIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE status = 'ACTIVE' ORDER BY id LIMIT " + SAMPLE_SIZE, Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        List<Long> customerIds = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, phone_number, name FROM customers WHERE is_active = true ORDER BY id DESC LIMIT "
+                + SAMPLE_SIZE, rs -> {
+            customerIds.add(rs.getLong(1));
+            phones.add(rs.getString(2));
+            names.add(rs.getString(3));
+        });
+        long[] categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        return new Inputs(productIds, customerIds.stream().mapToLong(Long::longValue).toArray(),
+                phones.toArray(String[]::new), names.toArray(String[]::new), categoryIds);
+    }
+}
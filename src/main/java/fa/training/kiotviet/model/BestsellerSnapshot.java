@@ -0,0 +1,32 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodic copy of the in-memory bestseller sketches, used to resume the rankings after a restart
+ * without rescanning seven days of orders.
+ */
+@Entity
+@Table(name = "bestseller_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestsellerSnapshot {
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    @Column(name = "payload", columnDefinition = "LONGTEXT", nullable = false)
+    private String payload;
+}
@@ -0,0 +1,47 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * FIFO cost layer created by an inbound inventory transaction and consumed by outbound ones.
+ * A negative remaining quantity records stock issued before it was received.
+ */
+@Entity
+@Table(name = "cost_layers", indexes = {
+        @Index(name = "idx_cost_layers_product_open", columnList = "product_id, remaining_quantity")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostLayer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "source_transaction_id")
+    private Long sourceTransactionId;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "original_quantity", nullable = false)
+    private Integer originalQuantity;
+
+    @Column(name = "remaining_quantity", nullable = false)
+    private Integer remainingQuantity;
+
+    @Column(name = "unit_cost", precision = 19, scale = 4, nullable = false)
+    private BigDecimal unitCost;
+}
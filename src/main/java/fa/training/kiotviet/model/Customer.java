@@ -1,5 +1,6 @@
 package fa.training.kiotviet.model;
 
+import fa.training.kiotviet.event.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,7 +20,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class Customer {
 
     @Id
@@ -0,0 +1,47 @@
+package fa.training.kiotviet.model;
+
+import fa.training.kiotviet.enums.CreditEntryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One movement of a customer's credit balance. Charges are positive and payments negative, so the sum
+ * over a customer equals {@code Customer.currentBalance} and the sum over an order is its unpaid credit.
+ */
+@Entity
+@Table(name = "customer_credit_entries", indexes = {
+        @Index(name = "idx_credit_entries_customer", columnList = "customer_id, id"),
+        @Index(name = "idx_credit_entries_order", columnList = "order_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerCreditEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private CreditEntryType entryType;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
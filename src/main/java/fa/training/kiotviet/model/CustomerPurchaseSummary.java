@@ -0,0 +1,51 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Purchase totals of one customer over its orders in a sale status, recomputed whenever one of those
+ * orders changes. {@code topCategoryIds} lists up to three category ids by spend, comma-separated.
+ */
+@Entity
+@Table(name = "customer_purchase_summaries", indexes = {
+        @Index(name = "idx_customer_summaries_lifetime_value", columnList = "lifetime_value"),
+        @Index(name = "idx_customer_summaries_last_purchase", columnList = "last_purchase_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPurchaseSummary {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+
+    @Column(name = "lifetime_value", precision = 19, scale = 2, nullable = false)
+    private BigDecimal lifetimeValue;
+
+    @Column(name = "average_basket", precision = 19, scale = 2, nullable = false)
+    private BigDecimal averageBasket;
+
+    @Column(name = "first_purchase_at")
+    private LocalDateTime firstPurchaseAt;
+
+    @Column(name = "last_purchase_at")
+    private LocalDateTime lastPurchaseAt;
+
+    @Column(name = "top_category_ids", length = 100)
+    private String topCategoryIds;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 package fa.training.kiotviet.model;
 
 import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.event.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,12 +15,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory_transactions")
+@Table(name = "inventory_transactions", indexes = {
+        @Index(name = "idx_inventory_transactions_reference", columnList = "reference_type, reference_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class InventoryTransaction {
 
     @Id
@@ -62,6 +65,13 @@ public class InventoryTransaction {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Transaction date as last read from or written to the database. Entity listeners run before the
+     * callback below, so during an update event this still holds the previous date.
+     */
+    @Transient
+    private LocalDateTime persistedTransactionDate;
+
     @PrePersist
     protected void onCreate() {
         if (transactionDate == null) {
@@ -75,6 +85,13 @@ public class InventoryTransaction {
         calculateTotalCost();
     }
 
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberPersistedTransactionDate() {
+        persistedTransactionDate = transactionDate;
+    }
+
     private void calculateTotalCost() {
         if (unitCost != null && quantity != null) {
             totalCost = unitCost.multiply(BigDecimal.valueOf(quantity));
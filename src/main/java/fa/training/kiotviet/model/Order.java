@@ -1,6 +1,7 @@
 package fa.training.kiotviet.model;
 
 import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.event.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,12 +16,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class Order {
 
     @Id
@@ -90,10 +93,24 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
 
+    /**
+     * Status as last read from or written to the database. Entity listeners run before the callback
+     * below, so during an update event this still holds the previous status.
+     */
+    @Transient
+    private OrderStatus persistedStatus;
+
     @PrePersist
     protected void onCreate() {
         if (orderDate == null) {
             orderDate = LocalDateTime.now();
         }
     }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberPersistedStatus() {
+        persistedStatus = status;
+    }
 }
\ No newline at end of file
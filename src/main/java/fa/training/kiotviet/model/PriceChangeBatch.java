@@ -0,0 +1,73 @@
+package fa.training.kiotviet.model;
+
+import fa.training.kiotviet.enums.PriceChangeBatchStatus;
+import fa.training.kiotviet.enums.PriceChangeMode;
+import fa.training.kiotviet.enums.PriceField;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk price change over a category subtree. The previous and new value of every product it changed
+ * are kept as {@link PriceChangeEntry} rows, so the batch can be reverted.
+ */
+@Entity
+@Table(name = "price_change_batches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class PriceChangeBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PriceField field;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PriceChangeMode mode;
+
+    @Column(name = "change_value", precision = 19, scale = 4, nullable = false)
+    private BigDecimal value;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PriceChangeBatchStatus status;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "product_count")
+    private Integer productCount;
+
+    @Column(name = "reverted_count")
+    private Integer revertedCount;
+
+    @Column(name = "conflict_count")
+    private Integer conflictCount;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    @Column(name = "reverted_at")
+    private LocalDateTime revertedAt;
+}
@@ -0,0 +1,40 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Value of the changed field of one product before and after a {@link PriceChangeBatch}. Rows are written
+ * with plain JDBC in the same statement that computes the new value.
+ */
+@Entity
+@Table(name = "price_change_entries", indexes = {
+        @Index(name = "uk_price_change_entries_product", columnList = "batch_id, product_id", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceChangeEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "batch_id", nullable = false)
+    private Long batchId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "old_value", precision = 19, scale = 2)
+    private BigDecimal oldValue;
+
+    @Column(name = "new_value", precision = 19, scale = 2)
+    private BigDecimal newValue;
+}
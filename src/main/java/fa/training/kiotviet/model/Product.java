@@ -1,6 +1,7 @@
 package fa.training.kiotviet.model;
 
 import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.event.EntityChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,7 +21,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class Product {
 
     @Id
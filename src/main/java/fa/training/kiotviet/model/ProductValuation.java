@@ -0,0 +1,45 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running stock quantity and value of one product, maintained incrementally from the inventory ledger.
+ * {@code totalValue} uses the perpetual weighted-average cost, {@code fifoValue} the open FIFO cost layers.
+ */
+@Entity
+@Table(name = "product_valuations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductValuation {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "quantity_on_hand", nullable = false)
+    private Integer quantityOnHand;
+
+    @Column(name = "average_cost", precision = 19, scale = 4, nullable = false)
+    private BigDecimal averageCost;
+
+    @Column(name = "total_value", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalValue;
+
+    @Column(name = "fifo_value", precision = 19, scale = 2, nullable = false)
+    private BigDecimal fifoValue;
+
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,62 @@
+package fa.training.kiotviet.model;
+
+import fa.training.kiotviet.enums.StockTakeStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A stock-take session. Counts are collected while it is OPEN and turned into ADJUSTMENT transactions
+ * when it is reconciled; the totals below are filled in at that point.
+ */
+@Entity
+@Table(name = "stock_takes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class StockTake {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockTakeStatus status;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "counted_items")
+    private Integer countedItems;
+
+    @Column(name = "variance_items")
+    private Integer varianceItems;
+
+    @Column(name = "net_variance_quantity")
+    private Long netVarianceQuantity;
+
+    @Column(name = "net_variance_value", precision = 19, scale = 2)
+    private BigDecimal netVarianceValue;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Counted quantity of one product in a stock take. Rows are upserted with plain JDBC while counts stream
+ * in; expected quantity and variance are set during reconciliation.
+ */
+@Entity
+@Table(name = "stock_take_counts", indexes = {
+        @Index(name = "uk_stock_take_counts_product", columnList = "stock_take_id, product_id", unique = true)
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stock_take_id", nullable = false)
+    private Long stockTakeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "counted_quantity", nullable = false)
+    private Integer countedQuantity;
+
+    @Column(name = "expected_quantity")
+    private Integer expectedQuantity;
+
+    @Column(name = "variance")
+    private Integer variance;
+
+    @Column(name = "variance_value", precision = 19, scale = 2)
+    private BigDecimal varianceValue;
+
+    @Column(name = "counted_at", nullable = false)
+    private LocalDateTime countedAt;
+}
@@ -0,0 +1,51 @@
+package fa.training.kiotviet.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Valuation effect of one inventory transaction. Amounts are signed changes of inventory value,
+ * so the cost of goods sold for a period is the negated sum over its OUT entries.
+ */
+@Entity
+@Table(name = "valuation_entries", indexes = {
+        @Index(name = "uk_valuation_entries_transaction", columnList = "transaction_id", unique = true),
+        @Index(name = "idx_valuation_entries_date_type", columnList = "entry_date, transaction_type")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "transaction_type", nullable = false, length = 20)
+    private String transactionType;
+
+    @Column(name = "entry_date", nullable = false)
+    private LocalDateTime entryDate;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "average_cost_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal averageCostAmount;
+
+    @Column(name = "fifo_cost_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal fifoCostAmount;
+}
@@ -0,0 +1,19 @@
+package fa.training.kiotviet.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Default {@link OutboxPublisher} that delivers messages to {@code @EventListener} methods in this
+ * application. A listener exception fails the delivery and triggers a retry.
+ */
+@RequiredArgsConstructor
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(OutboxMessage message) {
+        eventPublisher.publishEvent(message);
+    }
+}
@@ -0,0 +1,11 @@
+package fa.training.kiotviet.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A relayed outbox event as seen by subscribers. {@code id} increases monotonically, and messages for the
+ * same aggregate are always delivered in id order.
+ */
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,13 @@
+package fa.training.kiotviet.outbox;
+
+/**
+ * Destination of relayed outbox messages. Declare a bean of this type to route events to a message broker
+ * instead of the default in-process delivery.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Delivers one message. Throwing marks the message for retry; later messages of the same aggregate wait.
+     */
+    void publish(OutboxMessage message);
+}
@@ -0,0 +1,151 @@
+package fa.training.kiotviet.outbox;
+
+import fa.training.kiotviet.cache.SharedCacheStore;
+import fa.training.kiotviet.enums.OutboxStatus;
+import fa.training.kiotviet.model.OutboxEvent;
+import fa.training.kiotviet.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Polls pending outbox events in id order and hands them to the {@link OutboxPublisher} in batches.
+ * <p>
+ * Only events that are due are read, so events backing off never fill a batch and hold up newer ones.
+ * Per-aggregate ordering: an event is held back while an earlier event of its aggregate is backing off,
+ * and once an event fails, every later event of the same aggregate in the batch is held back too. Failed
+ * deliveries are retried with exponential backoff and parked as {@code FAILED} after
+ * {@code app.outbox.max-attempts}. Ordering is not guaranteed past a parked event: later events of its
+ * aggregate are delivered without it, and it is only delivered if an operator sets it back to PENDING. Only the node
+ * holding the relay lock in the shared cache store relays, so events are not delivered twice in parallel.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String RELAY_LOCK = "outbox-relay";
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final SharedCacheStore sharedStore;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxPublisher publisher,
+                       SharedCacheStore sharedStore, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.sharedStore = sharedStore;
+        this.publishedCounter = meterRegistry.counter("kiotviet.outbox.delivered", "result", "published");
+        this.failedCounter = meterRegistry.counter("kiotviet.outbox.delivered", "result", "failed");
+        Gauge.builder("kiotviet.outbox.pending", outboxEventRepository,
+                        repository -> repository.countByStatus(OutboxStatus.PENDING))
+                .description("Outbox events waiting to be relayed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void relay() {
+        if (!sharedStore.tryLock(RELAY_LOCK, owner, Duration.ofMinutes(1))) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed", e);
+        } finally {
+            sharedStore.unlock(RELAY_LOCK, owner);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 30 3 * * *}")
+    public void deletePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        log.info("Deleted {} published outbox events older than {}", deleted, retention);
+    }
+
+    /**
+     * Relays one batch and returns how many events were read.
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.findDue(now, PageRequest.of(0, batchSize));
+        Set<String> blockedAggregates = new HashSet<>();
+        List<Long> publishedIds = new ArrayList<>();
+
+        for (OutboxEvent event : events) {
+            String aggregateKey = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blockedAggregates.contains(aggregateKey)) {
+                continue;
+            }
+            try {
+                publisher.publish(new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                        event.getEventType(), event.getPayload(), event.getCreatedAt()));
+                publishedIds.add(event.getId());
+            } catch (RuntimeException e) {
+                blockedAggregates.add(aggregateKey);
+                recordFailure(event, e, now);
+            }
+        }
+
+        if (!publishedIds.isEmpty()) {
+            outboxEventRepository.markPublished(publishedIds, LocalDateTime.now());
+            publishedCounter.increment(publishedIds.size());
+        }
+        return events.size();
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error.toString()));
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.FAILED);
+            log.error("Outbox event {} for {} {} failed {} times and was parked", event.getId(),
+                    event.getAggregateType(), event.getAggregateId(), attempts, error);
+        } else {
+            long backoff = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(attempts, 20));
+            event.setNextAttemptAt(now.plusSeconds(backoff));
+            log.warn("Outbox event {} delivery failed (attempt {}), retrying in {}s: {}",
+                    event.getId(), attempts, backoff, error.getMessage());
+        }
+        outboxEventRepository.save(event);
+        failedCounter.increment();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,172 @@
+package fa.training.kiotviet.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.enums.OutboxStatus;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.model.InventoryTransaction;
+import fa.training.kiotviet.model.Order;
+import fa.training.kiotviet.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records product, inventory transaction and order changes in {@code outbox_events}.
+ * <p>
+ * The listener runs synchronously inside the Hibernate flush, and {@link JdbcTemplate} uses the connection
+ * bound to the current JPA transaction, so the outbox row commits or rolls back together with the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    public static final String AGGREGATE_PRODUCT = "PRODUCT";
+    public static final String AGGREGATE_INVENTORY_TRANSACTION = "INVENTORY_TRANSACTION";
+    public static final String AGGREGATE_ORDER = "ORDER";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, payload, status, attempts, created_at, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+    // Same payload as orderPayload, built by MySQL for orders changed with set-based updates
+    private static final String INSERT_ORDERS_SQL = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, payload, status, attempts, created_at, next_attempt_at) " +
+            "SELECT ?, o.id, ?, JSON_OBJECT('id', o.id, 'orderNumber', o.order_number, " +
+            "'customerId', o.customer_id, 'status', o.status, " +
+            "'orderDate', DATE_FORMAT(o.order_date, '%%Y-%%m-%%dT%%H:%%i:%%s'), 'totalAmount', o.total_amount, " +
+            "'paidAmount', o.paid_amount, 'paymentStatus', o.payment_status), ?, 0, ?, ? " +
+            "FROM orders o WHERE o.id IN (%s)";
+    // Same payload as productPayload, for products changed with set-based updates
+    private static final String INSERT_PRODUCTS_SQL = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, payload, status, attempts, created_at, next_attempt_at) " +
+            "SELECT ?, p.id, ?, JSON_OBJECT('id', p.id, 'sku', p.sku, 'name', p.name, " +
+            "'categoryId', p.category_id, 'status', p.status, 'price', p.price, 'salePrice', p.sale_price, " +
+            "'costPrice', p.cost_price, 'taxRate', p.tax_rate), ?, 0, ?, ? " +
+            "FROM products p WHERE p.id IN (%s)";
+    // Same payload as inventoryPayload, for ledger rows written with JDBC batch inserts
+    private static final String INSERT_INVENTORY_TRANSACTIONS_SQL = "INSERT INTO outbox_events " +
+            "(aggregate_type, aggregate_id, event_type, payload, status, attempts, created_at, next_attempt_at) " +
+            "SELECT ?, it.id, ?, JSON_OBJECT('id', it.id, 'productId', it.product_id, " +
+            "'transactionType', it.transaction_type, 'quantity', it.quantity, 'unitCost', it.unit_cost, " +
+            "'totalCost', it.total_cost, 'referenceType', it.reference_type, 'referenceId', it.reference_id, " +
+            "'transactionDate', DATE_FORMAT(it.transaction_date, '%Y-%m-%dT%H:%i:%s')), ?, 0, ?, ? " +
+            "FROM inventory_transactions it WHERE it.reference_type = ? AND it.reference_id = ? ORDER BY it.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent<?> event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Product product) {
+            append(AGGREGATE_PRODUCT, product.getId(), event.getChangeType(), productPayload(product));
+        } else if (entity instanceof InventoryTransaction transaction) {
+            append(AGGREGATE_INVENTORY_TRANSACTION, transaction.getId(), event.getChangeType(),
+                    inventoryPayload(transaction));
+        } else if (entity instanceof Order order) {
+            append(AGGREGATE_ORDER, order.getId(), event.getChangeType(), orderPayload(order));
+        }
+    }
+
+    /**
+     * Records an update of each given order as it is currently stored, for orders changed without going
+     * through JPA. Must run in the transaction that changed them.
+     */
+    public void appendOrderUpdates(List<Long> orderIds) {
+        appendUpdates(INSERT_ORDERS_SQL, AGGREGATE_ORDER, orderIds);
+    }
+
+    /**
+     * Records an update of each given product as it is currently stored, for products changed without
+     * going through JPA. Must run in the transaction that changed them.
+     */
+    public void appendProductUpdates(List<Long> productIds) {
+        appendUpdates(INSERT_PRODUCTS_SQL, AGGREGATE_PRODUCT, productIds);
+    }
+
+    /**
+     * Records the creation of every inventory transaction with the given reference, for ledger rows
+     * inserted without going through JPA. Must run in the transaction that inserted them.
+     */
+    public void appendInventoryTransactionUpdates(String referenceType, Long referenceId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_INVENTORY_TRANSACTIONS_SQL, AGGREGATE_INVENTORY_TRANSACTION,
+                EntityChangedEvent.ChangeType.CREATED.name(), OutboxStatus.PENDING.name(), now, now,
+                referenceType, referenceId);
+    }
+
+    private void appendUpdates(String sql, String aggregateType, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(ids.size() + 5);
+        args.addAll(List.of(aggregateType, EntityChangedEvent.ChangeType.UPDATED.name(),
+                OutboxStatus.PENDING.name(), now, now));
+        args.addAll(ids);
+        jdbcTemplate.update(String.format(sql, String.join(",", Collections.nCopies(ids.size(), "?"))),
+                args.toArray());
+    }
+
+    private void append(String aggregateType, Long aggregateId, EntityChangedEvent.ChangeType changeType,
+                        Map<String, Object> payload) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.update(INSERT_SQL, aggregateType, aggregateId, changeType.name(),
+                    objectMapper.writeValueAsString(payload), OutboxStatus.PENDING.name(), now, now);
+        } catch (JsonProcessingException e) {
+            throw new KiotVietException("OUTBOX_ERROR", "Cannot serialize outbox payload for " + aggregateType, e);
+        }
+    }
+
+    private Map<String, Object> productPayload(Product product) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", product.getId());
+        payload.put("sku", product.getSku());
+        payload.put("name", product.getName());
+        payload.put("categoryId", product.getCategory() != null ? product.getCategory().getId() : null);
+        payload.put("status", product.getStatus());
+        payload.put("price", product.getPrice());
+        payload.put("salePrice", product.getSalePrice());
+        payload.put("costPrice", product.getCostPrice());
+        payload.put("taxRate", product.getTaxRate());
+        return payload;
+    }
+
+    private Map<String, Object> inventoryPayload(InventoryTransaction transaction) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", transaction.getId());
+        payload.put("productId", transaction.getProduct() != null ? transaction.getProduct().getId() : null);
+        payload.put("transactionType", transaction.getTransactionType());
+        payload.put("quantity", transaction.getQuantity());
+        payload.put("unitCost", transaction.getUnitCost());
+        payload.put("totalCost", transaction.getTotalCost());
+        payload.put("referenceType", transaction.getReferenceType());
+        payload.put("referenceId", transaction.getReferenceId());
+        payload.put("transactionDate", transaction.getTransactionDate());
+        return payload;
+    }
+
+    private Map<String, Object> orderPayload(Order order) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", order.getId());
+        payload.put("orderNumber", order.getOrderNumber());
+        payload.put("customerId", order.getCustomer() != null ? order.getCustomer().getId() : null);
+        payload.put("status", order.getStatus());
+        payload.put("orderDate", order.getOrderDate());
+        payload.put("totalAmount", order.getTotalAmount());
+        payload.put("paidAmount", order.getPaidAmount());
+        payload.put("paymentStatus", order.getPaymentStatus());
+        return payload;
+    }
+}
@@ -0,0 +1,12 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.BestsellerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for BestsellerSnapshot entity operations.
+ */
+@Repository
+public interface BestsellerSnapshotRepository extends JpaRepository<BestsellerSnapshot, String> {
+}
@@ -1,11 +1,13 @@
 package fa.training.kiotviet.repository;
 
 import fa.training.kiotviet.model.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +32,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     long countProductsByCategory(@Param("categoryId") Long categoryId);
 
     boolean existsByName(String name);
+
+    @Query("SELECT c FROM Category c WHERE c.updatedAt <= :upTo " +
+           "AND (c.updatedAt > :since OR (c.updatedAt = :since AND c.id > :afterId)) " +
+           "ORDER BY c.updatedAt, c.id")
+    List<Category> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                    @Param("upTo") LocalDateTime upTo, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.CostLayer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for CostLayer entity operations.
+ */
+@Repository
+public interface CostLayerRepository extends JpaRepository<CostLayer, Long> {
+
+    @Query("SELECT l FROM CostLayer l WHERE l.productId = :productId AND l.remainingQuantity <> 0 ORDER BY l.id")
+    List<CostLayer> findOpenLayers(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CostLayer l WHERE l.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,23 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.CustomerCreditEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Repository interface for CustomerCreditEntry entity operations.
+ */
+@Repository
+public interface CustomerCreditEntryRepository extends JpaRepository<CustomerCreditEntry, Long> {
+
+    Page<CustomerCreditEntry> findByCustomerIdOrderByIdDesc(Long customerId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM CustomerCreditEntry e WHERE e.customerId = :customerId")
+    BigDecimal sumByCustomerId(@Param("customerId") Long customerId);
+}
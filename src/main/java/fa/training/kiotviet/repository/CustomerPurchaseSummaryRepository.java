@@ -0,0 +1,36 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.CustomerPurchaseSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for CustomerPurchaseSummary entity operations.
+ */
+@Repository
+public interface CustomerPurchaseSummaryRepository extends JpaRepository<CustomerPurchaseSummary, Long> {
+
+    /**
+     * Customers matching a segment; every criterion is optional.
+     */
+    @Query("SELECT s FROM CustomerPurchaseSummary s " +
+           "WHERE (:minLifetimeValue IS NULL OR s.lifetimeValue >= :minLifetimeValue) " +
+           "AND (:minOrders IS NULL OR s.orderCount >= :minOrders) " +
+           "AND (:lastPurchaseFrom IS NULL OR s.lastPurchaseAt >= :lastPurchaseFrom) " +
+           "AND (:lastPurchaseTo IS NULL OR s.lastPurchaseAt < :lastPurchaseTo)")
+    Page<CustomerPurchaseSummary> findSegment(@Param("minLifetimeValue") BigDecimal minLifetimeValue,
+                                              @Param("minOrders") Integer minOrders,
+                                              @Param("lastPurchaseFrom") LocalDateTime lastPurchaseFrom,
+                                              @Param("lastPurchaseTo") LocalDateTime lastPurchaseTo,
+                                              Pageable pageable);
+
+    @Query("SELECT MAX(s.updatedAt) FROM CustomerPurchaseSummary s")
+    LocalDateTime findLastUpdatedAt();
+}
@@ -1,13 +1,16 @@
 package fa.training.kiotviet.repository;
 
+import fa.training.kiotviet.dto.CustomerLookupRow;
 import fa.training.kiotviet.model.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +30,8 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     List<Customer> findByActiveTrue();
 
-    @Query("SELECT c FROM Customer c WHERE c.name LIKE %:keyword% OR c.email LIKE %:keyword% OR c.customerCode LIKE %:keyword%")
+    @Query("SELECT c FROM Customer c WHERE c.name LIKE %:keyword% OR c.email LIKE %:keyword% " +
+           "OR c.customerCode LIKE %:keyword% OR c.phoneNumber LIKE %:keyword%")
     Page<Customer> searchCustomers(@Param("keyword") String keyword, Pageable pageable);
 
     @Query("SELECT c FROM Customer c WHERE c.loyaltyPoints > 0")
@@ -35,4 +39,20 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
     long countOrdersByCustomer(@Param("customerId") Long customerId);
-}
\ No newline at end of file
+
+    @Query("SELECT new fa.training.kiotviet.dto.CustomerLookupRow(c.id, c.name, c.phoneNumber, c.active) " +
+           "FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+    List<CustomerLookupRow> findLookupRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Adds {@code amount} to the balance of an active customer only if the result stays within the credit
+     * limit. The check and the increment are one statement, so concurrent charges can never overshoot.
+     *
+     * @return 1 if the charge was applied, 0 if it was refused or the customer does not exist
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.currentBalance = COALESCE(c.currentBalance, 0) + :amount " +
+           "WHERE c.id = :customerId AND c.active = true " +
+           "AND COALESCE(c.currentBalance, 0) + :amount <= COALESCE(c.creditLimit, 0)")
+    int chargeWithinLimit(@Param("customerId") Long customerId, @Param("amount") BigDecimal amount);
+}
@@ -1,13 +1,18 @@
 package fa.training.kiotviet.repository;
 
+import fa.training.kiotviet.dto.LedgerRow;
 import fa.training.kiotviet.model.InventoryTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for InventoryTransaction entity operations.
@@ -24,11 +29,45 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
     @Query("SELECT it FROM InventoryTransaction it WHERE it.transactionDate BETWEEN :startDate AND :endDate")
     List<InventoryTransaction> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
-    @Query("SELECT SUM(CASE WHEN it.transactionType = 'IN' THEN it.quantity ELSE 0 END) - " +
+    @Query("SELECT SUM(CASE WHEN it.transactionType IN ('IN', 'RETURN', 'ADJUSTMENT') THEN it.quantity ELSE 0 END) - " +
            "SUM(CASE WHEN it.transactionType = 'OUT' THEN it.quantity ELSE 0 END) " +
            "FROM InventoryTransaction it WHERE it.product.id = :productId")
     Integer getCurrentStock(@Param("productId") Long productId);
 
     @Query("SELECT it FROM InventoryTransaction it WHERE it.notes LIKE %:keyword%")
     List<InventoryTransaction> searchByNotes(@Param("keyword") String keyword);
-}
\ No newline at end of file
+
+    @Query("SELECT new fa.training.kiotviet.dto.LedgerRow(it.id, it.product.id, it.transactionType, it.quantity, " +
+           "it.unitCost, it.transactionDate) FROM InventoryTransaction it " +
+           "WHERE it.product.id = :productId ORDER BY it.transactionDate, it.id")
+    List<LedgerRow> findLedgerRows(@Param("productId") Long productId);
+
+    @Query("SELECT new fa.training.kiotviet.dto.LedgerRow(it.id, it.product.id, it.transactionType, it.quantity, " +
+           "it.unitCost, it.transactionDate) FROM InventoryTransaction it " +
+           "WHERE it.referenceType = :referenceType AND it.referenceId = :referenceId")
+    List<LedgerRow> findLedgerRowsByReference(@Param("referenceType") String referenceType,
+                                              @Param("referenceId") Long referenceId);
+
+    @Query("SELECT DISTINCT it.product.id FROM InventoryTransaction it")
+    List<Long> findProductIdsWithTransactions();
+
+    /**
+     * Streams the ledger in date order, optionally for one product; see
+     * {@link ProductRepository#streamSummaries} for how the rows are fetched.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new fa.training.kiotviet.dto.LedgerRow(it.id, it.product.id, it.transactionType, it.quantity, " +
+           "it.unitCost, it.transactionDate) FROM InventoryTransaction it " +
+           "WHERE (:productId IS NULL OR it.product.id = :productId) " +
+           "AND it.transactionDate >= :from AND it.transactionDate < :to ORDER BY it.transactionDate, it.id")
+    Stream<LedgerRow> streamLedgerRows(@Param("productId") Long productId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(it) FROM InventoryTransaction it " +
+           "WHERE (:productId IS NULL OR it.product.id = :productId) " +
+           "AND it.transactionDate >= :from AND it.transactionDate < :to")
+    long countLedgerRows(@Param("productId") Long productId,
+                         @Param("from") LocalDateTime from,
+                         @Param("to") LocalDateTime to);
+}
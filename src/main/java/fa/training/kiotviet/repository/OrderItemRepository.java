@@ -1,11 +1,13 @@
 package fa.training.kiotviet.repository;
 
+import fa.training.kiotviet.dto.BestsellerItemRow;
 import fa.training.kiotviet.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,4 +25,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT SUM(oi.totalPrice) FROM OrderItem oi WHERE oi.product.id = :productId")
     Double getTotalRevenueByProduct(@Param("productId") Long productId);
-}
\ No newline at end of file
+
+    @Query("SELECT new fa.training.kiotviet.dto.BestsellerItemRow(o.id, o.orderDate, p.id, c.id, oi.quantity) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p LEFT JOIN p.category c WHERE o.id IN :orderIds")
+    List<BestsellerItemRow> findBestsellerRows(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,15 +1,17 @@
 package fa.training.kiotviet.repository;
 
-import fa.training.kiotviet.model.Order;
 import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,10 +25,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     boolean existsByOrderNumber(String orderNumber);
 
+    boolean existsByIdAndCustomerId(Long id, Long customerId);
+
     List<Order> findByCustomerId(Long customerId);
 
     List<Order> findByStatus(OrderStatus status);
 
+    Slice<Order> findByOrderDateAfter(LocalDateTime orderDate, Pageable pageable);
+
     List<Order> findByCreatedBy(Long createdBy);
 
     @Query("SELECT o FROM Order o WHERE o.orderNumber LIKE %:keyword% OR o.customer.name LIKE %:keyword%")
@@ -40,4 +46,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.status IN :statuses")
     Double getTotalRevenueByStatus(@Param("statuses") List<OrderStatus> statuses);
-}
\ No newline at end of file
+
+    /**
+     * Keyset page of orders in the given statuses placed since {@code orderDateFrom} and modified since
+     * {@code updatedSince}, for catching up the bestseller rankings.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.orderDate >= :orderDateFrom " +
+           "AND o.updatedAt >= :updatedSince AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsForBestsellers(@Param("statuses") Collection<OrderStatus> statuses,
+                                     @Param("orderDateFrom") LocalDateTime orderDateFrom,
+                                     @Param("updatedSince") LocalDateTime updatedSince,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+}
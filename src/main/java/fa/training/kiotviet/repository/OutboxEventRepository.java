@@ -0,0 +1,46 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.enums.OutboxStatus;
+import fa.training.kiotviet.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for OutboxEvent entity operations.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Pending events that are due, oldest first, leaving out events queued behind an earlier pending event
+     * of the same aggregate that is still backing off.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = fa.training.kiotviet.enums.OutboxStatus.PENDING " +
+           "AND e.nextAttemptAt <= :now AND NOT EXISTS (SELECT b.id FROM OutboxEvent b " +
+           "WHERE b.status = fa.training.kiotviet.enums.OutboxStatus.PENDING AND b.aggregateType = e.aggregateType " +
+           "AND b.aggregateId = e.aggregateId AND b.id < e.id AND b.nextAttemptAt > :now) ORDER BY e.id")
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = fa.training.kiotviet.enums.OutboxStatus.PUBLISHED, " +
+           "e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = fa.training.kiotviet.enums.OutboxStatus.PUBLISHED " +
+           "AND e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,12 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.PriceChangeBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for PriceChangeBatch entity operations.
+ */
+@Repository
+public interface PriceChangeBatchRepository extends JpaRepository<PriceChangeBatch, Long> {
+}
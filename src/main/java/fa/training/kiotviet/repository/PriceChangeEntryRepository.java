@@ -0,0 +1,16 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.PriceChangeEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for PriceChangeEntry entity operations.
+ */
+@Repository
+public interface PriceChangeEntryRepository extends JpaRepository<PriceChangeEntry, Long> {
+
+    Page<PriceChangeEntry> findByBatchIdOrderByProductId(Long batchId, Pageable pageable);
+}
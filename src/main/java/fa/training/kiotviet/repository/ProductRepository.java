@@ -1,17 +1,26 @@
 package fa.training.kiotviet.repository;
 
-import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.dto.ProductFacetRow;
+import fa.training.kiotviet.dto.ProductKeyRow;
+import fa.training.kiotviet.dto.ProductSummaryDto;
 import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity operations.
@@ -27,6 +36,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByStatus(ProductStatus status);
 
+    // Product has no active flag; "active" means ACTIVE status
+    @Query("SELECT p FROM Product p WHERE p.status = fa.training.kiotviet.enums.ProductStatus.ACTIVE")
     List<Product> findByActiveTrue();
 
     @Query("SELECT p FROM Product p WHERE p.name LIKE %:keyword% OR p.sku LIKE %:keyword% OR p.description LIKE %:keyword%")
@@ -35,11 +46,53 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
 
-    @Query("SELECT p FROM Product p WHERE p.minStockLevel >= p.quantity")
+    /**
+     * Products at or below their minimum stock level. A product without a valuation row has never moved
+     * stock, so it counts as having none on hand.
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN ProductValuation v ON v.productId = p.id " +
+           "WHERE COALESCE(v.quantityOnHand, 0) <= p.minStockLevel")
     List<Product> findLowStockProducts();
 
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
     long countByCategory(@Param("categoryId") Long categoryId);
 
     boolean existsByBarcode(String barcode);
-}
\ No newline at end of file
+
+    @Query("SELECT p FROM Product p WHERE p.updatedAt <= :upTo " +
+           "AND (p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :afterId)) " +
+           "ORDER BY p.updatedAt, p.id")
+    List<Product> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                   @Param("upTo") LocalDateTime upTo, Pageable pageable);
+
+    @Query("SELECT new fa.training.kiotviet.dto.ProductFacetRow(p.id, p.category.id, p.status, p.taxable, p.price) " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductFacetRow> findFacetRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new fa.training.kiotviet.dto.ProductFacetRow(p.id, p.category.id, p.status, p.taxable, p.price) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductFacetRow> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new fa.training.kiotviet.dto.ProductKeyRow(p.id, p.sku) FROM Product p WHERE p.id IN :ids")
+    List<ProductKeyRow> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new fa.training.kiotviet.dto.ProductKeyRow(p.id, p.sku) FROM Product p WHERE p.sku IN :skus")
+    List<ProductKeyRow> findKeysBySkuIn(@Param("skus") Collection<String> skus);
+
+    @Query("SELECT new fa.training.kiotviet.dto.ProductKeyRow(p.id, p.sku) FROM Product p " +
+           "WHERE p.status = fa.training.kiotviet.enums.ProductStatus.ACTIVE AND p.id > :afterId ORDER BY p.id")
+    List<ProductKeyRow> findActiveKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Streams product summaries in id order, optionally narrowed to a category and a status. The MySQL
+     * driver streams rows one by one for this fetch size instead of buffering the whole result, so the
+     * stream must be consumed within a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new fa.training.kiotviet.dto.ProductSummaryDto(p.id, p.sku, p.barcode, p.name, c.id, p.status, " +
+           "p.price, p.salePrice, p.taxable, p.imageUrl) FROM Product p LEFT JOIN p.category c " +
+           "WHERE (:categoryId IS NULL OR c.id = :categoryId) AND (:status IS NULL OR p.status = :status) " +
+           "ORDER BY p.id")
+    Stream<ProductSummaryDto> streamSummaries(@Param("categoryId") Long categoryId,
+                                              @Param("status") ProductStatus status);
+}
@@ -0,0 +1,38 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.dto.InventoryValuationDto;
+import fa.training.kiotviet.model.ProductValuation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for ProductValuation entity operations.
+ */
+@Repository
+public interface ProductValuationRepository extends JpaRepository<ProductValuation, Long> {
+
+    /**
+     * Creates an empty valuation row unless one exists, so that it can be locked with {@link #findForUpdate}.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO product_valuations " +
+                   "(product_id, quantity_on_hand, average_cost, total_value, fifo_value, updated_at) " +
+                   "VALUES (:productId, 0, 0, 0, 0, :now)", nativeQuery = true)
+    int insertIfMissing(@Param("productId") Long productId, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ProductValuation v WHERE v.productId = :productId")
+    Optional<ProductValuation> findForUpdate(@Param("productId") Long productId);
+
+    @Query("SELECT new fa.training.kiotviet.dto.InventoryValuationDto(COUNT(v), SUM(v.quantityOnHand), " +
+           "SUM(v.totalValue), SUM(v.fifoValue)) FROM ProductValuation v")
+    InventoryValuationDto summarize();
+}
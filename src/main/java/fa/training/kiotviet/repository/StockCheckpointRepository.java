@@ -0,0 +1,12 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for StockCheckpoint entity operations.
+ */
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, Long> {
+}
@@ -0,0 +1,33 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.dto.StockTakeVarianceDto;
+import fa.training.kiotviet.model.StockTakeCount;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for StockTakeCount entity operations.
+ */
+@Repository
+public interface StockTakeCountRepository extends JpaRepository<StockTakeCount, Long> {
+
+    long countByStockTakeId(Long stockTakeId);
+
+    /**
+     * Variance lines of a stock take, largest value difference first.
+     */
+    @Query(value = "SELECT new fa.training.kiotviet.dto.StockTakeVarianceDto(c.productId, p.sku, p.name, " +
+                   "c.countedQuantity, c.expectedQuantity, c.variance, c.varianceValue) " +
+                   "FROM StockTakeCount c JOIN Product p ON p.id = c.productId " +
+                   "WHERE c.stockTakeId = :stockTakeId AND (:discrepanciesOnly = false OR c.variance <> 0) " +
+                   "ORDER BY ABS(COALESCE(c.varianceValue, 0)) DESC, c.productId",
+           countQuery = "SELECT COUNT(c) FROM StockTakeCount c " +
+                        "WHERE c.stockTakeId = :stockTakeId AND (:discrepanciesOnly = false OR c.variance <> 0)")
+    Page<StockTakeVarianceDto> findVariances(@Param("stockTakeId") Long stockTakeId,
+                                             @Param("discrepanciesOnly") boolean discrepanciesOnly,
+                                             Pageable pageable);
+}
@@ -0,0 +1,29 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.model.StockTake;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for StockTake entity operations.
+ */
+@Repository
+public interface StockTakeRepository extends JpaRepository<StockTake, Long> {
+
+    /**
+     * Shared lock held while a batch of counts is written, so that reconciliation waits for it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s FROM StockTake s WHERE s.id = :id")
+    Optional<StockTake> findForShare(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockTake s WHERE s.id = :id")
+    Optional<StockTake> findForUpdate(@Param("id") Long id);
+}
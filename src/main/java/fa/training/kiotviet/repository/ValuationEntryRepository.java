@@ -0,0 +1,32 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.dto.CogsReportDto;
+import fa.training.kiotviet.model.ValuationEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for ValuationEntry entity operations.
+ */
+@Repository
+public interface ValuationEntryRepository extends JpaRepository<ValuationEntry, Long> {
+
+    boolean existsByTransactionId(Long transactionId);
+
+    /**
+     * Sums the signed OUT and RETURN entries of a period; the service negates them into sold quantity and COGS.
+     */
+    @Query("SELECT new fa.training.kiotviet.dto.CogsReportDto(SUM(e.quantity), SUM(e.averageCostAmount), " +
+           "SUM(e.fifoCostAmount)) FROM ValuationEntry e " +
+           "WHERE e.entryDate >= :from AND e.entryDate < :to AND e.transactionType IN ('OUT', 'RETURN')")
+    CogsReportDto sumIssues(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM ValuationEntry e WHERE e.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
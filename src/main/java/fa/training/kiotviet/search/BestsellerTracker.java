@@ -0,0 +1,333 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.dto.BestsellerItemRow;
+import fa.training.kiotviet.enums.BestsellerWindow;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window bestseller rankings over confirmed order lines, kept in bounded memory.
+ * <p>
+ * Every scope (all sales plus one scope per product category) owns three rings of time buckets: twelve
+ * 5-minute buckets for the last hour, 24 hourly buckets for today and seven daily buckets for the last
+ * seven days. Each bucket is a {@link SpaceSavingSketch}, allocated on first use and reset when its ring
+ * slot is reused, so memory is bounded by {@code scopes x 43 x capacity} counters no matter how many
+ * orders flow through. {@link #refresh} merges the live buckets of every window into a precomputed top
+ * list, which makes {@link #top} an O(K) copy.
+ * <p>
+ * Order ids counted during the last eight days are remembered in one bitmap per day, so replays from the
+ * outbox or from a catch-up scan after a restart never count an order twice.
+ */
+@Component
+public class BestsellerTracker {
+
+    /** Scope id of the store-wide ranking; category scopes use the category id. */
+    public static final long ALL_SCOPE = 0L;
+
+    private static final int DEDUPE_DAYS = 8;
+
+    private enum Granularity {
+        FIVE_MINUTES(300, 12),
+        HOUR(3600, 24),
+        DAY(86400, 7);
+
+        private final long seconds;
+        private final int slots;
+
+        Granularity(long seconds, int slots) {
+            this.seconds = seconds;
+            this.slots = slots;
+        }
+
+        long bucketId(LocalDateTime time) {
+            return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), seconds);
+        }
+    }
+
+    /**
+     * Serializable copy of the tracker used for restart recovery.
+     */
+    public record State(List<BucketState> buckets, List<CountedOrders> countedOrders) {
+    }
+
+    /**
+     * One non-empty bucket; each counter is a {@code [key, count, error]} triple.
+     */
+    public record BucketState(long scope, String granularity, long bucketId, long[][] counters) {
+    }
+
+    /**
+     * Base64-encoded {@link Roaring64Bitmap} of the order ids counted on one day.
+     */
+    public record CountedOrders(long day, String orderIds) {
+    }
+
+    private record RankingKey(BestsellerWindow window, long scope) {
+    }
+
+    private static final class Ring {
+        private final long[] bucketIds;
+        private final SpaceSavingSketch[] sketches;
+
+        Ring(int slots) {
+            bucketIds = new long[slots];
+            sketches = new SpaceSavingSketch[slots];
+        }
+
+        SpaceSavingSketch bucket(long bucketId, int capacity) {
+            int slot = (int) Math.floorMod(bucketId, (long) sketches.length);
+            if (sketches[slot] == null || bucketIds[slot] < bucketId) {
+                bucketIds[slot] = bucketId;
+                sketches[slot] = new SpaceSavingSketch(capacity);
+            } else if (bucketIds[slot] > bucketId) {
+                return null;
+            }
+            return sketches[slot];
+        }
+    }
+
+    private final int capacity;
+    private final int categoryCapacity;
+    private final int maxResults;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<Long, Map<Granularity, Ring>> scopes = new HashMap<>();
+    private final long[] dedupeDays = new long[DEDUPE_DAYS];
+    private final Roaring64Bitmap[] countedOrders = new Roaring64Bitmap[DEDUPE_DAYS];
+
+    private volatile Map<RankingKey, List<SpaceSavingSketch.Counter>> rankings = Map.of();
+
+    public BestsellerTracker(@Value("${app.bestsellers.capacity:200}") int capacity,
+                             @Value("${app.bestsellers.category-capacity:50}") int categoryCapacity,
+                             @Value("${app.bestsellers.max-results:50}") int maxResults) {
+        this.capacity = capacity;
+        this.categoryCapacity = categoryCapacity;
+        this.maxResults = maxResults;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Counts the lines of one order unless the order was already counted or is older than the longest
+     * window. Order dates in the future are treated as {@code now}.
+     *
+     * @return whether the order was counted
+     */
+    public boolean record(long orderId, LocalDateTime orderDate, List<BestsellerItemRow> items,
+                          LocalDateTime now) {
+        LocalDateTime at = orderDate.isAfter(now) ? now : orderDate;
+        lock.lock();
+        try {
+            Roaring64Bitmap counted = countedOrdersFor(Granularity.DAY.bucketId(at), Granularity.DAY.bucketId(now));
+            if (counted == null || counted.contains(orderId)) {
+                return false;
+            }
+            counted.addLong(orderId);
+            for (BestsellerItemRow item : items) {
+                if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                    continue;
+                }
+                add(ALL_SCOPE, capacity, item, at, now);
+                if (item.getCategoryId() != null) {
+                    add(item.getCategoryId(), categoryCapacity, item, at, now);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} bestsellers of the given window and scope as of the last {@link #refresh}.
+     */
+    public List<SpaceSavingSketch.Counter> top(BestsellerWindow window, long scope, int limit) {
+        List<SpaceSavingSketch.Counter> ranking = rankings.getOrDefault(new RankingKey(window, scope), List.of());
+        return ranking.size() <= limit ? ranking : ranking.subList(0, limit);
+    }
+
+    /**
+     * Rebuilds the precomputed rankings from the buckets that fall inside each window at {@code now} and
+     * drops scopes that no longer hold any live bucket.
+     */
+    public void refresh(LocalDateTime now) {
+        Map<RankingKey, List<SpaceSavingSketch.Counter>> next = new HashMap<>();
+        lock.lock();
+        try {
+            var iterator = scopes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var scope = iterator.next();
+                int scopeCapacity = scope.getKey() == ALL_SCOPE ? capacity : categoryCapacity;
+                boolean live = false;
+                for (BestsellerWindow window : BestsellerWindow.values()) {
+                    SpaceSavingSketch merged = merge(scope.getValue(), window, now, scopeCapacity);
+                    if (!merged.isEmpty()) {
+                        next.put(new RankingKey(window, scope.getKey()), List.copyOf(merged.top(maxResults)));
+                        live = true;
+                    }
+                }
+                if (!live) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        rankings = next;
+    }
+
+    public State exportState() {
+        lock.lock();
+        try {
+            List<BucketState> buckets = new ArrayList<>();
+            scopes.forEach((scope, rings) -> rings.forEach((granularity, ring) -> {
+                for (int slot = 0; slot < ring.sketches.length; slot++) {
+                    SpaceSavingSketch sketch = ring.sketches[slot];
+                    if (sketch != null && !sketch.isEmpty()) {
+                        long[][] counters = sketch.counters().stream()
+                                .map(counter -> new long[]{counter.key(), counter.count(), counter.error()})
+                                .toArray(long[][]::new);
+                        buckets.add(new BucketState(scope, granularity.name(), ring.bucketIds[slot], counters));
+                    }
+                }
+            }));
+            List<CountedOrders> orders = new ArrayList<>();
+            for (int slot = 0; slot < DEDUPE_DAYS; slot++) {
+                if (countedOrders[slot] != null) {
+                    orders.add(new CountedOrders(dedupeDays[slot], encode(countedOrders[slot])));
+                }
+            }
+            return new State(buckets, orders);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the current contents with a previously exported state. Buckets that have since left their
+     * ring are dropped by the next {@link #refresh}.
+     */
+    public void restoreState(State state) {
+        lock.lock();
+        try {
+            scopes.clear();
+            for (BucketState bucket : state.buckets()) {
+                Granularity granularity = Granularity.valueOf(bucket.granularity());
+                int scopeCapacity = bucket.scope() == ALL_SCOPE ? capacity : categoryCapacity;
+                SpaceSavingSketch sketch = ring(bucket.scope(), granularity).bucket(bucket.bucketId(), scopeCapacity);
+                if (sketch != null) {
+                    for (long[] counter : bucket.counters()) {
+                        sketch.offer(counter[0], counter[1], counter[2]);
+                    }
+                }
+            }
+            for (int slot = 0; slot < DEDUPE_DAYS; slot++) {
+                countedOrders[slot] = null;
+            }
+            for (CountedOrders orders : state.countedOrders()) {
+                int slot = (int) Math.floorMod(orders.day(), (long) DEDUPE_DAYS);
+                if (countedOrders[slot] == null || dedupeDays[slot] < orders.day()) {
+                    dedupeDays[slot] = orders.day();
+                    countedOrders[slot] = decode(orders.orderIds());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(long scope, int scopeCapacity, BestsellerItemRow item, LocalDateTime at, LocalDateTime now) {
+        for (Granularity granularity : Granularity.values()) {
+            long bucketId = granularity.bucketId(at);
+            if (bucketId <= granularity.bucketId(now) - granularity.slots) {
+                continue;
+            }
+            SpaceSavingSketch sketch = ring(scope, granularity).bucket(bucketId, scopeCapacity);
+            if (sketch != null) {
+                sketch.offer(item.getProductId(), item.getQuantity());
+            }
+        }
+    }
+
+    private Ring ring(long scope, Granularity granularity) {
+        return scopes.computeIfAbsent(scope, key -> new EnumMap<>(Granularity.class))
+                .computeIfAbsent(granularity, key -> new Ring(key.slots));
+    }
+
+    private SpaceSavingSketch merge(Map<Granularity, Ring> rings, BestsellerWindow window, LocalDateTime now,
+                                    int scopeCapacity) {
+        Granularity granularity = switch (window) {
+            case LAST_HOUR -> Granularity.FIVE_MINUTES;
+            case TODAY -> Granularity.HOUR;
+            case LAST_7_DAYS -> Granularity.DAY;
+        };
+        long to = granularity.bucketId(now);
+        long from = window == BestsellerWindow.TODAY
+                ? granularity.bucketId(now.toLocalDate().atStartOfDay())
+                : to - granularity.slots + 1;
+        SpaceSavingSketch merged = new SpaceSavingSketch(scopeCapacity);
+        Ring ring = rings.get(granularity);
+        if (ring != null) {
+            for (int slot = 0; slot < ring.sketches.length; slot++) {
+                if (ring.sketches[slot] != null && ring.bucketIds[slot] >= from && ring.bucketIds[slot] <= to) {
+                    merged.merge(ring.sketches[slot]);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private Roaring64Bitmap countedOrdersFor(long day, long today) {
+        if (day <= today - DEDUPE_DAYS) {
+            return null;
+        }
+        int slot = (int) Math.floorMod(day, (long) DEDUPE_DAYS);
+        if (countedOrders[slot] == null || dedupeDays[slot] < day) {
+            dedupeDays[slot] = day;
+            countedOrders[slot] = new Roaring64Bitmap();
+        } else if (dedupeDays[slot] > day) {
+            return null;
+        }
+        return countedOrders[slot];
+    }
+
+    private static String encode(Roaring64Bitmap bitmap) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bitmap.serialize(new DataOutputStream(bytes));
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Roaring64Bitmap decode(String encoded) {
+        try {
+            Roaring64Bitmap bitmap = new Roaring64Bitmap();
+            bitmap.deserialize(new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded))));
+            return bitmap;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.dto.CustomerLookupRow;
+import fa.training.kiotviet.util.SearchTextUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Type-ahead index for finding active customers at checkout by phone number or name.
+ * <p>
+ * Phone numbers are indexed in national form ("0901234567") and names as diacritic-folded tokens, each in
+ * a {@link PrefixIndex}. Every customer id has a generation counter; a write bumps the generation and
+ * re-adds the customer's keys, so older entries become invisible without locating them, and disappear on
+ * the next compaction.
+ * <p>
+ * Memory footprint per million customers: about 25 MB for the phone index, 50-60 MB for three name
+ * tokens per customer, 4 MB of generations and 50-60 MB of folded names used to verify multi-word queries.
+ */
+@Slf4j
+@Component
+public class CustomerLookupIndex {
+
+    private static final int COMPACT_THRESHOLD = 50_000;
+    private static final int MAX_SCANNED_ENTRIES = 20_000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixIndex phoneIndex = new PrefixIndex();
+    private final PrefixIndex nameIndex = new PrefixIndex();
+
+    private int[] generations = new int[1024];
+    private String[] foldedNames = new String[1024];
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            compact();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return phoneIndex.size() + nameIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds rows from the initial load. Customers already indexed by a concurrent change event are newer
+     * than the loaded snapshot, so they are skipped.
+     */
+    public void load(Collection<CustomerLookupRow> rows) {
+        lock.writeLock().lock();
+        try {
+            for (CustomerLookupRow row : rows) {
+                int slot = slotOf(row.getId());
+                if (slot >= 0 && (slot >= generations.length || generations[slot] == 0)) {
+                    index(row);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(CustomerLookupRow row) {
+        lock.writeLock().lock();
+        try {
+            index(row);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long customerId) {
+        int slot = slotOf(customerId);
+        if (slot < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(slot);
+            generations[slot]++;
+            foldedNames[slot] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} customer ids matching the typed text, best match first.
+     * Digits are matched as a phone prefix; anything else as name-token prefixes that must all match.
+     */
+    public List<Long> search(String text, int limit) {
+        lock.readLock().lock();
+        try {
+            if (SearchTextUtil.isPhoneQuery(text)) {
+                String prefix = SearchTextUtil.normalizePhonePrefix(text);
+                return prefix.isEmpty() ? List.of() : collect(phoneIndex, prefix, null, limit);
+            }
+            String[] tokens = SearchTextUtil.tokenize(text);
+            if (tokens.length == 0) {
+                return List.of();
+            }
+            // Drive the scan with the most selective (longest) token and verify the others per candidate
+            String driver = Arrays.stream(tokens).max((a, b) -> Integer.compare(a.length(), b.length())).get();
+            return collect(nameIndex, driver, tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> collect(PrefixIndex index, String prefix, String[] requiredTokens, int limit) {
+        List<Long> result = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        int[] scanned = {0};
+        index.scan(prefix, (key, id, generation) -> {
+            if (isLive(id, generation) && seen.add(id)
+                    && (requiredTokens == null || matchesAll(foldedNames[(int) id], requiredTokens))) {
+                result.add(id);
+            }
+            return result.size() < limit && ++scanned[0] < MAX_SCANNED_ENTRIES;
+        });
+        return result;
+    }
+
+    private boolean matchesAll(String foldedName, String[] tokens) {
+        if (foldedName == null) {
+            return false;
+        }
+        String[] nameTokens = foldedName.split(" ");
+        for (String token : tokens) {
+            boolean found = false;
+            for (String nameToken : nameTokens) {
+                if (nameToken.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(CustomerLookupRow row) {
+        int slot = slotOf(row.getId());
+        if (slot < 0) {
+            return;
+        }
+        ensureCapacity(slot);
+        int generation = ++generations[slot];
+        foldedNames[slot] = null;
+        if (!Boolean.TRUE.equals(row.getActive())) {
+            return;
+        }
+
+        String phone = SearchTextUtil.normalizePhone(row.getPhoneNumber());
+        if (!phone.isEmpty()) {
+            phoneIndex.add(phone, slot, generation);
+        }
+        String[] tokens = SearchTextUtil.tokenize(row.getName());
+        for (String token : tokens) {
+            nameIndex.add(token, slot, generation);
+        }
+        foldedNames[slot] = tokens.length > 0 ? String.join(" ", tokens) : null;
+    }
+
+    private boolean isLive(long id, int generation) {
+        return id < generations.length && generations[(int) id] == generation;
+    }
+
+    private void compactIfNeeded() {
+        if (phoneIndex.deltaSize() + nameIndex.deltaSize() >= COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        long start = System.currentTimeMillis();
+        phoneIndex.compact(this::isLive);
+        nameIndex.compact(this::isLive);
+        log.debug("Compacted customer lookup index to {} phone and {} name entries ({} KB) in {} ms",
+                phoneIndex.size(), nameIndex.size(), (phoneIndex.baseBytes() + nameIndex.baseBytes()) / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < generations.length) {
+            return;
+        }
+        int newLength = Math.max(slot + 1, generations.length + (generations.length >> 1));
+        generations = Arrays.copyOf(generations, newLength);
+        foldedNames = Arrays.copyOf(foldedNames, newLength);
+    }
+
+    private static int slotOf(Long customerId) {
+        if (customerId == null || customerId <= 0 || customerId > Integer.MAX_VALUE) {
+            log.warn("Customer id {} cannot be stored in the lookup index", customerId);
+            return -1;
+        }
+        return customerId.intValue();
+    }
+}
@@ -0,0 +1,201 @@
+package fa.training.kiotviet.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Sorted multimap from ASCII keys to ids that supports prefix scans.
+ * <p>
+ * Entries live in a packed, immutable base (one byte array for all keys plus primitive offset, id and
+ * generation arrays) and a small sorted delta that absorbs writes. {@link #compact} merges the delta into
+ * a new base and drops entries that are no longer live. Entries are never removed individually: callers
+ * bump the generation of an id and filter stale generations while scanning.
+ * <p>
+ * Not thread-safe; callers guard access with their own lock.
+ */
+public class PrefixIndex {
+
+    /**
+     * Receives matching entries in key order. Returning false stops the scan.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        boolean visit(String key, long id, int generation);
+    }
+
+    /**
+     * Decides whether an entry survives compaction.
+     */
+    @FunctionalInterface
+    public interface LivenessCheck {
+        boolean isLive(long id, int generation);
+    }
+
+    private record Entry(String key, long id, int generation) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = key.compareTo(other.key);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Long.compare(id, other.id);
+            return cmp != 0 ? cmp : Integer.compare(generation, other.generation);
+        }
+    }
+
+    private byte[] keyBytes = new byte[0];
+    private int[] keyOffsets = {0};
+    private long[] ids = new long[0];
+    private int[] generations = new int[0];
+    private int size;
+
+    private final NavigableSet<Entry> delta = new TreeSet<>();
+
+    public void add(String key, long id, int generation) {
+        delta.add(new Entry(key, id, generation));
+    }
+
+    public int size() {
+        return size + delta.size();
+    }
+
+    public int deltaSize() {
+        return delta.size();
+    }
+
+    /**
+     * Approximate heap usage of the packed base in bytes.
+     */
+    public long baseBytes() {
+        return keyBytes.length + 4L * keyOffsets.length + 8L * ids.length + 4L * generations.length;
+    }
+
+    /**
+     * Visits all entries whose key starts with {@code prefix}, merging base and delta in key order.
+     */
+    public void scan(String prefix, EntryVisitor visitor) {
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.US_ASCII);
+        int basePos = lowerBound(prefixBytes);
+        Iterator<Entry> deltaIt = delta.tailSet(new Entry(prefix, Long.MIN_VALUE, Integer.MIN_VALUE), true).iterator();
+        Entry deltaNext = nextMatching(deltaIt, prefix);
+
+        while (true) {
+            boolean baseMatches = basePos < size && hasPrefix(basePos, prefixBytes);
+            if (!baseMatches && deltaNext == null) {
+                return;
+            }
+            boolean takeBase = baseMatches && (deltaNext == null || compareBase(basePos, deltaNext) <= 0);
+            boolean keepGoing;
+            if (takeBase) {
+                keepGoing = visitor.visit(keyAt(basePos), ids[basePos], generations[basePos]);
+                basePos++;
+            } else {
+                keepGoing = visitor.visit(deltaNext.key(), deltaNext.id(), deltaNext.generation());
+                deltaNext = nextMatching(deltaIt, prefix);
+            }
+            if (!keepGoing) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the packed base from the live entries of the current base and delta.
+     */
+    public void compact(LivenessCheck liveness) {
+        int capacity = size + delta.size();
+        byte[] newKeys = new byte[keyBytes.length + delta.stream().mapToInt(e -> e.key().length()).sum()];
+        int[] newOffsets = new int[capacity + 1];
+        long[] newIds = new long[capacity];
+        int[] newGenerations = new int[capacity];
+        int count = 0;
+        int keyPos = 0;
+
+        Iterator<Entry> deltaIt = delta.iterator();
+        Entry deltaNext = deltaIt.hasNext() ? deltaIt.next() : null;
+        int basePos = 0;
+        while (basePos < size || deltaNext != null) {
+            boolean takeBase = basePos < size && (deltaNext == null || compareBase(basePos, deltaNext) <= 0);
+            byte[] key;
+            long id;
+            int generation;
+            if (takeBase) {
+                key = Arrays.copyOfRange(keyBytes, keyOffsets[basePos], keyOffsets[basePos + 1]);
+                id = ids[basePos];
+                generation = generations[basePos];
+                basePos++;
+            } else {
+                key = deltaNext.key().getBytes(StandardCharsets.US_ASCII);
+                id = deltaNext.id();
+                generation = deltaNext.generation();
+                deltaNext = deltaIt.hasNext() ? deltaIt.next() : null;
+            }
+            if (!liveness.isLive(id, generation)) {
+                continue;
+            }
+            System.arraycopy(key, 0, newKeys, keyPos, key.length);
+            keyPos += key.length;
+            newIds[count] = id;
+            newGenerations[count] = generation;
+            newOffsets[++count] = keyPos;
+        }
+
+        keyBytes = Arrays.copyOf(newKeys, keyPos);
+        keyOffsets = Arrays.copyOf(newOffsets, count + 1);
+        ids = Arrays.copyOf(newIds, count);
+        generations = Arrays.copyOf(newGenerations, count);
+        size = count;
+        delta.clear();
+    }
+
+    private Entry nextMatching(Iterator<Entry> it, String prefix) {
+        if (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.key().startsWith(prefix)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private int lowerBound(byte[] key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKeys(mid, key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private boolean hasPrefix(int pos, byte[] prefix) {
+        int start = keyOffsets[pos];
+        int length = keyOffsets[pos + 1] - start;
+        return length >= prefix.length
+                && Arrays.equals(keyBytes, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private int compareKeys(int pos, byte[] key) {
+        return Arrays.compareUnsigned(keyBytes, keyOffsets[pos], keyOffsets[pos + 1], key, 0, key.length);
+    }
+
+    private int compareBase(int pos, Entry entry) {
+        int cmp = compareKeys(pos, entry.key().getBytes(StandardCharsets.US_ASCII));
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = Long.compare(ids[pos], entry.id());
+        return cmp != 0 ? cmp : Integer.compare(generations[pos], entry.generation());
+    }
+
+    private String keyAt(int pos) {
+        return new String(keyBytes, keyOffsets[pos], keyOffsets[pos + 1] - keyOffsets[pos], StandardCharsets.US_ASCII);
+    }
+}
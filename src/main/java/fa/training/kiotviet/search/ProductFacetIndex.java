@@ -0,0 +1,356 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.dto.ProductFacetQuery;
+import fa.training.kiotviet.dto.ProductFacetResult;
+import fa.training.kiotviet.dto.ProductFacetRow;
+import fa.training.kiotviet.enums.ProductStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory faceted index over the product catalog.
+ * <p>
+ * Product ids are used directly as bitmap positions. Each facet value (category, status, taxable flag,
+ * price bucket) owns a compressed {@link RoaringBitmap}, and exact prices live in a primitive array
+ * indexed by product id, so a combined filter is a handful of bitmap ANDs plus a scan of at most two
+ * partially covered price buckets.
+ * <p>
+ * Memory footprint per million SKUs with dense ids: about 8 MB for prices, 4 MB for category ids,
+ * 1 MB for statuses and 2-5 MB for all bitmaps together, i.e. roughly 15-20 MB in total.
+ */
+@Slf4j
+@Component
+public class ProductFacetIndex {
+
+    private static final int NO_CATEGORY = 0;
+    private static final byte NO_STATUS = -1;
+    private static final ProductStatus[] STATUSES = ProductStatus.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap taxable = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<ProductStatus, RoaringBitmap> byStatus = new EnumMap<>(ProductStatus.class);
+    private final long[] bucketBounds;
+    private final RoaringBitmap[] byPriceBucket;
+
+    private long[] priceCents = new long[1024];
+    private int[] categoryIds = new int[1024];
+    private byte[] statusOrdinals = new byte[1024];
+
+    private volatile boolean ready;
+
+    public ProductFacetIndex(
+            @Value("${app.facets.price-buckets:0,50000,100000,200000,500000,1000000,5000000}") long[] priceBuckets) {
+        long[] bounds = Arrays.stream(priceBuckets).sorted().distinct().map(bound -> bound * 100).toArray();
+        this.bucketBounds = bounds.length > 0 ? bounds : new long[]{0};
+        this.byPriceBucket = new RoaringBitmap[bucketBounds.length];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new RoaringBitmap();
+        }
+        for (ProductStatus status : STATUSES) {
+            byStatus.put(status, new RoaringBitmap());
+        }
+        Arrays.fill(statusOrdinals, NO_STATUS);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds rows from the initial load. Rows already present were written by a concurrent change event
+     * and are newer than the loaded snapshot, so they are kept.
+     */
+    public void load(Collection<ProductFacetRow> rows) {
+        lock.writeLock().lock();
+        try {
+            for (ProductFacetRow row : rows) {
+                int slot = slotOf(row.getId());
+                if (slot >= 0 && !all.contains(slot)) {
+                    add(slot, row);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ProductFacetRow row) {
+        int slot = slotOf(row.getId());
+        if (slot < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(slot);
+            add(slot, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        int slot = slotOf(productId);
+        if (slot < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSlot(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the filter and computes all facet counts under a single read lock.
+     * The returned result carries product ids only; callers resolve them to entities.
+     */
+    public ProductFacetResult query(ProductFacetQuery query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categoryFilter = categoryFilter(query);
+            RoaringBitmap statusFilter = statusFilter(query);
+            RoaringBitmap taxableFilter = taxableFilter(query);
+            RoaringBitmap priceFilter = priceFilter(query);
+
+            RoaringBitmap matches = intersect(categoryFilter, statusFilter, taxableFilter, priceFilter);
+
+            ProductFacetResult result = new ProductFacetResult();
+            result.setTotal(matches.getLongCardinality());
+            result.setProductIds(page(matches, query.getPage(), query.getSize()));
+
+            RoaringBitmap base = intersect(null, statusFilter, taxableFilter, priceFilter);
+            Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+            byCategory.forEach((categoryId, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+            result.setCategoryCounts(categoryCounts);
+
+            RoaringBitmap statusBase = intersect(categoryFilter, null, taxableFilter, priceFilter);
+            Map<ProductStatus, Long> statusCounts = new EnumMap<>(ProductStatus.class);
+            byStatus.forEach((status, bitmap) -> statusCounts.put(status, (long) RoaringBitmap.andCardinality(statusBase, bitmap)));
+            result.setStatusCounts(statusCounts);
+
+            RoaringBitmap taxableBase = intersect(categoryFilter, statusFilter, null, priceFilter);
+            long taxableCount = RoaringBitmap.andCardinality(taxableBase, taxable);
+            Map<Boolean, Long> taxableCounts = new LinkedHashMap<>();
+            taxableCounts.put(Boolean.TRUE, taxableCount);
+            taxableCounts.put(Boolean.FALSE, taxableBase.getLongCardinality() - taxableCount);
+            result.setTaxableCounts(taxableCounts);
+
+            RoaringBitmap priceBase = intersect(categoryFilter, statusFilter, taxableFilter, null);
+            List<ProductFacetResult.PriceBucketCount> bucketCounts = new ArrayList<>(bucketBounds.length);
+            for (int i = 0; i < bucketBounds.length; i++) {
+                bucketCounts.add(new ProductFacetResult.PriceBucketCount(
+                        fromCents(bucketBounds[i]),
+                        i + 1 < bucketBounds.length ? fromCents(bucketBounds[i + 1]) : null,
+                        RoaringBitmap.andCardinality(priceBase, byPriceBucket[i])));
+            }
+            result.setPriceBucketCounts(bucketCounts);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap categoryFilter(ProductFacetQuery query) {
+        if (query.getCategoryIds() == null || query.getCategoryIds().isEmpty()) {
+            return null;
+        }
+        RoaringBitmap filter = new RoaringBitmap();
+        for (Long categoryId : query.getCategoryIds()) {
+            RoaringBitmap bitmap = byCategory.get(categoryId);
+            if (bitmap != null) {
+                filter.or(bitmap);
+            }
+        }
+        return filter;
+    }
+
+    private RoaringBitmap statusFilter(ProductFacetQuery query) {
+        if (query.getStatuses() == null || query.getStatuses().isEmpty()) {
+            return null;
+        }
+        RoaringBitmap filter = new RoaringBitmap();
+        for (ProductStatus status : query.getStatuses()) {
+            filter.or(byStatus.get(status));
+        }
+        return filter;
+    }
+
+    private RoaringBitmap taxableFilter(ProductFacetQuery query) {
+        if (query.getTaxable() == null) {
+            return null;
+        }
+        return query.getTaxable() ? taxable : RoaringBitmap.andNot(all, taxable);
+    }
+
+    private RoaringBitmap priceFilter(ProductFacetQuery query) {
+        if (query.getMinPrice() == null && query.getMaxPrice() == null) {
+            return null;
+        }
+        long min = query.getMinPrice() != null ? toCents(query.getMinPrice()) : Long.MIN_VALUE;
+        long max = query.getMaxPrice() != null ? toCents(query.getMaxPrice()) : Long.MAX_VALUE;
+        RoaringBitmap filter = new RoaringBitmap();
+        for (int i = 0; i < bucketBounds.length; i++) {
+            long lower = i == 0 ? Long.MIN_VALUE : bucketBounds[i];
+            long upper = i + 1 < bucketBounds.length ? bucketBounds[i + 1] - 1 : Long.MAX_VALUE;
+            if (upper < min || lower > max) {
+                continue;
+            }
+            if (lower >= min && upper <= max) {
+                filter.or(byPriceBucket[i]);
+            } else {
+                addPricesInRange(filter, byPriceBucket[i], min, max);
+            }
+        }
+        return filter;
+    }
+
+    private void addPricesInRange(RoaringBitmap target, RoaringBitmap candidates, long min, long max) {
+        PeekableIntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            int slot = it.next();
+            long price = priceCents[slot];
+            if (price >= min && price <= max) {
+                target.add(slot);
+            }
+        }
+    }
+
+    private RoaringBitmap intersect(RoaringBitmap... filters) {
+        RoaringBitmap result = null;
+        for (RoaringBitmap filter : filters) {
+            if (filter == null) {
+                continue;
+            }
+            result = result == null ? filter : RoaringBitmap.and(result, filter);
+        }
+        // Callers only read the intersection, so shared bitmaps can be returned as-is
+        return result != null ? result : all;
+    }
+
+    private List<Long> page(RoaringBitmap matches, int page, int size) {
+        long offset = (long) page * size;
+        if (size <= 0 || offset >= matches.getLongCardinality()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(size);
+        PeekableIntIterator it = matches.getIntIterator();
+        it.advanceIfNeeded(matches.select((int) offset));
+        while (it.hasNext() && ids.size() < size) {
+            ids.add((long) it.next());
+        }
+        return ids;
+    }
+
+    private void add(int slot, ProductFacetRow row) {
+        ensureCapacity(slot);
+        all.add(slot);
+        if (row.getCategoryId() != null) {
+            categoryIds[slot] = row.getCategoryId().intValue();
+            byCategory.computeIfAbsent(row.getCategoryId(), id -> new RoaringBitmap()).add(slot);
+        }
+        if (row.getStatus() != null) {
+            statusOrdinals[slot] = (byte) row.getStatus().ordinal();
+            byStatus.get(row.getStatus()).add(slot);
+        }
+        if (Boolean.TRUE.equals(row.getTaxable())) {
+            taxable.add(slot);
+        }
+        long price = row.getPrice() != null ? toCents(row.getPrice()) : 0;
+        priceCents[slot] = price;
+        byPriceBucket[bucketOf(price)].add(slot);
+    }
+
+    private void removeSlot(int slot) {
+        if (!all.contains(slot)) {
+            return;
+        }
+        all.remove(slot);
+        taxable.remove(slot);
+        if (categoryIds[slot] != NO_CATEGORY) {
+            RoaringBitmap bitmap = byCategory.get((long) categoryIds[slot]);
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                byCategory.remove((long) categoryIds[slot]);
+            }
+            categoryIds[slot] = NO_CATEGORY;
+        }
+        if (statusOrdinals[slot] != NO_STATUS) {
+            byStatus.get(STATUSES[statusOrdinals[slot]]).remove(slot);
+            statusOrdinals[slot] = NO_STATUS;
+        }
+        byPriceBucket[bucketOf(priceCents[slot])].remove(slot);
+        priceCents[slot] = 0;
+    }
+
+    private int bucketOf(long cents) {
+        int pos = Arrays.binarySearch(bucketBounds, cents);
+        // Anything below the lowest bound falls into the first bucket
+        return pos >= 0 ? pos : Math.max(0, -pos - 2);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < priceCents.length) {
+            return;
+        }
+        int newLength = Math.max(slot + 1, priceCents.length + (priceCents.length >> 1));
+        int oldLength = statusOrdinals.length;
+        priceCents = Arrays.copyOf(priceCents, newLength);
+        categoryIds = Arrays.copyOf(categoryIds, newLength);
+        statusOrdinals = Arrays.copyOf(statusOrdinals, newLength);
+        Arrays.fill(statusOrdinals, oldLength, newLength, NO_STATUS);
+    }
+
+    private static int slotOf(Long productId) {
+        if (productId == null || productId <= 0 || productId > Integer.MAX_VALUE) {
+            log.warn("Product id {} cannot be stored in the facet index", productId);
+            return -1;
+        }
+        return productId.intValue();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
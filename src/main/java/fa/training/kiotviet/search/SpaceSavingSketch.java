@@ -0,0 +1,101 @@
+package fa.training.kiotviet.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitter summary over long keys (Metwally et al.), holding at most {@code capacity}
+ * counters.
+ * <p>
+ * When a new key arrives and the summary is full, the key with the smallest count is replaced and the
+ * newcomer inherits that count as its possible overestimate ({@code error}). Every key whose true count
+ * exceeds {@code total / capacity} is guaranteed to be present, and a reported count is never lower than
+ * the true count and exceeds it by at most its error. Summaries are mergeable, which is how windowed
+ * rankings are assembled from time buckets.
+ * <p>
+ * Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * A tracked key; {@code count} may overestimate the true count by at most {@code error}.
+     */
+    public record Counter(long key, long count, long error) {
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong(Counter::count)
+            .thenComparingLong(Counter::key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public void offer(long key, long count) {
+        offer(key, count, 0);
+    }
+
+    /**
+     * Returns the tracked keys with the highest counts, highest first.
+     */
+    public List<Counter> top(int k) {
+        List<Counter> result = new ArrayList<>(Math.min(k, counters.size()));
+        for (Counter counter : ordered.descendingSet()) {
+            if (result.size() == k) {
+                break;
+            }
+            result.add(counter);
+        }
+        return result;
+    }
+
+    public List<Counter> counters() {
+        return new ArrayList<>(ordered);
+    }
+
+    /**
+     * Adds the counters of {@code other} to this summary. Counts and errors of keys present in both are
+     * summed, so the guarantees above hold for the combined stream.
+     */
+    public void merge(SpaceSavingSketch other) {
+        for (Counter counter : other.ordered) {
+            offer(counter.key(), counter.count(), counter.error());
+        }
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code key} that may already be overestimated by {@code error},
+     * as when restoring or merging another summary's counter.
+     */
+    public void offer(long key, long count, long error) {
+        Counter existing = counters.get(key);
+        Counter updated;
+        if (existing != null) {
+            ordered.remove(existing);
+            updated = new Counter(key, existing.count() + count, existing.error() + error);
+        } else if (counters.size() < capacity) {
+            updated = new Counter(key, count, error);
+        } else {
+            Counter smallest = ordered.pollFirst();
+            counters.remove(smallest.key());
+            updated = new Counter(key, smallest.count() + count, smallest.count() + error);
+        }
+        counters.put(key, updated);
+        ordered.add(updated);
+    }
+}
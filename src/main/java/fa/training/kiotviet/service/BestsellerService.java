@@ -0,0 +1,205 @@
+package fa.training.kiotviet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.BestsellerDto;
+import fa.training.kiotviet.dto.BestsellerItemRow;
+import fa.training.kiotviet.enums.BestsellerWindow;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.BestsellerSnapshot;
+import fa.training.kiotviet.outbox.OutboxMessage;
+import fa.training.kiotviet.outbox.OutboxWriter;
+import fa.training.kiotviet.repository.BestsellerSnapshotRepository;
+import fa.training.kiotviet.repository.OrderItemRepository;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.search.BestsellerTracker;
+import fa.training.kiotviet.search.SpaceSavingSketch;
+import fa.training.kiotviet.warmup.CacheWarmer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds the {@link BestsellerTracker} with confirmed orders and serves its rankings.
+ * <p>
+ * Orders arrive through the outbox relay as soon as they are confirmed. Instances that do not run the
+ * relay, and any gap left by a restart, are covered by a periodic catch-up scan of recently modified
+ * orders; the tracker ignores orders it has already counted, so the two feeds may overlap freely. The
+ * sketches are snapshotted periodically and restored during warm-up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BestsellerService implements CacheWarmer {
+
+    private static final String SNAPSHOT_NAME = "bestsellers";
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+    private static final Set<OrderStatus> COUNTED_STATUSES = OrderStatus.saleStatuses();
+
+    private final BestsellerTracker tracker;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final BestsellerSnapshotRepository snapshotRepository;
+    private final EntityLookupService entityLookupService;
+    private final ObjectMapper objectMapper;
+
+    private volatile LocalDateTime lastCatchUpAt;
+
+    @Override
+    public String getWarmerName() {
+        return "bestsellers";
+    }
+
+    /**
+     * Restores the latest snapshot, then counts the orders modified since it was taken. Without a usable
+     * snapshot this rebuilds the rankings from the last seven days of orders.
+     */
+    @Override
+    public long warm() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = windowStart(now);
+        Optional<BestsellerSnapshot> snapshot = snapshotRepository.findById(SNAPSHOT_NAME)
+                .filter(candidate -> candidate.getTakenAt().isAfter(windowStart(now)));
+        if (snapshot.isPresent()) {
+            try {
+                tracker.restoreState(objectMapper.readValue(snapshot.get().getPayload(), BestsellerTracker.State.class));
+                since = snapshot.get().getTakenAt().minus(CATCH_UP_OVERLAP);
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("Ignoring unreadable bestseller snapshot taken at {}", snapshot.get().getTakenAt(), e);
+            }
+        }
+        long counted = catchUp(since, now);
+        tracker.refresh(LocalDateTime.now());
+        return counted;
+    }
+
+    @EventListener
+    public void onOutboxMessage(OutboxMessage message) {
+        if (!OutboxWriter.AGGREGATE_ORDER.equals(message.aggregateType()) || "DELETED".equals(message.eventType())) {
+            return;
+        }
+        try {
+            String status = objectMapper.readTree(message.payload()).path("status").asText();
+            if (COUNTED_STATUSES.stream().anyMatch(counted -> counted.name().equals(status))) {
+                record(List.of(message.aggregateId()), LocalDateTime.now());
+            }
+        } catch (JsonProcessingException e) {
+            throw new KiotVietException("OUTBOX_ERROR", "Cannot read order payload of outbox event " + message.id(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.bestsellers.refresh-interval:10000}",
+            initialDelayString = "${app.bestsellers.refresh-interval:10000}")
+    public void refresh() {
+        tracker.refresh(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.bestsellers.catch-up-interval:60000}",
+            initialDelayString = "${app.bestsellers.catch-up-interval:60000}")
+    public void scheduledCatchUp() {
+        LocalDateTime previous = lastCatchUpAt;
+        if (previous == null) {
+            return;
+        }
+        try {
+            catchUp(previous.minus(CATCH_UP_OVERLAP), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Bestseller catch-up failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.bestsellers.snapshot-interval:300000}",
+            initialDelayString = "${app.bestsellers.snapshot-interval:300000}")
+    public void snapshot() {
+        try {
+            LocalDateTime takenAt = LocalDateTime.now();
+            String payload = objectMapper.writeValueAsString(tracker.exportState());
+            snapshotRepository.save(BestsellerSnapshot.builder()
+                    .name(SNAPSHOT_NAME)
+                    .takenAt(takenAt)
+                    .payload(payload)
+                    .build());
+            log.debug("Saved bestseller snapshot of {} characters", payload.length());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Cannot save bestseller snapshot", e);
+        }
+    }
+
+    /**
+     * Returns the bestsellers of a window, either store-wide or within one category. Served from the
+     * rankings precomputed by the last refresh.
+     */
+    public List<BestsellerDto> getBestsellers(BestsellerWindow window, Long categoryId, int limit) {
+        long scope = categoryId != null ? categoryId : BestsellerTracker.ALL_SCOPE;
+        int size = Math.min(Math.max(1, limit), tracker.getMaxResults());
+        List<BestsellerDto> result = new ArrayList<>(size);
+        for (SpaceSavingSketch.Counter counter : tracker.top(window, scope, size)) {
+            try {
+                result.add(BestsellerDto.builder()
+                        .rank(result.size() + 1)
+                        .product(entityLookupService.getProduct(counter.key()))
+                        .quantity(counter.count())
+                        .maxOverestimate(counter.error())
+                        .build());
+            } catch (ResourceNotFoundException e) {
+                log.debug("Skipping deleted product {} in bestsellers", counter.key());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts all orders in a counted status placed inside the longest window and modified since
+     * {@code updatedSince}, in keyset batches.
+     */
+    private long catchUp(LocalDateTime updatedSince, LocalDateTime now) {
+        long counted = 0;
+        long lastId = 0;
+        List<Long> orderIds;
+        do {
+            orderIds = orderRepository.findIdsForBestsellers(COUNTED_STATUSES, windowStart(now), updatedSince,
+                    lastId, PageRequest.of(0, CATCH_UP_BATCH_SIZE));
+            if (!orderIds.isEmpty()) {
+                counted += record(orderIds, now);
+                lastId = orderIds.get(orderIds.size() - 1);
+            }
+        } while (orderIds.size() == CATCH_UP_BATCH_SIZE);
+        lastCatchUpAt = now;
+        if (counted > 0) {
+            log.info("Counted {} orders modified since {} into bestseller rankings", counted, updatedSince);
+        }
+        return counted;
+    }
+
+    private int record(List<Long> orderIds, LocalDateTime now) {
+        Map<Long, List<BestsellerItemRow>> itemsByOrder = orderItemRepository.findBestsellerRows(orderIds).stream()
+                .collect(Collectors.groupingBy(BestsellerItemRow::getOrderId));
+        int counted = 0;
+        for (List<BestsellerItemRow> items : itemsByOrder.values()) {
+            BestsellerItemRow first = items.get(0);
+            if (tracker.record(first.getOrderId(), first.getOrderDate(), items, now)) {
+                counted++;
+            }
+        }
+        return counted;
+    }
+
+    private static LocalDateTime windowStart(LocalDateTime now) {
+        return now.toLocalDate().minusDays(6).atStartOfDay();
+    }
+}
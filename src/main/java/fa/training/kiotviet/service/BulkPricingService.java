@@ -0,0 +1,294 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.cache.NearCache;
+import fa.training.kiotviet.dto.PriceChangeBatchDto;
+import fa.training.kiotviet.dto.PriceChangeRequest;
+import fa.training.kiotviet.enums.PriceChangeBatchStatus;
+import fa.training.kiotviet.enums.PriceChangeMode;
+import fa.training.kiotviet.enums.PriceField;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.PriceChangeBatch;
+import fa.training.kiotviet.model.PriceChangeEntry;
+import fa.training.kiotviet.outbox.OutboxWriter;
+import fa.training.kiotviet.repository.PriceChangeBatchRepository;
+import fa.training.kiotviet.repository.PriceChangeEntryRepository;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store-wide price, sale price and tax rate changes over a category subtree.
+ * <p>
+ * The subtree is resolved once from {@link CategoryTreeService} and its products are changed in chunks of
+ * {@code app.pricing.chunk-size}, each in its own transaction: the chunk is locked, the old and new value
+ * of every product are written to {@code price_change_entries} by one INSERT ... SELECT that computes the
+ * new value in SQL, and one UPDATE joined to those entries applies it. Products are never loaded as
+ * entities, so no entity events fire; the outbox rows, cache evictions and facet index updates they would
+ * have caused are issued per chunk and once per batch instead.
+ * <p>
+ * A revert restores the old values in the same chunked way, but only for products whose value is still
+ * the one the batch set, so later edits are never overwritten.
+ */
+@Slf4j
+@Service
+public class BulkPricingService {
+
+    private static final String SUBTREE_PRODUCTS_SQL = "SELECT id FROM products WHERE category_id IN (%s) ORDER BY id";
+    private static final String BATCH_PRODUCTS_SQL = "SELECT product_id FROM price_change_entries " +
+            "WHERE batch_id = ? ORDER BY product_id";
+    private static final String LOCK_PRODUCTS_SQL = "SELECT id FROM products WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    // %1$s is the column, %2$s the new value expression, %3$s the id placeholders
+    private static final String RECORD_ENTRIES_SQL = "INSERT INTO price_change_entries " +
+            "(batch_id, product_id, old_value, new_value) " +
+            "SELECT ?, p.id, p.%1$s, %2$s FROM products p WHERE p.id IN (%3$s)";
+    private static final String APPLY_SQL = "UPDATE products p " +
+            "JOIN price_change_entries e ON e.batch_id = ? AND e.product_id = p.id " +
+            "SET p.%1$s = e.new_value, p.updated_at = ? WHERE p.id IN (%2$s) AND NOT (p.%1$s <=> e.new_value)";
+    private static final String REVERTIBLE_SQL = "SELECT p.id FROM products p " +
+            "JOIN price_change_entries e ON e.batch_id = ? AND e.product_id = p.id " +
+            "WHERE p.id IN (%2$s) AND p.%1$s <=> e.new_value AND NOT (e.old_value <=> e.new_value)";
+    private static final String REVERT_SQL = "UPDATE products p " +
+            "JOIN price_change_entries e ON e.batch_id = ? AND e.product_id = p.id " +
+            "SET p.%1$s = e.old_value, p.updated_at = ? WHERE p.id IN (%2$s)";
+
+    private final CategoryTreeService categoryTreeService;
+    private final PriceChangeBatchRepository batchRepository;
+    private final PriceChangeEntryRepository entryRepository;
+    private final OutboxWriter outboxWriter;
+    private final NearCache nearCache;
+    private final ProductFacetService productFacetService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> busyBatches = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.pricing.chunk-size:1000}")
+    private int chunkSize;
+
+    public BulkPricingService(CategoryTreeService categoryTreeService,
+                              PriceChangeBatchRepository batchRepository,
+                              PriceChangeEntryRepository entryRepository,
+                              OutboxWriter outboxWriter,
+                              NearCache nearCache,
+                              ProductFacetService productFacetService,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.categoryTreeService = categoryTreeService;
+        this.batchRepository = batchRepository;
+        this.entryRepository = entryRepository;
+        this.outboxWriter = outboxWriter;
+        this.nearCache = nearCache;
+        this.productFacetService = productFacetService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public PriceChangeBatchDto getBatch(Long id) {
+        return PriceChangeBatchDto.from(findBatch(id));
+    }
+
+    public Page<PriceChangeBatchDto> getBatches(Pageable pageable) {
+        return batchRepository.findAll(pageable).map(PriceChangeBatchDto::from);
+    }
+
+    public Page<PriceChangeEntry> getEntries(Long batchId, Pageable pageable) {
+        findBatch(batchId);
+        return entryRepository.findByBatchIdOrderByProductId(batchId, pageable);
+    }
+
+    /**
+     * Applies a price change to every product of the category subtree. If a chunk fails, the batch is
+     * marked FAILED with the chunks applied so far, which a revert can undo.
+     */
+    public PriceChangeBatchDto apply(PriceChangeRequest request) {
+        if (request.getMode() == PriceChangeMode.PERCENT && request.getValue().compareTo(BigDecimal.valueOf(-100)) < 0) {
+            throw new BusinessRuleException("A percentage change cannot lower values by more than 100%");
+        }
+        if (request.getMode() == PriceChangeMode.SET && request.getValue().signum() < 0) {
+            throw new BusinessRuleException(request.getField().getDisplayName() + " cannot be negative");
+        }
+        if (request.getField().getMaxValue() != null && request.getMode() == PriceChangeMode.SET
+                && request.getValue().compareTo(new BigDecimal(request.getField().getMaxValue())) > 0) {
+            throw new BusinessRuleException(String.format("%s cannot exceed %s",
+                    request.getField().getDisplayName(), request.getField().getMaxValue()));
+        }
+        Set<Long> categoryIds = categoryTreeService.getSubtreeIds(request.getCategoryId());
+        if (categoryIds.isEmpty()) {
+            throw new ResourceNotFoundException("Category", request.getCategoryId());
+        }
+
+        long start = System.currentTimeMillis();
+        List<Long> productIds = jdbcTemplate.queryForList(String.format(SUBTREE_PRODUCTS_SQL, placeholders(categoryIds.size())),
+                Long.class, categoryIds.toArray());
+        PriceChangeBatch batch = batchRepository.save(PriceChangeBatch.builder()
+                .categoryId(request.getCategoryId())
+                .field(request.getField())
+                .mode(request.getMode())
+                .value(request.getValue())
+                .status(PriceChangeBatchStatus.APPLYING)
+                .notes(request.getNotes())
+                .productCount(0)
+                .build());
+
+        String recordSql = String.format(RECORD_ENTRIES_SQL, request.getField().getColumn(),
+                newValueExpression(request.getField(), request.getMode()), "%s");
+        String applySql = String.format(APPLY_SQL, request.getField().getColumn(), "%s");
+        int applied = 0;
+        List<Long> changed = new ArrayList<>();
+        try {
+            for (int from = 0; from < productIds.size(); from += chunkSize) {
+                List<Long> chunk = productIds.subList(from, Math.min(from + chunkSize, productIds.size()));
+                applied += applyChunk(batch.getId(), request.getValue(), chunk, recordSql, applySql);
+                changed.addAll(chunk);
+            }
+            batch.setStatus(PriceChangeBatchStatus.APPLIED);
+        } catch (RuntimeException e) {
+            log.error("Price change batch {} failed after {} of {} products", batch.getId(), changed.size(),
+                    productIds.size(), e);
+            batch.setStatus(PriceChangeBatchStatus.FAILED);
+            throw new KiotVietException("PRICE_CHANGE_FAILED", String.format(
+                    "Price change batch %d failed after %d products; revert it to undo them",
+                    batch.getId(), changed.size()), e);
+        } finally {
+            batch.setProductCount(changed.size());
+            batch.setAppliedAt(LocalDateTime.now());
+            batch = batchRepository.save(batch);
+            invalidate(changed);
+        }
+
+        PriceChangeBatchDto result = PriceChangeBatchDto.from(batch);
+        result.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Price change batch {} set {} of {} products in {} categories in {} ms", batch.getId(), applied,
+                productIds.size(), categoryIds.size(), result.getDurationMs());
+        return result;
+    }
+
+    /**
+     * Restores the values a batch replaced, skipping products whose value changed again since.
+     */
+    public PriceChangeBatchDto revert(Long batchId) {
+        if (!busyBatches.add(batchId)) {
+            throw new BusinessRuleException("Price change batch " + batchId + " is already being reverted");
+        }
+        try {
+            PriceChangeBatch batch = findBatch(batchId);
+            if (batch.getStatus() != PriceChangeBatchStatus.APPLIED && batch.getStatus() != PriceChangeBatchStatus.FAILED) {
+                throw new BusinessRuleException(String.format("Price change batch %d is %s and cannot be reverted",
+                        batchId, batch.getStatus().getDisplayName().toLowerCase()));
+            }
+            long start = System.currentTimeMillis();
+            List<Long> productIds = jdbcTemplate.queryForList(BATCH_PRODUCTS_SQL, Long.class, batchId);
+            String column = batch.getField().getColumn();
+            List<Long> reverted = new ArrayList<>();
+            try {
+                for (int from = 0; from < productIds.size(); from += chunkSize) {
+                    List<Long> chunk = productIds.subList(from, Math.min(from + chunkSize, productIds.size()));
+                    reverted.addAll(revertChunk(batchId, column, chunk));
+                }
+            } finally {
+                invalidate(reverted);
+            }
+
+            batch.setStatus(PriceChangeBatchStatus.REVERTED);
+            batch.setRevertedCount(reverted.size());
+            batch.setConflictCount((int) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM price_change_entries " +
+                    "WHERE batch_id = ? AND NOT (old_value <=> new_value)", Long.class, batchId).longValue()
+                    - reverted.size());
+            batch.setRevertedAt(LocalDateTime.now());
+            PriceChangeBatchDto result = PriceChangeBatchDto.from(batchRepository.save(batch));
+            result.setDurationMs(System.currentTimeMillis() - start);
+            log.info("Price change batch {} reverted for {} products, {} changed since", batchId,
+                    result.getRevertedCount(), result.getConflictCount());
+            return result;
+        } finally {
+            busyBatches.remove(batchId);
+        }
+    }
+
+    private int applyChunk(Long batchId, BigDecimal value, List<Long> chunk, String recordSql, String applySql) {
+        String ids = placeholders(chunk.size());
+        return transactionTemplate.execute(transaction -> {
+            jdbcTemplate.queryForList(String.format(LOCK_PRODUCTS_SQL, ids), Long.class, chunk.toArray());
+            jdbcTemplate.update(String.format(recordSql, ids), args(batchId, value, chunk));
+            int updated = jdbcTemplate.update(String.format(applySql, ids),
+                    args(batchId, Timestamp.valueOf(LocalDateTime.now()), chunk));
+            outboxWriter.appendProductUpdates(chunk);
+            return updated;
+        });
+    }
+
+    private List<Long> revertChunk(Long batchId, String column, List<Long> chunk) {
+        String ids = placeholders(chunk.size());
+        return transactionTemplate.execute(transaction -> {
+            jdbcTemplate.queryForList(String.format(LOCK_PRODUCTS_SQL, ids), Long.class, chunk.toArray());
+            List<Long> revertible = jdbcTemplate.queryForList(String.format(REVERTIBLE_SQL, column, ids), Long.class,
+                    args(batchId, null, chunk));
+            if (!revertible.isEmpty()) {
+                jdbcTemplate.update(String.format(REVERT_SQL, column, placeholders(revertible.size())),
+                        args(batchId, Timestamp.valueOf(LocalDateTime.now()), revertible));
+                outboxWriter.appendProductUpdates(revertible);
+            }
+            return revertible;
+        });
+    }
+
+    /**
+     * Evicts the cached products and refreshes their facet entries, once for the whole batch.
+     */
+    private void invalidate(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        nearCache.evict(productIds.stream().map(id -> AppConstants.PRODUCT_CACHE_PREFIX + id).toList());
+        productFacetService.refresh(productIds);
+    }
+
+    /**
+     * The new value of {@code field} in SQL, with the change value as its only parameter. Adjustments
+     * leave empty values empty; results are rounded to cents and kept within the field's range.
+     */
+    private static String newValueExpression(PriceField field, PriceChangeMode mode) {
+        String current = "p." + field.getColumn();
+        String value = switch (mode) {
+            case PERCENT -> "ROUND(" + current + " * (100 + ?) / 100, 2)";
+            case AMOUNT -> "ROUND(" + current + " + ?, 2)";
+            case SET -> "?";
+        };
+        String bounded = "GREATEST(0, " + value + ")";
+        return field.getMaxValue() == null ? bounded : "LEAST(" + field.getMaxValue() + ", " + bounded + ")";
+    }
+
+    private static Object[] args(Long batchId, Object second, List<Long> ids) {
+        List<Object> args = new ArrayList<>(ids.size() + 2);
+        args.add(batchId);
+        if (second != null) {
+            args.add(second);
+        }
+        args.addAll(ids);
+        return args.toArray();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private PriceChangeBatch findBatch(Long id) {
+        return batchRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Price change batch", id));
+    }
+}
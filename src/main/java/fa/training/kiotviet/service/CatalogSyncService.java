@@ -0,0 +1,209 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CatalogChangeDto;
+import fa.training.kiotviet.dto.CatalogChangePage;
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.model.Category;
+import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.repository.CategoryRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds the versioned catalog change feed consumed by POS terminals.
+ * <p>
+ * The version is an opaque keyset cursor over {@code (updatedAt, id)} for categories and products,
+ * so a terminal only receives rows touched since its last sync. Deactivated rows are sent as tombstones.
+ * <p>
+ * A row's {@code updatedAt} is set when its transaction writes it, not when it commits, so a row can become
+ * visible after a later-stamped one has already been served. Rows younger than
+ * {@code app.catalog-sync.safety-lag} are therefore held back; the lag must be at least as long as the
+ * longest transaction that writes products or categories. When {@code spring.transaction.default-timeout}
+ * is set, it bounds those transactions and the lag is raised to it if shorter.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class CatalogSyncService {
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 10000;
+
+    private static final String TOKEN_PREFIX = "v1";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Duration safetyLag;
+
+    public CatalogSyncService(ProductRepository productRepository,
+                              CategoryRepository categoryRepository,
+                              @Value("${app.catalog-sync.safety-lag:30s}") Duration safetyLag,
+                              @Value("${spring.transaction.default-timeout:0s}") Duration transactionTimeout) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        if (safetyLag.compareTo(transactionTimeout) < 0) {
+            log.warn("Catalog sync safety lag {} is shorter than the transaction timeout {}; using the timeout",
+                    safetyLag, transactionTimeout);
+            safetyLag = transactionTimeout;
+        }
+        this.safetyLag = safetyLag;
+    }
+
+    /**
+     * Returns up to {@code limit} changes after the given version. A null or blank version means a full sync.
+     */
+    public CatalogChangePage getChanges(String version, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        SyncCursor cursor = SyncCursor.decode(version);
+        LocalDateTime upTo = LocalDateTime.now().minus(safetyLag);
+
+        List<CatalogChangeDto> changes = new ArrayList<>();
+        boolean hasMore = false;
+
+        List<Category> categories = categoryRepository.findChangedSince(
+                cursor.categoryTime(), cursor.categoryId(), upTo, PageRequest.of(0, pageSize + 1));
+        if (categories.size() > pageSize) {
+            categories = categories.subList(0, pageSize);
+            hasMore = true;
+        }
+        for (Category category : categories) {
+            changes.add(toChange(category));
+            cursor = cursor.withCategory(category.getUpdatedAt(), category.getId());
+        }
+
+        int remaining = pageSize - categories.size();
+        if (remaining > 0) {
+            List<Product> products = productRepository.findChangedSince(
+                    cursor.productTime(), cursor.productId(), upTo, PageRequest.of(0, remaining + 1));
+            if (products.size() > remaining) {
+                products = products.subList(0, remaining);
+                hasMore = true;
+            }
+            for (Product product : products) {
+                changes.add(toChange(product));
+                cursor = cursor.withProduct(product.getUpdatedAt(), product.getId());
+            }
+        } else {
+            hasMore = true;
+        }
+
+        log.debug("Catalog sync from version {} returned {} changes (hasMore={})", version, changes.size(), hasMore);
+        return new CatalogChangePage(changes, cursor.encode(), hasMore);
+    }
+
+    private CatalogChangeDto toChange(Product product) {
+        if (product.getStatus() == ProductStatus.INACTIVE || product.getStatus() == ProductStatus.DISCONTINUED) {
+            return tombstone(CatalogChangeDto.TYPE_PRODUCT, product.getId(), product.getUpdatedAt());
+        }
+        return CatalogChangeDto.builder()
+                .type(CatalogChangeDto.TYPE_PRODUCT)
+                .op(CatalogChangeDto.OP_UPSERT)
+                .id(product.getId())
+                .name(product.getName())
+                .imageUrl(product.getImageUrl())
+                .sku(product.getSku())
+                .barcode(product.getBarcode())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .status(product.getStatus().name())
+                .price(product.getPrice())
+                .salePrice(product.getSalePrice())
+                .taxable(product.getTaxable())
+                .taxRate(product.getTaxRate())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    private CatalogChangeDto toChange(Category category) {
+        if (!Boolean.TRUE.equals(category.getActive())) {
+            return tombstone(CatalogChangeDto.TYPE_CATEGORY, category.getId(), category.getUpdatedAt());
+        }
+        return CatalogChangeDto.builder()
+                .type(CatalogChangeDto.TYPE_CATEGORY)
+                .op(CatalogChangeDto.OP_UPSERT)
+                .id(category.getId())
+                .name(category.getName())
+                .imageUrl(category.getImageUrl())
+                .parentId(category.getParentId())
+                .sortOrder(category.getSortOrder())
+                .updatedAt(category.getUpdatedAt())
+                .build();
+    }
+
+    private CatalogChangeDto tombstone(String type, Long id, LocalDateTime updatedAt) {
+        return CatalogChangeDto.builder()
+                .type(type)
+                .op(CatalogChangeDto.OP_DELETE)
+                .id(id)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    /**
+     * Keyset position for both entity types, encoded as an opaque URL-safe token.
+     */
+    record SyncCursor(long categoryMicros, long categoryId, long productMicros, long productId) {
+
+        static final SyncCursor INITIAL = new SyncCursor(0, 0, 0, 0);
+
+        static SyncCursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return INITIAL;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+                String[] parts = raw.split(":");
+                if (parts.length != 5 || !TOKEN_PREFIX.equals(parts[0])) {
+                    throw new IllegalArgumentException(raw);
+                }
+                return new SyncCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                        Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessRuleException("catalog-sync-version", "Unrecognized sync version '" + token + "'");
+            }
+        }
+
+        String encode() {
+            String raw = String.join(":", TOKEN_PREFIX, String.valueOf(categoryMicros), String.valueOf(categoryId),
+                    String.valueOf(productMicros), String.valueOf(productId));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        LocalDateTime categoryTime() {
+            return fromMicros(categoryMicros);
+        }
+
+        LocalDateTime productTime() {
+            return fromMicros(productMicros);
+        }
+
+        SyncCursor withCategory(LocalDateTime updatedAt, Long id) {
+            return new SyncCursor(toMicros(updatedAt), id, productMicros, productId);
+        }
+
+        SyncCursor withProduct(LocalDateTime updatedAt, Long id) {
+            return new SyncCursor(categoryMicros, categoryId, toMicros(updatedAt), id);
+        }
+
+        private static long toMicros(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+        }
+
+        private static LocalDateTime fromMicros(long micros) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.cache.NearCache;
+import fa.training.kiotviet.dto.CategoryNodeDto;
+import fa.training.kiotviet.model.Category;
+import fa.training.kiotviet.repository.CategoryRepository;
+import fa.training.kiotviet.util.AppConstants;
+import fa.training.kiotviet.warmup.CacheWarmer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the category hierarchy from an immutable in-memory snapshot.
+ * The snapshot is built lazily from one query and discarded whenever a category is evicted from the
+ * {@link NearCache} on any node. A build that an invalidation overtakes is returned to its caller but not
+ * published, so a tree read before a category change cannot replace the invalidated snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeService implements CacheWarmer {
+
+    private static final Comparator<Category> DISPLAY_ORDER = Comparator
+            .comparing((Category c) -> c.getSortOrder() != null ? c.getSortOrder() : 0)
+            .thenComparing(Category::getId);
+
+    private final CategoryRepository categoryRepository;
+    private final NearCache nearCache;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(List<CategoryNodeDto> roots, Map<Long, List<Long>> childrenById, Set<Long> ids) {
+    }
+
+    public List<CategoryNodeDto> getTree() {
+        return snapshot().roots();
+    }
+
+    /**
+     * Returns the given category and all of its descendants, in breadth-first order.
+     */
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        Snapshot current = snapshot();
+        Set<Long> result = new LinkedHashSet<>();
+        if (!current.ids().contains(categoryId)) {
+            return result;
+        }
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (result.add(id)) {
+                queue.addAll(current.childrenById().getOrDefault(id, List.of()));
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Drops the snapshot whenever any node evicts a category, so trees stay consistent across the cluster.
+     */
+    @PostConstruct
+    void registerEvictionListener() {
+        nearCache.addEvictionListener(key -> {
+            if (key.startsWith(AppConstants.CATEGORY_CACHE_PREFIX)) {
+                invalidate();
+            }
+        });
+    }
+
+    @Override
+    public String getWarmerName() {
+        return "category-tree";
+    }
+
+    @Override
+    public long warm() {
+        long buildGeneration = generation.get();
+        Snapshot built = build();
+        publish(built, buildGeneration);
+        return built.ids().size();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            long buildGeneration = generation.get();
+            current = build();
+            publish(current, buildGeneration);
+        }
+        return current;
+    }
+
+    private synchronized void publish(Snapshot built, long buildGeneration) {
+        if (generation.get() == buildGeneration) {
+            snapshot = built;
+        }
+    }
+
+    private Snapshot build() {
+        List<Category> categories = new ArrayList<>(categoryRepository.findByActiveTrue());
+        categories.sort(DISPLAY_ORDER);
+
+        Map<Long, List<Long>> childrenById = new HashMap<>();
+        Map<Long, CategoryNodeDto> nodes = new HashMap<>();
+        for (Category category : categories) {
+            nodes.put(category.getId(), new CategoryNodeDto(category.getId(), category.getName(),
+                    category.getImageUrl(), category.getSortOrder(), new ArrayList<>()));
+        }
+        List<CategoryNodeDto> roots = new ArrayList<>();
+        for (Category category : categories) {
+            CategoryNodeDto node = nodes.get(category.getId());
+            CategoryNodeDto parent = category.getParentId() != null ? nodes.get(category.getParentId()) : null;
+            if (parent != null) {
+                parent.getChildren().add(node);
+                childrenById.computeIfAbsent(category.getParentId(), id -> new ArrayList<>()).add(category.getId());
+            } else {
+                roots.add(node);
+            }
+        }
+        log.debug("Built category tree snapshot with {} categories", nodes.size());
+        return new Snapshot(List.copyOf(roots), childrenById, Set.copyOf(nodes.keySet()));
+    }
+}
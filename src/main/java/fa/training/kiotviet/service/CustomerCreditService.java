@@ -0,0 +1,264 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CreditAccountDto;
+import fa.training.kiotviet.dto.CreditChargeRequest;
+import fa.training.kiotviet.dto.CreditEntryDto;
+import fa.training.kiotviet.dto.CreditPaymentLine;
+import fa.training.kiotviet.dto.CreditSettlementResult;
+import fa.training.kiotviet.enums.CreditEntryType;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.Customer;
+import fa.training.kiotviet.model.CustomerCreditEntry;
+import fa.training.kiotviet.outbox.OutboxWriter;
+import fa.training.kiotviet.repository.CustomerCreditEntryRepository;
+import fa.training.kiotviet.repository.CustomerRepository;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Customer credit accounts for credit sales.
+ * <p>
+ * A charge is a single conditional {@code UPDATE} that raises the balance only while it stays within the
+ * credit limit, so concurrent terminals selling to the same customer never read and write back the
+ * balance and can never push it over the limit together; the row lock is held only for the statement
+ * and the ledger insert that follows. Payments are settled in batches: each batch locks its orders,
+ * checks every payment against the order's unpaid credit, and then updates orders, ledger and balances
+ * with JDBC batch statements. The settled orders are recorded in the outbox within the same transaction.
+ */
+@Slf4j
+@Service
+public class CustomerCreditService {
+
+    private static final int MAX_REJECTED_SAMPLES = 20;
+
+    private static final String LOCK_ORDERS_SQL = "SELECT id, customer_id, total_amount, paid_amount " +
+            "FROM orders WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String UNPAID_CREDIT_SQL = "SELECT order_id, SUM(amount) AS unpaid " +
+            "FROM customer_credit_entries WHERE order_id IN (%s) GROUP BY order_id";
+    private static final String UPDATE_ORDER_SQL = "UPDATE orders " +
+            "SET paid_amount = ?, payment_status = ?, updated_at = ? WHERE id = ?";
+    private static final String INSERT_ENTRY_SQL = "INSERT INTO customer_credit_entries " +
+            "(customer_id, order_id, entry_type, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String REDUCE_BALANCE_SQL = "UPDATE customers " +
+            "SET current_balance = COALESCE(current_balance, 0) - ?, updated_at = ? WHERE id = ?";
+
+    private record LockedOrder(long id, long customerId, BigDecimal totalAmount, BigDecimal paidAmount) {
+    }
+
+    private record Settlement(LockedOrder order, BigDecimal amount) {
+        BigDecimal newPaidAmount() {
+            return order.paidAmount().add(amount);
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final CustomerCreditEntryRepository entryRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.credit.settlement-batch-size:500}")
+    private int settlementBatchSize;
+
+    public CustomerCreditService(CustomerRepository customerRepository,
+                                 CustomerCreditEntryRepository entryRepository,
+                                 OrderRepository orderRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 OutboxWriter outboxWriter,
+                                 PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.entryRepository = entryRepository;
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public CreditAccountDto getAccount(Long customerId) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", customerId));
+        BigDecimal limit = zeroIfNull(customer.getCreditLimit());
+        BigDecimal balance = zeroIfNull(customer.getCurrentBalance());
+        return CreditAccountDto.builder()
+                .customerId(customerId)
+                .creditLimit(limit)
+                .currentBalance(balance)
+                .availableCredit(limit.subtract(balance).max(BigDecimal.ZERO))
+                .ledgerBalance(entryRepository.sumByCustomerId(customerId))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CreditEntryDto> getEntries(Long customerId, Pageable pageable) {
+        return entryRepository.findByCustomerIdOrderByIdDesc(customerId, pageable).map(CreditEntryDto::from);
+    }
+
+    /**
+     * Charges a credit sale to the customer, failing with a business-rule error if it would exceed the
+     * credit limit.
+     */
+    @Transactional
+    public CreditEntryDto charge(Long customerId, CreditChargeRequest request) {
+        BigDecimal amount = request.getAmount();
+        if (amount == null || amount.signum() <= 0) {
+            throw new BusinessRuleException("Credit charge amount must be positive");
+        }
+        if (request.getOrderId() != null && !orderRepository.existsByIdAndCustomerId(request.getOrderId(), customerId)) {
+            throw new ResourceNotFoundException("Order " + request.getOrderId() + " of customer " + customerId);
+        }
+        if (customerRepository.chargeWithinLimit(customerId, amount) == 0) {
+            throw refusal(customerId, amount);
+        }
+        CustomerCreditEntry entry = entryRepository.save(CustomerCreditEntry.builder()
+                .customerId(customerId)
+                .orderId(request.getOrderId())
+                .entryType(CreditEntryType.CHARGE)
+                .amount(amount)
+                .createdAt(LocalDateTime.now())
+                .build());
+        return CreditEntryDto.from(entry);
+    }
+
+    /**
+     * Applies payments to credit-sale orders in batches, each in its own transaction. Payments for the
+     * same order are combined. A payment is rejected if its order has no unpaid credit or it exceeds the
+     * unpaid credit of the order.
+     */
+    public CreditSettlementResult settle(List<CreditPaymentLine> payments) {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        List<String> rejectedSamples = new ArrayList<>();
+        long rejected = 0;
+        for (CreditPaymentLine payment : payments) {
+            if (payment.getOrderId() == null || payment.getAmount() == null || payment.getAmount().signum() <= 0) {
+                rejected++;
+                sample(rejectedSamples, payment.getOrderId(), "order and a positive amount are required");
+                continue;
+            }
+            amounts.merge(payment.getOrderId(), payment.getAmount(), BigDecimal::add);
+        }
+
+        long applied = 0;
+        BigDecimal settled = BigDecimal.ZERO;
+        List<Long> orderIds = new ArrayList<>(amounts.keySet());
+        for (int from = 0; from < orderIds.size(); from += settlementBatchSize) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + settlementBatchSize, orderIds.size()));
+            List<Settlement> settlements = settleBatch(batch, amounts, rejectedSamples);
+            applied += settlements.size();
+            rejected += batch.size() - settlements.size();
+            settled = settled.add(settlements.stream().map(Settlement::amount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        log.info("Settled {} credit payments totalling {}, rejected {}", applied, settled, rejected);
+        return CreditSettlementResult.builder()
+                .applied(applied)
+                .rejected(rejected)
+                .settledAmount(settled)
+                .rejectedSamples(rejectedSamples)
+                .build();
+    }
+
+    private List<Settlement> settleBatch(List<Long> orderIds, Map<Long, BigDecimal> amounts,
+                                         List<String> rejectedSamples) {
+        return transactionTemplate.execute(status -> {
+            String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+            Object[] ids = orderIds.toArray();
+            Map<Long, LockedOrder> orders = new HashMap<>();
+            jdbcTemplate.query(String.format(LOCK_ORDERS_SQL, placeholders), rs -> {
+                orders.put(rs.getLong("id"), new LockedOrder(rs.getLong("id"), rs.getLong("customer_id"),
+                        zeroIfNull(rs.getBigDecimal("total_amount")), zeroIfNull(rs.getBigDecimal("paid_amount"))));
+            }, ids);
+            Map<Long, BigDecimal> unpaidCredit = new HashMap<>();
+            jdbcTemplate.query(String.format(UNPAID_CREDIT_SQL, placeholders), rs -> {
+                unpaidCredit.put(rs.getLong("order_id"), rs.getBigDecimal("unpaid"));
+            }, ids);
+
+            List<Settlement> settlements = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                LockedOrder order = orders.get(orderId);
+                BigDecimal amount = amounts.get(orderId);
+                BigDecimal unpaid = unpaidCredit.getOrDefault(orderId, BigDecimal.ZERO);
+                if (order == null) {
+                    sample(rejectedSamples, orderId, "unknown order");
+                } else if (unpaid.signum() <= 0) {
+                    sample(rejectedSamples, orderId, "no unpaid credit");
+                } else if (amount.compareTo(unpaid) > 0) {
+                    sample(rejectedSamples, orderId, "payment " + amount + " exceeds unpaid credit " + unpaid);
+                } else {
+                    settlements.add(new Settlement(order, amount));
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPDATE_ORDER_SQL, settlements, settlementBatchSize, (ps, settlement) -> {
+                BigDecimal paid = settlement.newPaidAmount();
+                ps.setBigDecimal(1, paid);
+                ps.setString(2, paid.compareTo(settlement.order().totalAmount()) >= 0
+                        ? AppConstants.PAYMENT_STATUS_PAID : AppConstants.PAYMENT_STATUS_PARTIAL);
+                ps.setTimestamp(3, now);
+                ps.setLong(4, settlement.order().id());
+            });
+            // The orders change outside JPA, so record them in the outbox here, in the same transaction
+            outboxWriter.appendOrderUpdates(settlements.stream().map(settlement -> settlement.order().id()).toList());
+            jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, settlements, settlementBatchSize, (ps, settlement) -> {
+                ps.setLong(1, settlement.order().customerId());
+                ps.setLong(2, settlement.order().id());
+                ps.setString(3, CreditEntryType.PAYMENT.name());
+                ps.setBigDecimal(4, settlement.amount().negate());
+                ps.setTimestamp(5, now);
+            });
+            // One decrement per customer, in id order so concurrent settlements lock customers consistently
+            Map<Long, BigDecimal> byCustomer = new TreeMap<>();
+            for (Settlement settlement : settlements) {
+                byCustomer.merge(settlement.order().customerId(), settlement.amount(), BigDecimal::add);
+            }
+            List<Object[]> reductions = new ArrayList<>(byCustomer.size());
+            byCustomer.forEach((customerId, amount) -> reductions.add(new Object[]{amount, now, customerId}));
+            jdbcTemplate.batchUpdate(REDUCE_BALANCE_SQL, reductions);
+            return settlements;
+        });
+    }
+
+    private RuntimeException refusal(Long customerId, BigDecimal amount) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", customerId));
+        if (!Boolean.TRUE.equals(customer.getActive())) {
+            return new BusinessRuleException("CREDIT_LIMIT", "customer " + customerId + " is inactive");
+        }
+        return new BusinessRuleException("CREDIT_LIMIT", String.format(
+                "charge of %s exceeds the available credit %s of customer %d", amount,
+                zeroIfNull(customer.getCreditLimit()).subtract(zeroIfNull(customer.getCurrentBalance())).max(BigDecimal.ZERO),
+                customerId));
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static void sample(List<String> samples, Long orderId, String reason) {
+        if (samples.size() < MAX_REJECTED_SAMPLES) {
+            samples.add("order " + orderId + ": " + reason);
+        }
+    }
+}
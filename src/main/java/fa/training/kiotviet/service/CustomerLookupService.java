@@ -0,0 +1,95 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CustomerLookupRow;
+import fa.training.kiotviet.dto.CustomerSummaryDto;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.model.Customer;
+import fa.training.kiotviet.repository.CustomerRepository;
+import fa.training.kiotviet.search.CustomerLookupIndex;
+import fa.training.kiotviet.warmup.CacheWarmer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link CustomerLookupIndex} in sync with the customers table and serves checkout type-ahead.
+ * Until the index has loaded, lookups fall back to the database search.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerLookupService implements CacheWarmer {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final int LOAD_BATCH_SIZE = 10000;
+
+    private final CustomerLookupIndex lookupIndex;
+    private final CustomerRepository customerRepository;
+
+    @Override
+    public String getWarmerName() {
+        return "customer-lookup";
+    }
+
+    /**
+     * Loads the index in keyset batches during startup warm-up.
+     */
+    @Override
+    public long warm() {
+        long lastId = 0;
+        List<CustomerLookupRow> batch;
+        do {
+            batch = customerRepository.findLookupRows(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lookupIndex.load(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        lookupIndex.markReady();
+        return lookupIndex.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(EntityChangedEvent<Customer> event) {
+        Customer customer = event.getEntity();
+        if (event.getChangeType() == EntityChangedEvent.ChangeType.DELETED) {
+            lookupIndex.remove(customer.getId());
+        } else {
+            lookupIndex.upsert(new CustomerLookupRow(customer.getId(), customer.getName(),
+                    customer.getPhoneNumber(), customer.getActive()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<CustomerSummaryDto> lookup(String text, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        if (!lookupIndex.isReady()) {
+            return customerRepository.searchCustomers(text.trim(), PageRequest.of(0, size)).stream()
+                    .map(CustomerSummaryDto::from)
+                    .toList();
+        }
+
+        List<Long> ids = lookupIndex.search(text, size);
+        Map<Long, Customer> customers = customerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        return ids.stream()
+                .map(customers::get)
+                .filter(Objects::nonNull)
+                .map(CustomerSummaryDto::from)
+                .toList();
+    }
+}
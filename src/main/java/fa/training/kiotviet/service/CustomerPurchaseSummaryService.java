@@ -0,0 +1,255 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CustomerPurchaseSummaryDto;
+import fa.training.kiotviet.dto.SummaryBackfillResult;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.repository.CustomerPurchaseSummaryRepository;
+import fa.training.kiotviet.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code customer_purchase_summaries}, one row per customer with its lifetime value, order count,
+ * purchase dates, average basket and top categories, so profile headers and segment lists read one row
+ * per customer instead of aggregating its orders.
+ * <p>
+ * A scheduled refresh finds the customers whose orders were modified since the previous one and recomputes
+ * their rows from their sale orders in a few grouped queries per chunk. Recomputing instead of applying
+ * deltas keeps the rows exact when an order is seen twice or changes several times in between. After a
+ * restart the refresh resumes from the newest summary row. {@link #backfill()} recomputes every customer
+ * over parallel chunks, e.g. after the table is introduced or orders were loaded in bulk.
+ */
+@Slf4j
+@Service
+public class CustomerPurchaseSummaryService {
+
+    private static final int TOP_CATEGORIES = 3;
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private static final String SALE_STATUSES = OrderStatus.saleStatuses().stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+    private static final String CHANGED_CUSTOMERS_SQL = "SELECT DISTINCT customer_id FROM orders WHERE updated_at >= ?";
+    private static final String CUSTOMER_IDS_SQL = "SELECT id FROM customers ORDER BY id";
+    private static final String TOTALS_SQL = "SELECT o.customer_id, COUNT(*) AS orders, " +
+            "COALESCE(SUM(o.total_amount), 0) AS lifetime_value, MIN(o.order_date) AS first_purchase, " +
+            "MAX(o.order_date) AS last_purchase FROM orders o " +
+            "WHERE o.customer_id IN (%s) AND o.status IN (" + SALE_STATUSES + ") GROUP BY o.customer_id";
+    private static final String CATEGORY_SPEND_SQL = "SELECT o.customer_id, p.category_id, " +
+            "SUM(oi.total_price) AS spend FROM orders o " +
+            "JOIN order_items oi ON oi.order_id = o.id " +
+            "JOIN products p ON p.id = oi.product_id " +
+            "WHERE o.customer_id IN (%s) AND o.status IN (" + SALE_STATUSES + ") " +
+            "GROUP BY o.customer_id, p.category_id";
+    private static final String UPSERT_SQL = "INSERT INTO customer_purchase_summaries " +
+            "(customer_id, order_count, lifetime_value, average_basket, first_purchase_at, last_purchase_at, " +
+            "top_category_ids, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), lifetime_value = VALUES(lifetime_value), " +
+            "average_basket = VALUES(average_basket), first_purchase_at = VALUES(first_purchase_at), " +
+            "last_purchase_at = VALUES(last_purchase_at), top_category_ids = VALUES(top_category_ids), " +
+            "updated_at = VALUES(updated_at)";
+
+    private record Totals(long orders, BigDecimal lifetimeValue, Timestamp firstPurchase, Timestamp lastPurchase) {
+    }
+
+    private record CategorySpend(long categoryId, BigDecimal spend) {
+    }
+
+    private final CustomerPurchaseSummaryRepository summaryRepository;
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    private volatile LocalDateTime refreshedUpTo;
+
+    @Value("${app.customer-summary.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.customer-summary.backfill-parallelism:4}")
+    private int backfillParallelism;
+
+    public CustomerPurchaseSummaryService(CustomerPurchaseSummaryRepository summaryRepository,
+                                          CustomerRepository customerRepository,
+                                          JdbcTemplate jdbcTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.customerRepository = customerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public CustomerPurchaseSummaryDto getSummary(Long customerId) {
+        return summaryRepository.findById(customerId)
+                .map(CustomerPurchaseSummaryDto::from)
+                .orElseGet(() -> {
+                    if (!customerRepository.existsById(customerId)) {
+                        throw new ResourceNotFoundException("Customer", customerId);
+                    }
+                    return CustomerPurchaseSummaryDto.empty(customerId);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CustomerPurchaseSummaryDto> findSegment(BigDecimal minLifetimeValue, Integer minOrders,
+                                                        LocalDateTime lastPurchaseFrom, LocalDateTime lastPurchaseTo,
+                                                        Pageable pageable) {
+        return summaryRepository.findSegment(minLifetimeValue, minOrders, lastPurchaseFrom, lastPurchaseTo, pageable)
+                .map(CustomerPurchaseSummaryDto::from);
+    }
+
+    @Scheduled(fixedDelayString = "${app.customer-summary.refresh-interval:5000}",
+            initialDelayString = "${app.customer-summary.refresh-interval:5000}")
+    public void refresh() {
+        try {
+            LocalDateTime scanStart = LocalDateTime.now();
+            LocalDateTime since = refreshedUpTo;
+            if (since == null) {
+                since = summaryRepository.findLastUpdatedAt();
+                if (since == null) {
+                    log.info("Customer purchase summaries are empty; run a backfill to include past orders");
+                    refreshedUpTo = scanStart;
+                    return;
+                }
+            }
+            List<Long> customerIds = jdbcTemplate.queryForList(CHANGED_CUSTOMERS_SQL, Long.class,
+                    Timestamp.valueOf(since.minus(REFRESH_OVERLAP)));
+            for (int from = 0; from < customerIds.size(); from += chunkSize) {
+                recompute(customerIds.subList(from, Math.min(from + chunkSize, customerIds.size())));
+            }
+            if (!customerIds.isEmpty()) {
+                log.debug("Refreshed purchase summaries of {} customers", customerIds.size());
+            }
+            refreshedUpTo = scanStart;
+        } catch (RuntimeException e) {
+            log.error("Customer purchase summary refresh failed", e);
+        }
+    }
+
+    /**
+     * Recomputes the summary of every customer in chunks spread over
+     * {@code app.customer-summary.backfill-parallelism} threads.
+     */
+    public SummaryBackfillResult backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new BusinessRuleException("A customer summary backfill is already running");
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            List<Long> customerIds = jdbcTemplate.queryForList(CUSTOMER_IDS_SQL, Long.class);
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, backfillParallelism), runnable ->
+                    new Thread(runnable, "customer-summary-backfill-" + threadCount.incrementAndGet()));
+            try {
+                for (int from = 0; from < customerIds.size(); from += chunkSize) {
+                    List<Long> chunk = customerIds.subList(from, Math.min(from + chunkSize, customerIds.size()));
+                    executor.submit(() -> {
+                        try {
+                            recompute(chunk);
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.error("Customer summary backfill failed for customers {}..{}",
+                                    chunk.get(0), chunk.get(chunk.size() - 1), e);
+                        }
+                    });
+                }
+            } finally {
+                executor.shutdown();
+            }
+            awaitTermination(executor);
+
+            // Orders changed while a chunk was being computed may have been overwritten; refresh them again
+            LocalDateTime previous = refreshedUpTo;
+            if (previous == null || previous.isAfter(startedAt)) {
+                refreshedUpTo = startedAt;
+            }
+            SummaryBackfillResult result = SummaryBackfillResult.builder()
+                    .customers(customerIds.size())
+                    .failedChunks(failed.get())
+                    .durationMs(System.currentTimeMillis() - start)
+                    .build();
+            log.info("Backfilled customer purchase summaries: {}", result);
+            return result;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    private void recompute(List<Long> customerIds) {
+        String placeholders = String.join(",", Collections.nCopies(customerIds.size(), "?"));
+        Object[] ids = customerIds.toArray();
+        Map<Long, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(String.format(TOTALS_SQL, placeholders), rs -> {
+            totals.put(rs.getLong("customer_id"), new Totals(rs.getLong("orders"), rs.getBigDecimal("lifetime_value"),
+                    rs.getTimestamp("first_purchase"), rs.getTimestamp("last_purchase")));
+        }, ids);
+        Map<Long, List<CategorySpend>> categories = new HashMap<>();
+        jdbcTemplate.query(String.format(CATEGORY_SPEND_SQL, placeholders), rs -> {
+            BigDecimal spend = rs.getBigDecimal("spend");
+            categories.computeIfAbsent(rs.getLong("customer_id"), id -> new ArrayList<>())
+                    .add(new CategorySpend(rs.getLong("category_id"), spend != null ? spend : BigDecimal.ZERO));
+        }, ids);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, customerIds, customerIds.size(), (ps, customerId) -> {
+            Totals customerTotals = totals.getOrDefault(customerId, new Totals(0, BigDecimal.ZERO, null, null));
+            ps.setLong(1, customerId);
+            ps.setLong(2, customerTotals.orders());
+            ps.setBigDecimal(3, customerTotals.lifetimeValue());
+            ps.setBigDecimal(4, customerTotals.orders() == 0 ? BigDecimal.ZERO
+                    : customerTotals.lifetimeValue().divide(BigDecimal.valueOf(customerTotals.orders()), 2,
+                    RoundingMode.HALF_UP));
+            ps.setTimestamp(5, customerTotals.firstPurchase());
+            ps.setTimestamp(6, customerTotals.lastPurchase());
+            ps.setString(7, topCategories(categories.getOrDefault(customerId, List.of())));
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    private static String topCategories(List<CategorySpend> spends) {
+        return spends.stream()
+                .sorted(Comparator.comparing(CategorySpend::spend).reversed()
+                        .thenComparingLong(CategorySpend::categoryId))
+                .limit(TOP_CATEGORIES)
+                .map(spend -> String.valueOf(spend.categoryId()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Customer summary backfill still running");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new BusinessRuleException("Customer summary backfill was interrupted");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.cache.NearCache;
+import fa.training.kiotviet.dto.CategorySummaryDto;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.repository.CategoryRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-through lookups of single products and categories via the {@link NearCache}.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityLookupService {
+
+    private final NearCache nearCache;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    public ProductSummaryDto getProduct(Long id) {
+        ProductSummaryDto product = nearCache.get(AppConstants.PRODUCT_CACHE_PREFIX + id, ProductSummaryDto.class,
+                () -> productRepository.findById(id).map(ProductSummaryDto::from).orElse(null));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product", id);
+        }
+        return product;
+    }
+
+    public CategorySummaryDto getCategory(Long id) {
+        CategorySummaryDto category = nearCache.get(AppConstants.CATEGORY_CACHE_PREFIX + id, CategorySummaryDto.class,
+                () -> categoryRepository.findById(id).map(CategorySummaryDto::from).orElse(null));
+        if (category == null) {
+            throw new ResourceNotFoundException("Category", id);
+        }
+        return category;
+    }
+}
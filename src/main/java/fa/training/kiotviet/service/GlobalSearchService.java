@@ -0,0 +1,268 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CustomerSummaryDto;
+import fa.training.kiotviet.dto.GlobalSearchHit;
+import fa.training.kiotviet.dto.GlobalSearchResult;
+import fa.training.kiotviet.dto.GlobalSearchSourceDto;
+import fa.training.kiotviet.dto.OrderSummaryDto;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import fa.training.kiotviet.enums.SearchSource;
+import fa.training.kiotviet.enums.SearchSourceStatus;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.util.SearchTextUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Global search box: runs the product, customer and order searches concurrently and merges their hits
+ * into one list ranked by relevance.
+ * <p>
+ * Every source has its own deadline, counted from the start of the request. A source that misses it is
+ * cancelled, which interrupts its worker, and reported as {@link SearchSourceStatus#TIMED_OUT}, and the
+ * response carries the hits of the others, so latency is bounded by the longest deadline rather than the
+ * sum of the searches. Each source runs in a read-only transaction whose timeout, the deadline rounded up
+ * to whole seconds, Spring passes to its queries as {@code jakarta.persistence.query.timeout}, so a query
+ * that ignores the interrupt is still stopped by the database. The sources
+ * run on a bounded pool; when it is saturated, a source is rejected instead of queueing without limit.
+ */
+@Slf4j
+@Service
+public class GlobalSearchService {
+
+    private static final int EXACT_SCORE = 100;
+    private static final int PREFIX_SCORE = 80;
+    private static final int TOKEN_PREFIX_SCORE = 60;
+    private static final int CONTAINS_SCORE = 40;
+    private static final int OTHER_FIELD_SCORE = 20;
+
+    private record Hit(GlobalSearchHit hit, int sourceRank) {
+    }
+
+    /**
+     * One source's search. Cancelling it interrupts the worker, and its duration runs from submission to
+     * its own completion, or to when it was given up on, not to the moment the merge loop gets to it.
+     */
+    private static final class SourceSearch extends FutureTask<List<GlobalSearchHit>> {
+        private final long submittedAt = System.nanoTime();
+        private volatile long finishedAt;
+
+        SourceSearch(Callable<List<GlobalSearchHit>> search) {
+            super(search);
+        }
+
+        // Stamped before the outcome is published, so a caller woken by get() always sees it
+        @Override
+        protected void set(List<GlobalSearchHit> hits) {
+            finishedAt = System.nanoTime();
+            super.set(hits);
+        }
+
+        @Override
+        protected void setException(Throwable failure) {
+            finishedAt = System.nanoTime();
+            super.setException(failure);
+        }
+
+        long durationMs() {
+            long end = finishedAt;
+            return TimeUnit.NANOSECONDS.toMillis((end != 0 ? end : System.nanoTime()) - submittedAt);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerLookupService customerLookupService;
+    private final Map<SearchSource, Duration> timeouts = new EnumMap<>(SearchSource.class);
+    private final Map<SearchSource, TransactionTemplate> transactions = new EnumMap<>(SearchSource.class);
+    private final ThreadPoolExecutor executor;
+
+    public GlobalSearchService(ProductRepository productRepository,
+                               OrderRepository orderRepository,
+                               CustomerLookupService customerLookupService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.search.threads:12}") int threads,
+                               @Value("${app.search.queue-capacity:50}") int queueCapacity,
+                               @Value("${app.search.timeout.product:300ms}") Duration productTimeout,
+                               @Value("${app.search.timeout.customer:200ms}") Duration customerTimeout,
+                               @Value("${app.search.timeout.order:400ms}") Duration orderTimeout) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.customerLookupService = customerLookupService;
+        timeouts.put(SearchSource.PRODUCT, productTimeout);
+        timeouts.put(SearchSource.CUSTOMER, customerTimeout);
+        timeouts.put(SearchSource.ORDER, orderTimeout);
+        timeouts.forEach((source, timeout) -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            // JDBC query timeouts are whole seconds, so this only stops queries that outlive the deadline
+            transaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+            transactions.put(source, transaction);
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "global-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public GlobalSearchResult search(String query, int limit) {
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty()) {
+            return GlobalSearchResult.builder().query(text).hits(List.of()).sources(List.of()).build();
+        }
+        long start = System.nanoTime();
+        Map<SearchSource, SourceSearch> searches = new EnumMap<>(SearchSource.class);
+        Map<SearchSource, SearchSourceStatus> rejected = new EnumMap<>(SearchSource.class);
+        for (SearchSource source : SearchSource.values()) {
+            Supplier<List<GlobalSearchHit>> search = searchFor(source, text, limit);
+            SourceSearch task = new SourceSearch(() -> transactions.get(source).execute(status -> search.get()));
+            try {
+                executor.execute(task);
+                searches.put(source, task);
+            } catch (RejectedExecutionException e) {
+                rejected.put(source, SearchSourceStatus.REJECTED);
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        List<GlobalSearchSourceDto> sources = new ArrayList<>();
+        for (SearchSource source : SearchSource.values()) {
+            SourceSearch future = searches.get(source);
+            SearchSourceStatus status = rejected.getOrDefault(source, SearchSourceStatus.COMPLETED);
+            List<GlobalSearchHit> sourceHits = List.of();
+            if (future != null) {
+                long remaining = timeouts.get(source).toNanos() - (System.nanoTime() - start);
+                try {
+                    sourceHits = future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    status = SearchSourceStatus.TIMED_OUT;
+                } catch (ExecutionException e) {
+                    log.warn("Global search source {} failed for '{}'", source, text, e.getCause());
+                    status = SearchSourceStatus.FAILED;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                    status = SearchSourceStatus.TIMED_OUT;
+                }
+            }
+            for (int rank = 0; rank < sourceHits.size(); rank++) {
+                hits.add(new Hit(sourceHits.get(rank), rank));
+            }
+            sources.add(GlobalSearchSourceDto.builder()
+                    .source(source)
+                    .status(status)
+                    .hits(sourceHits.size())
+                    .durationMs(future != null ? future.durationMs() : 0)
+                    .build());
+        }
+
+        hits.sort(Comparator.comparingInt((Hit hit) -> -hit.hit().getScore())
+                .thenComparing(hit -> hit.hit().getSource())
+                .thenComparingInt(Hit::sourceRank));
+        return GlobalSearchResult.builder()
+                .query(text)
+                .partial(sources.stream().anyMatch(source -> source.getStatus() != SearchSourceStatus.COMPLETED))
+                .hits(hits.stream().limit(limit).map(Hit::hit).toList())
+                .sources(sources)
+                .build();
+    }
+
+    private Supplier<List<GlobalSearchHit>> searchFor(SearchSource source, String text, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (source) {
+            case PRODUCT -> () -> productRepository.searchProducts(text, page).stream()
+                    .map(ProductSummaryDto::from)
+                    .map(product -> hit(source, product.getId(), product.getName(), product,
+                            score(text, product.getName(), product.getSku(), product.getBarcode())))
+                    .toList();
+            case CUSTOMER -> () -> customerLookupService.lookup(text, limit).stream()
+                    .map(customer -> hit(source, customer.getId(), customer.getName(), customer,
+                            customerScore(text, customer)))
+                    .toList();
+            case ORDER -> () -> orderRepository.searchOrders(text, page).stream()
+                    .map(OrderSummaryDto::from)
+                    .map(order -> hit(source, order.getId(), order.getOrderNumber(), order,
+                            score(text, order.getOrderNumber())))
+                    .toList();
+        };
+    }
+
+    private static GlobalSearchHit hit(SearchSource source, Long id, String title, Object item, int score) {
+        return GlobalSearchHit.builder()
+                .source(source)
+                .id(id)
+                .title(title)
+                .score(score)
+                .item(item)
+                .build();
+    }
+
+    private static int customerScore(String text, CustomerSummaryDto customer) {
+        if (SearchTextUtil.isPhoneQuery(text)) {
+            String phone = SearchTextUtil.normalizePhone(customer.getPhoneNumber());
+            String prefix = SearchTextUtil.normalizePhonePrefix(text);
+            return phone.equals(prefix) ? EXACT_SCORE : phone.startsWith(prefix) ? PREFIX_SCORE : OTHER_FIELD_SCORE;
+        }
+        return score(text, customer.getName(), customer.getCustomerCode());
+    }
+
+    /**
+     * Scores a hit by how well its title (the first field) matches, or failing that, whether one of its
+     * identifiers (the other fields) equals the query exactly.
+     */
+    private static int score(String text, String title, String... identifiers) {
+        for (String identifier : identifiers) {
+            if (identifier != null && identifier.equalsIgnoreCase(text)) {
+                return EXACT_SCORE;
+            }
+        }
+        String folded = SearchTextUtil.foldDiacritics(text);
+        String foldedTitle = SearchTextUtil.foldDiacritics(title);
+        if (foldedTitle.equals(folded)) {
+            return EXACT_SCORE;
+        }
+        if (foldedTitle.startsWith(folded)) {
+            return PREFIX_SCORE;
+        }
+        String[] titleTokens = SearchTextUtil.tokenize(title);
+        String[] queryTokens = SearchTextUtil.tokenize(text);
+        if (queryTokens.length > 0 && Arrays.stream(queryTokens).allMatch(token ->
+                Arrays.stream(titleTokens).anyMatch(titleToken -> titleToken.startsWith(token)))) {
+            return TOKEN_PREFIX_SCORE;
+        }
+        return foldedTitle.contains(folded) ? CONTAINS_SCORE : OTHER_FIELD_SCORE;
+    }
+}
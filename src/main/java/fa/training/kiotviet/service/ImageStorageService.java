@@ -0,0 +1,333 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.ImageDto;
+import fa.training.kiotviet.enums.ImageVariant;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.Category;
+import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.repository.CategoryRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.util.AppConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Stores product and category images on disk under {@code app.upload.dir}, together with a
+ * {@link ImageVariant} of every size, so catalog grids download small pre-scaled files.
+ * <p>
+ * Uploads are copied from the request straight to a temporary file while they are hashed, so an upload
+ * never sits in the heap. Images are addressed by that hash: the same picture uploaded twice is stored
+ * once, and the content behind an image URL never changes, which lets clients cache it forever. Variants
+ * are written to a scratch directory and moved into place in one step, so readers never see half of them.
+ */
+@Slf4j
+@Service
+public class ImageStorageService {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{32}");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/jpg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Path imageRoot;
+    private final long maxUploadBytes;
+    private final long maxPixels;
+
+    public ImageStorageService(ProductRepository productRepository,
+                               CategoryRepository categoryRepository,
+                               @Value("${app.upload.dir:./uploads}") String uploadDir,
+                               @Value("${app.upload.max-size:10MB}") DataSize maxUploadSize,
+                               @Value("${app.images.max-pixels:40000000}") long maxPixels) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.imageRoot = Paths.get(uploadDir, "images").toAbsolutePath().normalize();
+        this.maxUploadBytes = Math.min(maxUploadSize.toBytes(), AppConstants.MAX_FILE_SIZE);
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Stores the image read from {@code content} and generates its variants.
+     *
+     * @param contentType the declared type of the upload, one of the image types in
+     *                    {@link AppConstants#ALLOWED_FILE_TYPES}
+     */
+    public ImageDto store(InputStream content, String contentType) {
+        String extension = contentType == null ? null : EXTENSIONS.get(contentType.split(";")[0].trim().toLowerCase());
+        if (extension == null || !Arrays.asList(AppConstants.ALLOWED_FILE_TYPES).contains(extension)) {
+            throw new BusinessRuleException("Images must be uploaded as image/jpeg, image/png or image/gif");
+        }
+        Path upload = null;
+        try {
+            Files.createDirectories(imageRoot);
+            upload = Files.createTempFile(imageRoot, "upload-", ".tmp");
+            String key = copyAndHash(content, upload);
+            return storeVariants(key, upload);
+        } catch (IOException e) {
+            throw new KiotVietException("IMAGE_STORAGE_ERROR", "Cannot store image", e);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    /**
+     * Stores an image and makes it the product's image. The image is processed outside any transaction,
+     * so no database connection is held while it is scaled.
+     */
+    public ImageDto attachToProduct(Long productId, InputStream content, String contentType) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", productId);
+        }
+        ImageDto image = store(content, contentType);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", productId));
+        product.setImageUrl(image.getUrl());
+        productRepository.save(product);
+        return image;
+    }
+
+    public ImageDto attachToCategory(Long categoryId, InputStream content, String contentType) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category", categoryId);
+        }
+        ImageDto image = store(content, contentType);
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category", categoryId));
+        category.setImageUrl(image.getUrl());
+        categoryRepository.save(category);
+        return image;
+    }
+
+    /**
+     * Returns the file of one variant of a stored image.
+     */
+    public Path resolve(String key, ImageVariant variant) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new ResourceNotFoundException("Image", key);
+        }
+        Path directory = directoryOf(key);
+        for (String extension : new String[]{"jpg", "png"}) {
+            Path file = directory.resolve(variant.getPathName() + "." + extension);
+            if (Files.isRegularFile(file)) {
+                return file;
+            }
+        }
+        throw new ResourceNotFoundException("Image", key);
+    }
+
+    public static String urlOf(String key) {
+        return "/images/" + key;
+    }
+
+    public static String urlOf(String key, ImageVariant variant) {
+        return urlOf(key) + "/" + variant.getPathName();
+    }
+
+    private String copyAndHash(InputStream content, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(Files.newOutputStream(target), digest)) {
+            byte[] buffer = new byte[8192];
+            long copied = 0;
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                copied += read;
+                if (copied > maxUploadBytes) {
+                    throw new BusinessRuleException(String.format("Images may not exceed %d MB",
+                            maxUploadBytes / (1024 * 1024)));
+                }
+                out.write(buffer, 0, read);
+            }
+            if (copied == 0) {
+                throw new BusinessRuleException("Image upload is empty");
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private ImageDto storeVariants(String key, Path upload) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(upload.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new BusinessRuleException("Upload is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Checked before decoding, so a small file declaring a huge canvas cannot exhaust the heap
+                if ((long) width * height > maxPixels) {
+                    throw new BusinessRuleException(String.format("Images may not exceed %d pixels", maxPixels));
+                }
+                Path directory = directoryOf(key);
+                String format;
+                if (Files.isDirectory(directory)) {
+                    format = resolve(key, ImageVariant.FULL).getFileName().toString().endsWith(".png") ? "png" : "jpg";
+                    log.debug("Image {} already stored", key);
+                } else {
+                    format = writeVariants(reader.read(0), directory);
+                    log.info("Stored image {} ({}x{})", key, width, height);
+                }
+                Map<ImageVariant, String> variants = new EnumMap<>(ImageVariant.class);
+                for (ImageVariant variant : ImageVariant.values()) {
+                    variants.put(variant, urlOf(key, variant));
+                }
+                return ImageDto.builder()
+                        .key(key)
+                        .url(urlOf(key))
+                        .format(format)
+                        .width(width)
+                        .height(height)
+                        .variants(variants)
+                        .build();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Writes every variant into a scratch directory and moves it to {@code directory}. Images with
+     * transparency are kept as PNG, all others become JPEG.
+     *
+     * @return the format of the variants
+     */
+    private String writeVariants(BufferedImage image, Path directory) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpg";
+        Files.createDirectories(directory.getParent());
+        Path scratch = Files.createDirectories(directory.resolveSibling(directory.getFileName() + "-" + UUID.randomUUID()));
+        try {
+            BufferedImage source = image;
+            for (ImageVariant variant : ImageVariant.values()) {
+                source = scale(source, variant.getMaxSide(), alpha);
+                write(source, format, scratch.resolve(variant.getPathName() + "." + format));
+            }
+            try {
+                Files.move(scratch, directory, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(scratch, directory);
+            }
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            log.debug("Image {} was stored concurrently", directory.getFileName());
+        } finally {
+            FileSystemUtils.deleteRecursively(scratch);
+        }
+        return format;
+    }
+
+    /**
+     * Scales {@code source} so its longer side is at most {@code maxSide}, halving it step by step for
+     * large reductions, which keeps thumbnails sharp without an expensive filter.
+     */
+    private static BufferedImage scale(BufferedImage source, int maxSide, boolean alpha) {
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        if (!"jpg".equals(format)) {
+            ImageIO.write(image, format, target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path directoryOf(String key) {
+        return imageRoot.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete temporary upload {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CogsReportDto;
+import fa.training.kiotviet.dto.InventoryValuationDto;
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.dto.ProductValuationDto;
+import fa.training.kiotviet.dto.ValuationRebuildResult;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.CostLayer;
+import fa.training.kiotviet.model.InventoryTransaction;
+import fa.training.kiotviet.model.ProductValuation;
+import fa.training.kiotviet.model.ValuationEntry;
+import fa.training.kiotviet.repository.CostLayerRepository;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.repository.ProductValuationRepository;
+import fa.training.kiotviet.repository.ValuationEntryRepository;
+import fa.training.kiotviet.valuation.CostLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains inventory value under weighted-average and FIFO costing as ledger rows are written.
+ * <p>
+ * Each new inventory transaction is applied just before its database transaction commits: the product's
+ * valuation row is locked, its open cost layers are loaded into a {@link CostLedger}, and the resulting
+ * totals, layers and a {@link ValuationEntry} are written back in the same commit. Current inventory
+ * value is then a sum over one row per product, and COGS for a period a sum over that period's entries.
+ * <p>
+ * {@link #rebuild()} replays the whole ledger per product in parallel, e.g. after back-dated or edited
+ * transactions, which the incremental path applies in commit order rather than transaction date order.
+ */
+@Slf4j
+@Service
+public class InventoryValuationService {
+
+    private static final String INSERT_LAYER_SQL = "INSERT INTO cost_layers " +
+            "(product_id, source_transaction_id, received_at, original_quantity, remaining_quantity, unit_cost) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ENTRY_SQL = "INSERT INTO valuation_entries " +
+            "(transaction_id, product_id, transaction_type, entry_date, quantity, average_cost_amount, " +
+            "fifo_cost_amount) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final ProductValuationRepository valuationRepository;
+    private final CostLayerRepository costLayerRepository;
+    private final ValuationEntryRepository entryRepository;
+    private final InventoryTransactionRepository transactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @Value("${app.valuation.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    public InventoryValuationService(ProductValuationRepository valuationRepository,
+                                     CostLayerRepository costLayerRepository,
+                                     ValuationEntryRepository entryRepository,
+                                     InventoryTransactionRepository transactionRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager) {
+        this.valuationRepository = valuationRepository;
+        this.costLayerRepository = costLayerRepository;
+        this.entryRepository = entryRepository;
+        this.transactionRepository = transactionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Values a ledger row inserted through JPA. Its identity id makes Hibernate insert it, and publish the
+     * event, as soon as it is persisted, so the event is always raised before the commit phase starts.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onInventoryTransactionChanged(EntityChangedEvent<InventoryTransaction> event) {
+        if (event.getChangeType() != EntityChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        InventoryTransaction transaction = event.getEntity();
+        apply(List.of(new LedgerRow(transaction.getId(), transaction.getProduct().getId(),
+                transaction.getTransactionType(), transaction.getQuantity(), transaction.getUnitCost(),
+                transaction.getTransactionDate())));
+    }
+
+    /**
+     * Warns about edited or deleted ledger rows. Updates and deletes are usually flushed at commit, after
+     * before-commit listeners have run, so this listens synchronously inside the flush instead.
+     */
+    @EventListener
+    public void onInventoryTransactionEdited(EntityChangedEvent<InventoryTransaction> event) {
+        if (event.getChangeType() != EntityChangedEvent.ChangeType.CREATED) {
+            log.warn("Inventory transaction {} was {}; valuation is stale until the next rebuild",
+                    event.getEntity().getId(), event.getChangeType());
+        }
+    }
+
+    /**
+     * Applies ledger rows that were written in the current transaction without going through JPA, such as
+     * batched inserts. Rows already valued are skipped.
+     */
+    @Transactional
+    public void apply(Collection<LedgerRow> rows) {
+        Map<Long, List<LedgerRow>> byProduct = new TreeMap<>();
+        for (LedgerRow row : rows) {
+            byProduct.computeIfAbsent(row.getProductId(), id -> new ArrayList<>()).add(row);
+        }
+        // Lock products in id order so that concurrent batches cannot deadlock each other
+        byProduct.forEach((productId, productRows) -> {
+            productRows.sort(Comparator.comparing(LedgerRow::getTransactionDate).thenComparing(LedgerRow::getId));
+            applyToProduct(productId, productRows);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public InventoryValuationDto getInventoryValue() {
+        InventoryValuationDto value = valuationRepository.summarize();
+        if (value.getQuantityOnHand() == null) {
+            value.setQuantityOnHand(0L);
+            value.setAverageCostValue(BigDecimal.ZERO);
+            value.setFifoValue(BigDecimal.ZERO);
+        }
+        return value;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductValuationDto getProductValuation(Long productId) {
+        return valuationRepository.findById(productId)
+                .map(ProductValuationDto::from)
+                .orElseThrow(() -> new ResourceNotFoundException("ProductValuation", productId));
+    }
+
+    /**
+     * Returns the cost of goods sold between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    @Transactional(readOnly = true)
+    public CogsReportDto getCogs(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BusinessRuleException("COGS period must end after it starts");
+        }
+        CogsReportDto sums = entryRepository.sumIssues(from, to);
+        return CogsReportDto.builder()
+                .from(from)
+                .to(to)
+                .quantitySold(sums.getQuantitySold() != null ? -sums.getQuantitySold() : 0L)
+                .averageCostCogs(negate(sums.getAverageCostCogs()))
+                .fifoCogs(negate(sums.getFifoCogs()))
+                .build();
+    }
+
+    /**
+     * Recomputes the valuation of every product from its full ledger, one product per transaction, spread
+     * over {@code app.valuation.rebuild-parallelism} threads. Incremental updates keep running meanwhile:
+     * both paths lock the product's valuation row first.
+     */
+    public ValuationRebuildResult rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new BusinessRuleException("A valuation rebuild is already running");
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<Long> productIds = transactionRepository.findProductIdsWithTransactions();
+            AtomicLong transactions = new AtomicLong();
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger threadCount = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism), runnable ->
+                    new Thread(runnable, "valuation-rebuild-" + threadCount.incrementAndGet()));
+            try {
+                for (Long productId : productIds) {
+                    executor.submit(() -> {
+                        try {
+                            transactions.addAndGet(transactionTemplate.execute(status -> rebuildProduct(productId)));
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.error("Valuation rebuild failed for product {}", productId, e);
+                        }
+                    });
+                }
+            } finally {
+                executor.shutdown();
+            }
+            awaitTermination(executor);
+
+            ValuationRebuildResult result = ValuationRebuildResult.builder()
+                    .products(productIds.size())
+                    .transactions(transactions.get())
+                    .failedProducts(failed.get())
+                    .durationMs(System.currentTimeMillis() - start)
+                    .build();
+            log.info("Rebuilt inventory valuation: {}", result);
+            return result;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void applyToProduct(Long productId, List<LedgerRow> rows) {
+        ProductValuation valuation = lockValuation(productId);
+        CostLedger ledger = CostLedger.restore(valuation, costLayerRepository.findOpenLayers(productId));
+        List<ValuationEntry> entries = new ArrayList<>(rows.size());
+        for (LedgerRow row : rows) {
+            if (!entryRepository.existsByTransactionId(row.getId())) {
+                entries.add(ledger.apply(row));
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        ledger.writeTo(valuation);
+        valuation.setUpdatedAt(LocalDateTime.now());
+        costLayerRepository.saveAll(ledger.getTouchedLayers());
+        entryRepository.saveAll(entries);
+    }
+
+    private long rebuildProduct(Long productId) {
+        ProductValuation valuation = lockValuation(productId);
+        costLayerRepository.deleteByProductId(productId);
+        entryRepository.deleteByProductId(productId);
+
+        CostLedger ledger = CostLedger.empty(productId);
+        List<ValuationEntry> entries = new ArrayList<>();
+        for (LedgerRow row : transactionRepository.findLedgerRows(productId)) {
+            entries.add(ledger.apply(row));
+        }
+        ledger.writeTo(valuation);
+        valuation.setUpdatedAt(LocalDateTime.now());
+        insertLayers(ledger.getOpenLayers());
+        insertEntries(entries);
+        return entries.size();
+    }
+
+    private ProductValuation lockValuation(Long productId) {
+        valuationRepository.insertIfMissing(productId, LocalDateTime.now());
+        return valuationRepository.findForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("ProductValuation", productId));
+    }
+
+    private void insertLayers(Collection<CostLayer> layers) {
+        jdbcTemplate.batchUpdate(INSERT_LAYER_SQL, layers, INSERT_BATCH_SIZE, (ps, layer) -> {
+            ps.setLong(1, layer.getProductId());
+            ps.setObject(2, layer.getSourceTransactionId());
+            ps.setTimestamp(3, Timestamp.valueOf(layer.getReceivedAt()));
+            ps.setInt(4, layer.getOriginalQuantity());
+            ps.setInt(5, layer.getRemainingQuantity());
+            ps.setBigDecimal(6, layer.getUnitCost());
+        });
+    }
+
+    private void insertEntries(List<ValuationEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, entries, INSERT_BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.getTransactionId());
+            ps.setLong(2, entry.getProductId());
+            ps.setString(3, entry.getTransactionType());
+            ps.setTimestamp(4, Timestamp.valueOf(entry.getEntryDate()));
+            ps.setInt(5, entry.getQuantity());
+            ps.setBigDecimal(6, entry.getAverageCostAmount());
+            ps.setBigDecimal(7, entry.getFifoCostAmount());
+        });
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Valuation rebuild still running");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new BusinessRuleException("Valuation rebuild was interrupted");
+        }
+    }
+
+    private static BigDecimal negate(BigDecimal amount) {
+        return amount != null ? amount.negate() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,292 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.OrderStatusTransitionRequest;
+import fa.training.kiotviet.dto.OrderStatusTransitionResult;
+import fa.training.kiotviet.dto.OrderSummaryDto;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.Order;
+import fa.training.kiotviet.outbox.OutboxWriter;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.warmup.CacheWarmer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validated order status transitions and live per-status order counts.
+ * <p>
+ * Bulk transitions lock each chunk of orders, check every order against the {@link OrderStatus} state
+ * machine and move the valid ones with one set-based UPDATE per chunk, recording their outbox events in the
+ * same transaction.
+ * <p>
+ * Counts are held in memory so status boards read them without touching {@code orders}. Committed
+ * transitions adjust them, whether bulk or through JPA, and a periodic reconciliation corrects drift from
+ * writes that bypass both, such as the synthetic data generator. Each transition marks the statuses it
+ * changes as pending from before its commit until its delta is applied, and the reconciliation leaves a
+ * status for the next run when it is pending or its count changes while the query runs, since the query
+ * may or may not have seen such a change.
+ */
+@Slf4j
+@Service
+public class OrderStatusService implements CacheWarmer {
+
+    private static final int MAX_REJECTED_SAMPLES = 20;
+
+    private static final String LOCK_ORDERS_SQL = "SELECT id, status FROM orders WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String UPDATE_STATUS_SQL = "UPDATE orders SET status = ?, updated_at = ? WHERE id IN (%s)";
+    private static final String COUNT_SQL = "SELECT status, COUNT(*) AS orders FROM orders GROUP BY status";
+
+    private final OrderRepository orderRepository;
+    private final OutboxWriter outboxWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, AtomicInteger> pending = new EnumMap<>(OrderStatus.class);
+
+    private volatile boolean reconciled;
+
+    @Value("${app.order-status.chunk-size:500}")
+    private int chunkSize;
+
+    public OrderStatusService(OrderRepository orderRepository,
+                              OutboxWriter outboxWriter,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.outboxWriter = outboxWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, new AtomicLong());
+            pending.put(status, new AtomicInteger());
+        }
+    }
+
+    @Override
+    public String getWarmerName() {
+        return "order-status-counts";
+    }
+
+    @Override
+    public long warm() {
+        reconcile();
+        return counts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    @EventListener
+    public void onOrderChanged(EntityChangedEvent<Order> event) {
+        Order order = event.getEntity();
+        Map<OrderStatus, Long> delta = new EnumMap<>(OrderStatus.class);
+        switch (event.getChangeType()) {
+            case CREATED -> delta.merge(order.getStatus(), 1L, Long::sum);
+            case UPDATED -> {
+                if (order.getPersistedStatus() != null && order.getPersistedStatus() != order.getStatus()) {
+                    delta.merge(order.getPersistedStatus(), -1L, Long::sum);
+                    delta.merge(order.getStatus(), 1L, Long::sum);
+                }
+            }
+            case DELETED -> delta.merge(Objects.requireNonNullElse(order.getPersistedStatus(), order.getStatus()),
+                    -1L, Long::sum);
+        }
+        applyAfterCommit(delta);
+    }
+
+    /**
+     * Moves one order to {@code target} if its current status allows it.
+     */
+    @Transactional
+    public OrderSummaryDto transition(Long orderId, OrderStatus target) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+        if (!order.getStatus().canTransitionTo(target)) {
+            throw new BusinessRuleException("ORDER_STATUS_TRANSITION",
+                    "order " + orderId + " cannot move from " + order.getStatus() + " to " + target);
+        }
+        order.setStatus(target);
+        return OrderSummaryDto.from(orderRepository.saveAndFlush(order));
+    }
+
+    /**
+     * Moves the given orders to the target status in chunks of {@code app.order-status.chunk-size}, each in
+     * its own transaction. Orders that are unknown or cannot make the transition are rejected and reported.
+     */
+    public OrderStatusTransitionResult transitionAll(OrderStatusTransitionRequest request) {
+        long start = System.currentTimeMillis();
+        OrderStatus target = request.getTargetStatus();
+        // Sorted so that concurrent bulk transitions lock orders in the same order
+        List<Long> orderIds = request.getOrderIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+        List<String> rejectedSamples = new ArrayList<>();
+        long transitioned = 0;
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            Map<OrderStatus, Long> delta = transitionChunk(chunk, target, rejectedSamples);
+            transitioned += delta.getOrDefault(target, 0L);
+        }
+        OrderStatusTransitionResult result = OrderStatusTransitionResult.builder()
+                .targetStatus(target)
+                .transitioned(transitioned)
+                .rejected(orderIds.size() - transitioned)
+                .rejectedSamples(rejectedSamples)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+        log.info("Bulk order status transition: {}", result);
+        return result;
+    }
+
+    /**
+     * Returns the number of orders in each status, reconciling first if the counts were never loaded.
+     */
+    public Map<OrderStatus, Long> getCounts() {
+        if (!reconciled) {
+            reconcile();
+        }
+        return currentCounts();
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-status.reconcile-interval:60000}",
+            initialDelayString = "${app.order-status.reconcile-interval:60000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Order status count reconciliation failed", e);
+        }
+    }
+
+    /**
+     * Replaces the in-memory counts with the counts in {@code orders}.
+     *
+     * @return whether every status could be reconciled
+     */
+    public synchronized boolean reconcile() {
+        Map<OrderStatus, Long> before = currentCounts();
+        Map<OrderStatus, Long> actual = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            actual.put(status, 0L);
+        }
+        jdbcTemplate.query(COUNT_SQL, rs -> {
+            actual.put(OrderStatus.valueOf(rs.getString("status")), rs.getLong("orders"));
+        });
+
+        boolean complete = true;
+        for (OrderStatus status : OrderStatus.values()) {
+            long expected = before.get(status);
+            long drift = actual.get(status) - expected;
+            if (drift == 0) {
+                continue;
+            }
+            if (pending.get(status).get() > 0 || !counts.get(status).compareAndSet(expected, actual.get(status))) {
+                complete = false;
+            } else if (reconciled) {
+                log.warn("Order count of status {} drifted by {}; corrected to {}", status, drift, actual.get(status));
+            }
+        }
+        if (complete) {
+            reconciled = true;
+        }
+        return complete;
+    }
+
+    private Map<OrderStatus, Long> transitionChunk(List<Long> orderIds, OrderStatus target,
+                                                   List<String> rejectedSamples) {
+        return transactionTemplate.execute(transaction -> {
+            Map<Long, OrderStatus> current = new HashMap<>();
+            jdbcTemplate.query(String.format(LOCK_ORDERS_SQL, placeholders(orderIds.size())), rs -> {
+                current.put(rs.getLong("id"), OrderStatus.valueOf(rs.getString("status")));
+            }, orderIds.toArray());
+
+            Map<OrderStatus, Long> delta = new EnumMap<>(OrderStatus.class);
+            List<Long> eligible = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                OrderStatus status = current.get(orderId);
+                if (status == null) {
+                    sample(rejectedSamples, orderId, "unknown order");
+                } else if (!status.canTransitionTo(target)) {
+                    sample(rejectedSamples, orderId, "cannot move from " + status + " to " + target);
+                } else {
+                    eligible.add(orderId);
+                    delta.merge(status, -1L, Long::sum);
+                }
+            }
+            if (eligible.isEmpty()) {
+                return delta;
+            }
+
+            List<Object> args = new ArrayList<>(eligible.size() + 2);
+            args.add(target.name());
+            args.add(Timestamp.valueOf(LocalDateTime.now()));
+            args.addAll(eligible);
+            jdbcTemplate.update(String.format(UPDATE_STATUS_SQL, placeholders(eligible.size())), args.toArray());
+            outboxWriter.appendOrderUpdates(eligible);
+            delta.merge(target, (long) eligible.size(), Long::sum);
+            applyAfterCommit(delta);
+            return delta;
+        });
+    }
+
+    /**
+     * Applies the delta once the current transaction commits, keeping its statuses pending until then.
+     */
+    private void applyAfterCommit(Map<OrderStatus, Long> delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        delta.keySet().forEach(status -> pending.get(status).incrementAndGet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(delta);
+                }
+                delta.keySet().forEach(changed -> pending.get(changed).decrementAndGet());
+            }
+        });
+    }
+
+    private void apply(Map<OrderStatus, Long> delta) {
+        delta.forEach((status, change) -> counts.get(status).addAndGet(change));
+    }
+
+    private Map<OrderStatus, Long> currentCounts() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+        return snapshot;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static void sample(List<String> samples, Long orderId, String reason) {
+        if (samples.size() < MAX_REJECTED_SAMPLES) {
+            samples.add("order " + orderId + ": " + reason);
+        }
+    }
+}
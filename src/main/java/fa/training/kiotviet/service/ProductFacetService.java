@@ -0,0 +1,150 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.ProductFacetQuery;
+import fa.training.kiotviet.dto.ProductFacetResult;
+import fa.training.kiotviet.dto.ProductFacetRow;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.exception.ServiceOverloadedException;
+import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.search.ProductFacetIndex;
+import fa.training.kiotviet.util.AppConstants;
+import fa.training.kiotviet.warmup.CacheWarmer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link ProductFacetIndex} in sync with the products table and answers faceted catalog queries.
+ * <p>
+ * The index is loaded by startup warm-up, and retried on a schedule until it is ready, so a failed warm-up
+ * or a disabled one does not leave searches answering 503 for good.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetService implements CacheWarmer {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final long NOT_READY_RETRY_AFTER_SECONDS = 5;
+
+    private final ProductFacetIndex facetIndex;
+    private final ProductRepository productRepository;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    @Override
+    public String getWarmerName() {
+        return "product-facets";
+    }
+
+    /**
+     * Loads the index during startup warm-up, unless the scheduled retry has already loaded it.
+     */
+    @Override
+    public long warm() {
+        loadLock.lock();
+        try {
+            if (!facetIndex.isReady()) {
+                load();
+            }
+            return facetIndex.size();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the index if warm-up did not, because it is disabled or failed. Skips while a load is running.
+     */
+    @Scheduled(fixedDelayString = "${app.facets.load-retry-interval:30000}",
+            initialDelayString = "${app.facets.load-retry-interval:30000}")
+    public void loadIfNotReady() {
+        if (facetIndex.isReady() || !loadLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!facetIndex.isReady()) {
+                load();
+                log.info("Loaded product facet index with {} products outside warm-up", facetIndex.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Loading the product facet index failed", e);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Adds all products in keyset batches; rows already in the index are kept, so a retry resumes cheaply.
+     */
+    private void load() {
+        long lastId = 0;
+        List<ProductFacetRow> batch;
+        do {
+            batch = productRepository.findFacetRows(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            facetIndex.load(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        facetIndex.markReady();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(EntityChangedEvent<Product> event) {
+        Product product = event.getEntity();
+        if (event.getChangeType() == EntityChangedEvent.ChangeType.DELETED) {
+            facetIndex.remove(product.getId());
+        } else {
+            facetIndex.upsert(new ProductFacetRow(product.getId(),
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getStatus(), product.getTaxable(), product.getPrice()));
+        }
+    }
+
+    /**
+     * Reloads the index entries of products changed with set-based updates, which publish no entity events.
+     */
+    public void refresh(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            productRepository.findFacetRowsByIdIn(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())))
+                    .forEach(facetIndex::upsert);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ProductFacetResult search(ProductFacetQuery query) {
+        if (!facetIndex.isReady()) {
+            throw new ServiceOverloadedException("INDEX_NOT_READY", "Product facet index is still loading",
+                    NOT_READY_RETRY_AFTER_SECONDS);
+        }
+        query.setPage(Math.max(0, query.getPage()));
+        query.setSize(query.getSize() <= 0 ? AppConstants.DEFAULT_PAGE_SIZE
+                : Math.min(query.getSize(), AppConstants.MAX_PAGE_SIZE));
+
+        ProductFacetResult result = facetIndex.query(query);
+        Map<Long, Product> products = productRepository.findAllById(result.getProductIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        result.setProducts(result.getProductIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductSummaryDto::from)
+                .toList());
+        return result;
+    }
+}
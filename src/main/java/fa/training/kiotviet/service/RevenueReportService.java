@@ -0,0 +1,74 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.RevenueDayDto;
+import fa.training.kiotviet.dto.RevenueReportDto;
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.job.JobProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Revenue of the orders in a sale status over a period, grouped by day.
+ * <p>
+ * The period is read in windows of {@link #WINDOW_DAYS} whole days through the order date index, one window
+ * per progress unit, so a report over a year reports progress and can be cancelled between windows.
+ */
+@Service
+@RequiredArgsConstructor
+public class RevenueReportService {
+
+    private static final int WINDOW_DAYS = 7;
+
+    private static final String DAILY_REVENUE_SQL = "SELECT DATE(o.order_date) AS day, COUNT(*) AS orders, " +
+            "COALESCE(SUM(o.total_amount), 0) AS revenue FROM orders o " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND o.status IN (" +
+            OrderStatus.saleStatuses().stream().map(status -> "'" + status.name() + "'")
+                    .collect(Collectors.joining(", ")) +
+            ") GROUP BY DATE(o.order_date) ORDER BY day";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the revenue between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    public RevenueReportDto getRevenue(LocalDateTime from, LocalDateTime to, JobProgress progress) {
+        if (!from.isBefore(to)) {
+            throw new BusinessRuleException("Revenue period must end after it starts");
+        }
+        List<LocalDateTime> boundaries = new ArrayList<>();
+        boundaries.add(from);
+        LocalDateTime next = from.toLocalDate().atStartOfDay().plusDays(WINDOW_DAYS);
+        for (; next.isBefore(to); next = next.plusDays(WINDOW_DAYS)) {
+            boundaries.add(next);
+        }
+        boundaries.add(to);
+        progress.total(boundaries.size() - 1);
+
+        List<RevenueDayDto> daily = new ArrayList<>();
+        for (int i = 1; i < boundaries.size(); i++) {
+            daily.addAll(jdbcTemplate.query(DAILY_REVENUE_SQL, (rs, rowNum) -> RevenueDayDto.builder()
+                    .date(rs.getDate("day").toLocalDate())
+                    .orders(rs.getLong("orders"))
+                    .revenue(rs.getBigDecimal("revenue"))
+                    .build(), Timestamp.valueOf(boundaries.get(i - 1)), Timestamp.valueOf(boundaries.get(i))));
+            progress.advance(1);
+        }
+
+        return RevenueReportDto.builder()
+                .from(from)
+                .to(to)
+                .orders(daily.stream().mapToLong(RevenueDayDto::getOrders).sum())
+                .revenue(daily.stream().map(RevenueDayDto::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .days(daily)
+                .build();
+    }
+}
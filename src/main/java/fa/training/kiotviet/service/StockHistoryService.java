@@ -0,0 +1,316 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.StockAsOfDto;
+import fa.training.kiotviet.dto.StockCheckpointResult;
+import fa.training.kiotviet.event.EntityChangedEvent;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.KiotVietException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.InventoryTransaction;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Answers "what was the stock of X at time T" from periodic per-product checkpoints plus the ledger rows
+ * dated between the checkpoint and T, instead of summing the whole ledger.
+ * <p>
+ * A scheduled job writes a checkpoint at the start of each day for every product whose ledger moved since
+ * its previous checkpoint, so the tail read for any point in time is at most a day of activity for busy
+ * products. Catalog-wide snapshots split the products into id ranges that are computed in parallel, each
+ * with one grouped query.
+ * <p>
+ * A ledger row inserted, edited or deleted through JPA deletes its product's checkpoints after the earlier
+ * of its old and new dates, which then fall back to the previous one. This runs synchronously in the
+ * Hibernate flush, on the connection of the changing transaction, so changes flushed at commit are covered
+ * and the deletion rolls back with them. Rows batch-inserted with past dates, such as synthetic load-test
+ * data, bypass this and should be written before checkpoints are taken.
+ */
+@Slf4j
+@Service
+public class StockHistoryService {
+
+    private static final String DELETE_CHECKPOINTS_AFTER_SQL =
+            "DELETE FROM stock_checkpoints WHERE product_id = ? AND checkpoint_at > ?";
+    private static final String PRODUCT_IDS_SQL = "SELECT id FROM products ORDER BY id";
+    private static final String AS_OF_SQL = "SELECT p.id, c.checkpoint_at, " +
+            "COALESCE(c.quantity, 0) AS checkpoint_quantity, " +
+            "COALESCE(SUM(CASE WHEN it.transaction_type IN ('IN', 'RETURN') THEN ABS(it.quantity) " +
+            "WHEN it.transaction_type = 'OUT' THEN -ABS(it.quantity) ELSE it.quantity END), 0) AS tail_quantity, " +
+            "COUNT(it.id) AS tail_transactions " +
+            "FROM products p " +
+            "LEFT JOIN stock_checkpoints c ON c.product_id = p.id AND c.checkpoint_at = (" +
+            "SELECT MAX(latest.checkpoint_at) FROM stock_checkpoints latest " +
+            "WHERE latest.product_id = p.id AND latest.checkpoint_at <= ?) " +
+            "LEFT JOIN inventory_transactions it ON it.product_id = p.id AND it.transaction_date < ? " +
+            "AND (c.checkpoint_at IS NULL OR it.transaction_date >= c.checkpoint_at) " +
+            "WHERE p.id BETWEEN ? AND ? " +
+            "GROUP BY p.id, c.checkpoint_at, c.quantity " +
+            "ORDER BY p.id";
+    private static final String UPSERT_CHECKPOINT_SQL = "INSERT INTO stock_checkpoints " +
+            "(product_id, checkpoint_at, quantity, created_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), created_at = VALUES(created_at)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private record ProductRange(long firstId, long lastId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    @Value("${app.stock-checkpoints.chunk-size:1000}")
+    private int chunkSize;
+
+    public StockHistoryService(JdbcTemplate jdbcTemplate,
+                               @Value("${app.stock-checkpoints.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parallelism = Math.max(1, parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "stock-history-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onInventoryTransactionChanged(EntityChangedEvent<InventoryTransaction> event) {
+        InventoryTransaction transaction = event.getEntity();
+        LocalDateTime date = earliest(transaction.getTransactionDate(), transaction.getPersistedTransactionDate());
+        if (date == null) {
+            return;
+        }
+        Long productId = transaction.getProduct().getId();
+        int removed = jdbcTemplate.update(DELETE_CHECKPOINTS_AFTER_SQL, productId, Timestamp.valueOf(date));
+        if (removed > 0) {
+            log.info("Inventory transaction {} dated {} was {}; dropped {} later stock checkpoints of product {}",
+                    transaction.getId(), date, event.getChangeType(), removed, productId);
+        }
+    }
+
+    /**
+     * Returns the stock of one product from the ledger rows dated before {@code at}.
+     */
+    public StockAsOfDto getStockAsOf(Long productId, LocalDateTime at) {
+        List<StockAsOfDto> rows = queryRange(new ProductRange(productId, productId), at);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Product", productId);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Streams the stock of every product at {@code at}, in product id order.
+     * <p>
+     * Id ranges are queried on the shared pool at most {@code app.stock-checkpoints.parallelism} ahead of
+     * the consumer, and each range is joined only when the stream reaches it, so the first rows go out
+     * while later ranges are still being computed and a slow consumer holds back the queries rather than
+     * piling up results. Closing the stream cancels the ranges not yet started.
+     */
+    public Stream<StockAsOfDto> getSnapshot(LocalDateTime at) {
+        Iterator<ProductRange> ranges = productRanges().iterator();
+        Deque<CompletableFuture<List<StockAsOfDto>>> ahead = new ArrayDeque<>();
+        Runnable fill = () -> {
+            while (ahead.size() < parallelism && ranges.hasNext()) {
+                ProductRange range = ranges.next();
+                ahead.add(CompletableFuture.supplyAsync(() -> queryRange(range, at), executor));
+            }
+        };
+        fill.run();
+
+        Iterator<List<StockAsOfDto>> chunks = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !ahead.isEmpty();
+            }
+
+            @Override
+            public List<StockAsOfDto> next() {
+                CompletableFuture<List<StockAsOfDto>> chunk = ahead.poll();
+                if (chunk == null) {
+                    throw new NoSuchElementException();
+                }
+                fill.run();
+                try {
+                    return chunk.join();
+                } catch (CompletionException e) {
+                    throw new KiotVietException("STOCK_SNAPSHOT_FAILED", "Could not compute stock as of " + at,
+                            e.getCause());
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(() -> ahead.forEach(chunk -> chunk.cancel(false)));
+    }
+
+    /**
+     * Starts the daily run on the stock-history pool and returns at once, so the run does not hold one of
+     * the scheduler threads while its ranges are computed.
+     */
+    @Scheduled(cron = "${app.stock-checkpoints.cron:0 10 0 * * *}")
+    public void writeDailyCheckpoints() {
+        try {
+            startCheckpoints(LocalDate.now().atStartOfDay()).whenComplete((result, e) -> {
+                if (e != null) {
+                    log.error("Daily stock checkpoint failed", e.getCause() != null ? e.getCause() : e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Daily stock checkpoint failed", e);
+        }
+    }
+
+    /**
+     * Writes a checkpoint at {@code at} for every product with ledger rows between its previous checkpoint
+     * and {@code at}, and waits for it. Writing the same point in time again overwrites it, so past points
+     * can be backfilled oldest first.
+     */
+    public StockCheckpointResult writeCheckpoints(LocalDateTime at) {
+        try {
+            return startCheckpoints(at).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new KiotVietException("STOCK_CHECKPOINT_FAILED", "Could not write stock checkpoints at " + at,
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Runs the checkpoint at {@code at} entirely on the stock-history pool. Range tasks are chained rather
+     * than joined, so no pool thread waits for another.
+     */
+    private CompletableFuture<StockCheckpointResult> startCheckpoints(LocalDateTime at) {
+        if (at.isAfter(LocalDateTime.now())) {
+            throw new BusinessRuleException("Stock checkpoints cannot be taken in the future");
+        }
+        if (!checkpointing.compareAndSet(false, true)) {
+            throw new BusinessRuleException("Stock checkpoints are already being written");
+        }
+        long start = System.currentTimeMillis();
+        AtomicInteger products = new AtomicInteger();
+        CompletableFuture<StockCheckpointResult> run;
+        try {
+            run = CompletableFuture.supplyAsync(this::productRanges, executor).thenCompose(ranges -> {
+                List<CompletableFuture<Integer>> chunks = ranges.stream()
+                        .map(range -> CompletableFuture.supplyAsync(() -> {
+                            List<StockAsOfDto> rows = queryRange(range, at);
+                            products.addAndGet(rows.size());
+                            return upsertCheckpoints(rows.stream().filter(row -> row.getTailTransactions() > 0)
+                                    .toList(), at);
+                        }, executor))
+                        .toList();
+                return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                        .handle((ignored, e) -> summarize(at, start, products.get(), chunks));
+            });
+        } catch (RuntimeException e) {
+            checkpointing.set(false);
+            throw e;
+        }
+        return run.whenComplete((result, e) -> checkpointing.set(false));
+    }
+
+    private StockCheckpointResult summarize(LocalDateTime at, long start, int products,
+                                            List<CompletableFuture<Integer>> chunks) {
+        int checkpoints = 0;
+        int failed = 0;
+        for (CompletableFuture<Integer> chunk : chunks) {
+            try {
+                checkpoints += chunk.join();
+            } catch (CompletionException e) {
+                failed++;
+                log.error("Stock checkpoint chunk failed", e.getCause());
+            }
+        }
+        StockCheckpointResult result = StockCheckpointResult.builder()
+                .checkpointAt(at)
+                .products(products)
+                .checkpoints(checkpoints)
+                .failedChunks(failed)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+        log.info("Wrote stock checkpoints: {}", result);
+        return result;
+    }
+
+    private List<ProductRange> productRanges() {
+        List<Long> ids = jdbcTemplate.queryForList(PRODUCT_IDS_SQL, Long.class);
+        int size = Math.max(1, chunkSize);
+        List<ProductRange> ranges = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += size) {
+            ranges.add(new ProductRange(ids.get(from), ids.get(Math.min(from + size, ids.size()) - 1)));
+        }
+        return ranges;
+    }
+
+    private List<StockAsOfDto> queryRange(ProductRange range, LocalDateTime at) {
+        Timestamp timestamp = Timestamp.valueOf(at);
+        return jdbcTemplate.query(AS_OF_SQL, asOfMapper(at), timestamp, timestamp, range.firstId(), range.lastId());
+    }
+
+    private int upsertCheckpoints(List<StockAsOfDto> rows, LocalDateTime at) {
+        Timestamp checkpointAt = Timestamp.valueOf(at);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_CHECKPOINT_SQL, rows, INSERT_BATCH_SIZE, (ps, row) -> {
+            ps.setLong(1, row.getProductId());
+            ps.setTimestamp(2, checkpointAt);
+            ps.setInt(3, row.getQuantity());
+            ps.setTimestamp(4, now);
+        });
+        return rows.size();
+    }
+
+    private static LocalDateTime earliest(LocalDateTime date, LocalDateTime previousDate) {
+        if (date == null || previousDate == null) {
+            return date != null ? date : previousDate;
+        }
+        return date.isBefore(previousDate) ? date : previousDate;
+    }
+
+    private static RowMapper<StockAsOfDto> asOfMapper(LocalDateTime at) {
+        return (rs, rowNum) -> {
+            Timestamp checkpointAt = rs.getTimestamp("checkpoint_at");
+            return StockAsOfDto.builder()
+                    .productId(rs.getLong("id"))
+                    .at(at)
+                    .quantity(Math.toIntExact(rs.getLong("checkpoint_quantity") + rs.getLong("tail_quantity")))
+                    .checkpointAt(checkpointAt != null ? checkpointAt.toLocalDateTime() : null)
+                    .tailTransactions(rs.getLong("tail_transactions"))
+                    .build();
+        };
+    }
+}
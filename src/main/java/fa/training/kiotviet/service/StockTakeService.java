@@ -0,0 +1,335 @@
+package fa.training.kiotviet.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.dto.ProductKeyRow;
+import fa.training.kiotviet.dto.StockTakeCountLine;
+import fa.training.kiotviet.dto.StockTakeDto;
+import fa.training.kiotviet.dto.StockTakeSubmitResult;
+import fa.training.kiotviet.dto.StockTakeVarianceDto;
+import fa.training.kiotviet.enums.InventoryTransactionType;
+import fa.training.kiotviet.enums.StockTakeStatus;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.model.StockTake;
+import fa.training.kiotviet.outbox.OutboxWriter;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import fa.training.kiotviet.repository.StockTakeCountRepository;
+import fa.training.kiotviet.repository.StockTakeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock-take sessions: streamed counts, set-based reconciliation and variance reporting.
+ * <p>
+ * Counts are read from the request body one line at a time and upserted in batches, each batch in its
+ * own transaction under a shared lock on the session. Reconciliation takes the exclusive lock, computes
+ * the expected stock of every counted product with one grouped query over the inventory ledger, and
+ * writes all differences as ADJUSTMENT transactions with JDBC batch inserts, recorded in the outbox with
+ * one INSERT ... SELECT.
+ */
+@Slf4j
+@Service
+public class StockTakeService {
+
+    public static final String REFERENCE_TYPE = "STOCK_TAKE";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REJECTED_SAMPLES = 20;
+
+    private static final String UPSERT_COUNT_SQL = "INSERT INTO stock_take_counts " +
+            "(stock_take_id, product_id, counted_quantity, counted_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE counted_quantity = VALUES(counted_quantity), counted_at = VALUES(counted_at)";
+    private static final String ACCUMULATE_COUNT_SQL = "INSERT INTO stock_take_counts " +
+            "(stock_take_id, product_id, counted_quantity, counted_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE counted_quantity = counted_quantity + VALUES(counted_quantity), " +
+            "counted_at = VALUES(counted_at)";
+    private static final String EXPECTED_STOCK_SQL = "SELECT c.product_id, c.counted_quantity, p.cost_price, " +
+            "COALESCE(SUM(CASE WHEN it.transaction_type IN ('IN', 'RETURN') THEN ABS(it.quantity) " +
+            "WHEN it.transaction_type = 'OUT' THEN -ABS(it.quantity) ELSE it.quantity END), 0) AS expected " +
+            "FROM stock_take_counts c " +
+            "JOIN products p ON p.id = c.product_id " +
+            "LEFT JOIN inventory_transactions it ON it.product_id = c.product_id " +
+            "WHERE c.stock_take_id = ? " +
+            "GROUP BY c.product_id, c.counted_quantity, p.cost_price";
+    private static final String UPDATE_VARIANCE_SQL = "UPDATE stock_take_counts " +
+            "SET expected_quantity = ?, variance = ?, variance_value = ? WHERE stock_take_id = ? AND product_id = ?";
+    private static final String INSERT_ADJUSTMENT_SQL = "INSERT INTO inventory_transactions " +
+            "(product_id, transaction_type, quantity, reference_type, reference_id, transaction_date, notes, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Variance(long productId, int counted, int expected, BigDecimal value) {
+        int difference() {
+            return counted - expected;
+        }
+    }
+
+    private final StockTakeRepository stockTakeRepository;
+    private final StockTakeCountRepository countRepository;
+    private final ProductRepository productRepository;
+    private final InventoryTransactionRepository transactionRepository;
+    private final InventoryValuationService valuationService;
+    private final OutboxWriter outboxWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader lineReader;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockTakeService(StockTakeRepository stockTakeRepository,
+                            StockTakeCountRepository countRepository,
+                            ProductRepository productRepository,
+                            InventoryTransactionRepository transactionRepository,
+                            InventoryValuationService valuationService,
+                            OutboxWriter outboxWriter,
+                            JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.stockTakeRepository = stockTakeRepository;
+        this.countRepository = countRepository;
+        this.productRepository = productRepository;
+        this.transactionRepository = transactionRepository;
+        this.valuationService = valuationService;
+        this.outboxWriter = outboxWriter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lineReader = objectMapper.readerFor(StockTakeCountLine.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public StockTakeDto create(String notes) {
+        StockTake stockTake = StockTake.builder()
+                .status(StockTakeStatus.OPEN)
+                .notes(notes)
+                .build();
+        return StockTakeDto.from(stockTakeRepository.save(stockTake));
+    }
+
+    @Transactional(readOnly = true)
+    public StockTakeDto get(Long id) {
+        StockTakeDto dto = StockTakeDto.from(findStockTake(id));
+        if (dto.getStatus() == StockTakeStatus.OPEN) {
+            dto.setCountedItems((int) countRepository.countByStockTakeId(id));
+        }
+        return dto;
+    }
+
+    /**
+     * Reads counts from a JSON array or newline-delimited JSON objects and stores them in batches.
+     * Lines with an unknown product or a missing or negative quantity are rejected and reported. A body
+     * that cannot be read is a client error; the batches stored before the failure stay committed, and
+     * the error says how many.
+     *
+     * @param accumulate add to an existing count of the same product instead of replacing it, for
+     *                   products counted in several locations
+     */
+    public StockTakeSubmitResult submitCounts(Long stockTakeId, InputStream body, boolean accumulate) {
+        findStockTake(stockTakeId);
+        long accepted = 0;
+        long rejected = 0;
+        List<String> rejectedSamples = new ArrayList<>();
+        List<StockTakeCountLine> batch = new ArrayList<>(BATCH_SIZE);
+        int committedBatches = 0;
+        long linesRead = 0;
+        long committedLines = 0;
+
+        try (MappingIterator<StockTakeCountLine> lines = lineReader.readValues(body)) {
+            while (lines.hasNextValue()) {
+                StockTakeCountLine line = lines.nextValue();
+                linesRead++;
+                if (line.getQuantity() == null || line.getQuantity() < 0
+                        || (line.getProductId() == null && line.getSku() == null)) {
+                    rejected++;
+                    sample(rejectedSamples, line, "quantity and product are required");
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    int written = writeBatch(stockTakeId, batch, accumulate, rejectedSamples);
+                    accepted += written;
+                    rejected += batch.size() - written;
+                    committedBatches++;
+                    committedLines = linesRead;
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            String reason = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+            String committed = committedBatches == 0 ? "no counts were stored"
+                    : String.format("%d batches with %d accepted counts were already committed, so resubmit only "
+                            + "the lines after the first %d", committedBatches, accepted, committedLines);
+            throw new BusinessRuleException("INVALID_STOCK_TAKE_COUNTS",
+                    String.format("cannot read the counts (%s); %s", reason, committed));
+        }
+        if (!batch.isEmpty()) {
+            int written = writeBatch(stockTakeId, batch, accumulate, rejectedSamples);
+            accepted += written;
+            rejected += batch.size() - written;
+        }
+        return StockTakeSubmitResult.builder()
+                .accepted(accepted)
+                .rejected(rejected)
+                .rejectedSamples(rejectedSamples)
+                .build();
+    }
+
+    /**
+     * Compares every count with the ledger stock, records the differences as ADJUSTMENT transactions
+     * and closes the session.
+     */
+    @Transactional
+    public StockTakeDto reconcile(Long stockTakeId) {
+        StockTake stockTake = stockTakeRepository.findForUpdate(stockTakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("StockTake", stockTakeId));
+        requireOpen(stockTake);
+        long start = System.currentTimeMillis();
+
+        List<Variance> variances = jdbcTemplate.query(EXPECTED_STOCK_SQL, (rs, rowNum) -> {
+            int counted = rs.getInt("counted_quantity");
+            int expected = rs.getInt("expected");
+            BigDecimal costPrice = rs.getBigDecimal("cost_price");
+            BigDecimal value = (costPrice != null ? costPrice : BigDecimal.ZERO)
+                    .multiply(BigDecimal.valueOf(counted - expected));
+            return new Variance(rs.getLong("product_id"), counted, expected, value);
+        }, stockTakeId);
+
+        jdbcTemplate.batchUpdate(UPDATE_VARIANCE_SQL, variances, BATCH_SIZE, (ps, variance) -> {
+            ps.setInt(1, variance.expected());
+            ps.setInt(2, variance.difference());
+            ps.setBigDecimal(3, variance.value());
+            ps.setLong(4, stockTakeId);
+            ps.setLong(5, variance.productId());
+        });
+
+        List<Variance> differences = variances.stream().filter(v -> v.difference() != 0).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String notes = "Stock take #" + stockTakeId;
+        jdbcTemplate.batchUpdate(INSERT_ADJUSTMENT_SQL, differences, BATCH_SIZE, (ps, variance) -> {
+            ps.setLong(1, variance.productId());
+            ps.setString(2, InventoryTransactionType.ADJUSTMENT.name());
+            ps.setInt(3, variance.difference());
+            ps.setString(4, REFERENCE_TYPE);
+            ps.setLong(5, stockTakeId);
+            ps.setTimestamp(6, now);
+            ps.setString(7, notes);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        // The adjustments bypass JPA, so value them and record them in the outbox within this transaction
+        List<LedgerRow> adjustments = transactionRepository.findLedgerRowsByReference(REFERENCE_TYPE, stockTakeId);
+        valuationService.apply(adjustments);
+        outboxWriter.appendInventoryTransactionUpdates(REFERENCE_TYPE, stockTakeId);
+
+        stockTake.setStatus(StockTakeStatus.RECONCILED);
+        stockTake.setReconciledAt(now.toLocalDateTime());
+        stockTake.setCountedItems(variances.size());
+        stockTake.setVarianceItems(differences.size());
+        stockTake.setNetVarianceQuantity(differences.stream().mapToLong(Variance::difference).sum());
+        stockTake.setNetVarianceValue(differences.stream().map(Variance::value).reduce(BigDecimal.ZERO, BigDecimal::add));
+        log.info("Reconciled stock take {}: {} counted, {} adjusted in {} ms",
+                stockTakeId, variances.size(), differences.size(), System.currentTimeMillis() - start);
+        return StockTakeDto.from(stockTake);
+    }
+
+    @Transactional
+    public StockTakeDto cancel(Long stockTakeId) {
+        StockTake stockTake = stockTakeRepository.findForUpdate(stockTakeId)
+                .orElseThrow(() -> new ResourceNotFoundException("StockTake", stockTakeId));
+        requireOpen(stockTake);
+        stockTake.setStatus(StockTakeStatus.CANCELLED);
+        return StockTakeDto.from(stockTake);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StockTakeVarianceDto> getVariances(Long stockTakeId, boolean discrepanciesOnly, Pageable pageable) {
+        findStockTake(stockTakeId);
+        return countRepository.findVariances(stockTakeId, discrepanciesOnly, pageable);
+    }
+
+    private int writeBatch(Long stockTakeId, List<StockTakeCountLine> batch, boolean accumulate,
+                           List<String> rejectedSamples) {
+        return transactionTemplate.execute(status -> {
+            StockTake stockTake = stockTakeRepository.findForShare(stockTakeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("StockTake", stockTakeId));
+            requireOpen(stockTake);
+
+            Map<Long, Long> byId = new HashMap<>();
+            Map<String, Long> bySku = new HashMap<>();
+            resolveProducts(batch, byId, bySku);
+
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (StockTakeCountLine line : batch) {
+                Long productId = line.getProductId() != null ? byId.get(line.getProductId()) : bySku.get(line.getSku());
+                if (productId == null) {
+                    sample(rejectedSamples, line, "unknown product");
+                    continue;
+                }
+                rows.add(new Object[]{stockTakeId, productId, line.getQuantity(), now});
+            }
+            jdbcTemplate.batchUpdate(accumulate ? ACCUMULATE_COUNT_SQL : UPSERT_COUNT_SQL, rows);
+            return rows.size();
+        });
+    }
+
+    private void resolveProducts(List<StockTakeCountLine> batch, Map<Long, Long> byId, Map<String, Long> bySku) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (StockTakeCountLine line : batch) {
+            if (line.getProductId() != null) {
+                ids.add(line.getProductId());
+            } else {
+                skus.add(line.getSku());
+            }
+        }
+        if (!ids.isEmpty()) {
+            for (ProductKeyRow row : productRepository.findKeysByIdIn(ids)) {
+                byId.put(row.getId(), row.getId());
+            }
+        }
+        if (!skus.isEmpty()) {
+            for (ProductKeyRow row : productRepository.findKeysBySkuIn(skus)) {
+                bySku.put(row.getSku(), row.getId());
+            }
+        }
+    }
+
+    private StockTake findStockTake(Long id) {
+        return stockTakeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StockTake", id));
+    }
+
+    private static void requireOpen(StockTake stockTake) {
+        if (stockTake.getStatus() != StockTakeStatus.OPEN) {
+            throw new BusinessRuleException("Stock take " + stockTake.getId() + " is "
+                    + stockTake.getStatus().getDisplayName().toLowerCase());
+        }
+    }
+
+    private static void sample(List<String> samples, StockTakeCountLine line, String reason) {
+        if (samples.size() < MAX_REJECTED_SAMPLES) {
+            samples.add((line.getProductId() != null ? "productId " + line.getProductId() : "sku " + line.getSku())
+                    + ": " + reason);
+        }
+    }
+}
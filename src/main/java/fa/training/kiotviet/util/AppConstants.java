@@ -31,6 +31,11 @@ public final class AppConstants {
     public static final String CUSTOMER_CODE_PREFIX = "KH";
     public static final String SKU_PREFIX = "SKU";
 
+    // Order payment statuses
+    public static final String PAYMENT_STATUS_UNPAID = "UNPAID";
+    public static final String PAYMENT_STATUS_PARTIAL = "PARTIAL";
+    public static final String PAYMENT_STATUS_PAID = "PAID";
+
     // Response messages
     public static final String SUCCESS_MESSAGE = "Operation completed successfully";
     public static final String CREATED_MESSAGE = "Resource created successfully";
@@ -40,5 +45,4 @@ public final class AppConstants {
     // Cache keys
     public static final String PRODUCT_CACHE_PREFIX = "product:";
     public static final String CATEGORY_CACHE_PREFIX = "category:";
-    public static final String USER_CACHE_PREFIX = "user:";
 }
\ No newline at end of file
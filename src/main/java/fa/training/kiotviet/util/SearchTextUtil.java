@@ -0,0 +1,72 @@
+package fa.training.kiotviet.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for normalizing Vietnamese names and phone numbers before indexing or searching.
+ */
+public final class SearchTextUtil {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_TOKEN_CHARS = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("[^0-9]");
+    private static final String[] NO_TOKENS = new String[0];
+
+    private SearchTextUtil() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Lower-cases and strips Vietnamese diacritics, e.g. "Nguyễn Văn Đạt" becomes "nguyen van dat".
+     */
+    public static String foldDiacritics(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.replace('đ', 'd').replace('Đ', 'D'), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase();
+    }
+
+    /**
+     * Splits folded text into ASCII alphanumeric tokens.
+     */
+    public static String[] tokenize(String text) {
+        String folded = NON_TOKEN_CHARS.matcher(foldDiacritics(text)).replaceAll(" ").trim();
+        return folded.isEmpty() ? NO_TOKENS : Arrays.stream(folded.split(" ")).distinct().toArray(String[]::new);
+    }
+
+    /**
+     * Converts a Vietnamese phone number to its national form, e.g. "+84 90 123 4567" becomes "0901234567".
+     * Returns an empty string when the input contains no digits.
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        String digits = NON_DIGITS.matcher(phone).replaceAll("");
+        if (digits.startsWith("0084")) {
+            return "0" + digits.substring(4);
+        }
+        if (digits.startsWith("84") && (phone.trim().startsWith("+") || digits.length() >= 11)) {
+            return "0" + digits.substring(2);
+        }
+        return digits;
+    }
+
+    /**
+     * Normalizes a partially typed phone number. A missing leading zero is added, so "912" matches "0912...".
+     */
+    public static String normalizePhonePrefix(String input) {
+        String digits = normalizePhone(input);
+        return digits.isEmpty() || digits.startsWith("0") ? digits : "0" + digits;
+    }
+
+    /**
+     * Returns true when the input looks like a phone number rather than a name.
+     */
+    public static boolean isPhoneQuery(String input) {
+        return input != null && !input.isBlank() && input.trim().matches("[+0-9 .\\-()]+");
+    }
+}
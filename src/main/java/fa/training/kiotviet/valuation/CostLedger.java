@@ -0,0 +1,234 @@
+package fa.training.kiotviet.valuation;
+
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.enums.InventoryTransactionType;
+import fa.training.kiotviet.model.CostLayer;
+import fa.training.kiotviet.model.ProductValuation;
+import fa.training.kiotviet.model.ValuationEntry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory valuation state of one product that applies ledger rows one at a time.
+ * <p>
+ * The weighted-average side keeps a perpetual average cost: receipts blend into it and issues are costed
+ * at it. The FIFO side keeps open cost layers in receipt order: receipts append a layer and issues consume
+ * the oldest ones. Issuing more than is on hand leaves a single negative layer at the last known cost,
+ * which the next receipt fills first.
+ * <p>
+ * Receipts without a unit cost (returns, positive adjustments) are valued at the current average cost.
+ * Not thread-safe; callers hold the product's valuation row lock or own the state exclusively.
+ */
+public class CostLedger {
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int COST_SCALE = 4;
+
+    private final Long productId;
+    private final Deque<CostLayer> openLayers;
+    private final Set<CostLayer> touchedLayers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int quantity;
+    private BigDecimal averageCost;
+    private BigDecimal totalValue;
+    private BigDecimal fifoValue;
+    private BigDecimal lastLayerCost;
+    private Long lastTransactionId;
+
+    private CostLedger(Long productId, int quantity, BigDecimal averageCost, BigDecimal totalValue,
+                       BigDecimal fifoValue, Long lastTransactionId, Collection<CostLayer> openLayers) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.averageCost = averageCost;
+        this.totalValue = totalValue;
+        this.fifoValue = fifoValue;
+        this.lastTransactionId = lastTransactionId;
+        this.openLayers = new ArrayDeque<>(openLayers);
+        this.lastLayerCost = openLayers.isEmpty() ? averageCost : this.openLayers.peekLast().getUnitCost();
+    }
+
+    public static CostLedger empty(Long productId) {
+        return new CostLedger(productId, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null, List.of());
+    }
+
+    /**
+     * Restores the state from a persisted valuation row and its open layers in receipt order.
+     */
+    public static CostLedger restore(ProductValuation valuation, Collection<CostLayer> openLayers) {
+        return new CostLedger(valuation.getProductId(), valuation.getQuantityOnHand(), valuation.getAverageCost(),
+                valuation.getTotalValue(), valuation.getFifoValue(), valuation.getLastTransactionId(), openLayers);
+    }
+
+    /**
+     * Applies one ledger row and returns its valuation effect.
+     */
+    public ValuationEntry apply(LedgerRow row) {
+        InventoryTransactionType type = InventoryTransactionType.valueOf(row.getTransactionType());
+        int delta = type.signedQuantity(row.getQuantity());
+
+        BigDecimal averageAmount = BigDecimal.ZERO;
+        BigDecimal fifoAmount = BigDecimal.ZERO;
+        if (delta > 0) {
+            BigDecimal unitCost = row.getUnitCost() != null ? row.getUnitCost() : averageCost;
+            averageAmount = receiveAverage(delta, unitCost);
+            fifoAmount = receiveFifo(delta, unitCost, row);
+        } else if (delta < 0) {
+            averageAmount = issueAverage(-delta);
+            fifoAmount = issueFifo(-delta, row);
+        }
+        quantity += delta;
+        lastTransactionId = row.getId();
+
+        return ValuationEntry.builder()
+                .transactionId(row.getId())
+                .productId(productId)
+                .transactionType(type.name())
+                .entryDate(row.getTransactionDate())
+                .quantity(delta)
+                .averageCostAmount(averageAmount)
+                .fifoCostAmount(fifoAmount)
+                .build();
+    }
+
+    /**
+     * Copies the running totals onto the valuation row.
+     */
+    public void writeTo(ProductValuation valuation) {
+        valuation.setQuantityOnHand(quantity);
+        valuation.setAverageCost(averageCost);
+        valuation.setTotalValue(totalValue);
+        valuation.setFifoValue(fifoValue);
+        valuation.setLastTransactionId(lastTransactionId);
+    }
+
+    public ProductValuation toValuation() {
+        ProductValuation valuation = new ProductValuation();
+        valuation.setProductId(productId);
+        writeTo(valuation);
+        return valuation;
+    }
+
+    /**
+     * Layers that still hold stock (or a deficit), oldest first.
+     */
+    public Collection<CostLayer> getOpenLayers() {
+        return openLayers;
+    }
+
+    /**
+     * Layers created or changed since this ledger was restored, including ones consumed to zero.
+     */
+    public Collection<CostLayer> getTouchedLayers() {
+        return touchedLayers;
+    }
+
+    private BigDecimal receiveAverage(int received, BigDecimal unitCost) {
+        BigDecimal before = totalValue;
+        int newQuantity = quantity + received;
+        if (quantity <= 0) {
+            // Nothing valued on hand: the receipt sets the average cost
+            averageCost = unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP);
+            totalValue = amount(averageCost, newQuantity);
+        } else {
+            totalValue = totalValue.add(amount(unitCost, received));
+            averageCost = totalValue.divide(BigDecimal.valueOf(newQuantity), COST_SCALE, RoundingMode.HALF_UP);
+        }
+        return totalValue.subtract(before);
+    }
+
+    private BigDecimal issueAverage(int issued) {
+        BigDecimal before = totalValue;
+        if (quantity - issued == 0) {
+            // Clear rounding residue when the product sells out
+            totalValue = BigDecimal.ZERO.setScale(AMOUNT_SCALE);
+        } else {
+            totalValue = totalValue.subtract(amount(averageCost, issued));
+        }
+        return totalValue.subtract(before);
+    }
+
+    private BigDecimal receiveFifo(int received, BigDecimal unitCost, LedgerRow row) {
+        BigDecimal change = BigDecimal.ZERO;
+        int remaining = received;
+        CostLayer head = openLayers.peekFirst();
+        if (head != null && head.getRemainingQuantity() < 0) {
+            int filled = Math.min(remaining, -head.getRemainingQuantity());
+            head.setRemainingQuantity(head.getRemainingQuantity() + filled);
+            change = change.add(amount(head.getUnitCost(), filled));
+            remaining -= filled;
+            touch(head);
+            if (head.getRemainingQuantity() == 0) {
+                openLayers.pollFirst();
+            }
+        }
+        if (remaining > 0) {
+            CostLayer layer = CostLayer.builder()
+                    .productId(productId)
+                    .sourceTransactionId(row.getId())
+                    .receivedAt(row.getTransactionDate())
+                    .originalQuantity(remaining)
+                    .remainingQuantity(remaining)
+                    .unitCost(unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP))
+                    .build();
+            openLayers.addLast(layer);
+            touch(layer);
+            lastLayerCost = layer.getUnitCost();
+            change = change.add(amount(layer.getUnitCost(), remaining));
+        }
+        fifoValue = fifoValue.add(change);
+        return change;
+    }
+
+    private BigDecimal issueFifo(int issued, LedgerRow row) {
+        BigDecimal change = BigDecimal.ZERO;
+        int remaining = issued;
+        while (remaining > 0 && !openLayers.isEmpty() && openLayers.peekFirst().getRemainingQuantity() > 0) {
+            CostLayer head = openLayers.peekFirst();
+            int taken = Math.min(remaining, head.getRemainingQuantity());
+            head.setRemainingQuantity(head.getRemainingQuantity() - taken);
+            change = change.subtract(amount(head.getUnitCost(), taken));
+            remaining -= taken;
+            touch(head);
+            if (head.getRemainingQuantity() == 0) {
+                openLayers.pollFirst();
+            }
+        }
+        if (remaining > 0) {
+            // Issued before received: carry the shortfall as a negative layer at the last known cost
+            CostLayer deficit = openLayers.peekFirst();
+            if (deficit == null) {
+                deficit = CostLayer.builder()
+                        .productId(productId)
+                        .sourceTransactionId(row.getId())
+                        .receivedAt(row.getTransactionDate())
+                        .originalQuantity(0)
+                        .remainingQuantity(0)
+                        .unitCost(lastLayerCost.setScale(COST_SCALE, RoundingMode.HALF_UP))
+                        .build();
+                openLayers.addFirst(deficit);
+            }
+            deficit.setRemainingQuantity(deficit.getRemainingQuantity() - remaining);
+            deficit.setOriginalQuantity(deficit.getOriginalQuantity() - remaining);
+            change = change.subtract(amount(deficit.getUnitCost(), remaining));
+            touch(deficit);
+        }
+        fifoValue = fifoValue.add(change);
+        return change;
+    }
+
+    private void touch(CostLayer layer) {
+        touchedLayers.add(layer);
+    }
+
+    private static BigDecimal amount(BigDecimal unitCost, int quantity) {
+        return unitCost.multiply(BigDecimal.valueOf(quantity)).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,44 @@
+package fa.training.kiotviet.warmup;
+
+import fa.training.kiotviet.dto.ProductKeyRow;
+import fa.training.kiotviet.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads all active products once so their rows are resident in the MySQL buffer pool.
+ * <p>
+ * Walks the primary key in keyset batches and selects only id and SKU: the filter on the status still
+ * makes MySQL read every row, but no entities are built and only one batch is held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActiveProductWarmer implements CacheWarmer {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public String getWarmerName() {
+        return "active-products";
+    }
+
+    @Override
+    public long warm() {
+        long lastId = 0;
+        long products = 0;
+        List<ProductKeyRow> batch;
+        do {
+            batch = productRepository.findActiveKeysAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+            products += batch.size();
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return products;
+    }
+}
@@ -0,0 +1,17 @@
+package fa.training.kiotviet.warmup;
+
+/**
+ * A unit of startup warm-up work run by {@link WarmupOrchestrator} before the application reports ready.
+ */
+public interface CacheWarmer {
+
+    /**
+     * Short identifier used in logs and metric tags.
+     */
+    String getWarmerName();
+
+    /**
+     * Loads data into caches or database buffers and returns the number of items warmed.
+     */
+    long warm();
+}
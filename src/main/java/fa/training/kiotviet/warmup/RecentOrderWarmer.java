@@ -0,0 +1,49 @@
+package fa.training.kiotviet.warmup;
+
+import fa.training.kiotviet.model.Order;
+import fa.training.kiotviet.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pages through the most recent orders so the pages backing order lists and reports are hot.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecentOrderWarmer implements CacheWarmer {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+
+    @Value("${app.warmup.recent-order-days:7}")
+    private int recentOrderDays;
+
+    @Value("${app.warmup.max-recent-orders:20000}")
+    private int maxRecentOrders;
+
+    @Override
+    public String getWarmerName() {
+        return "recent-orders";
+    }
+
+    @Override
+    public long warm() {
+        LocalDateTime since = LocalDateTime.now().minusDays(recentOrderDays);
+        long loaded = 0;
+        Slice<Order> slice = orderRepository.findByOrderDateAfter(since,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "orderDate")));
+        loaded += slice.getNumberOfElements();
+        while (slice.hasNext() && loaded < maxRecentOrders) {
+            slice = orderRepository.findByOrderDateAfter(since, slice.nextPageable());
+            loaded += slice.getNumberOfElements();
+        }
+        return loaded;
+    }
+}
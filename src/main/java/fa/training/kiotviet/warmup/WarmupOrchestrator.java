@@ -0,0 +1,138 @@
+package fa.training.kiotviet.warmup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs all registered {@link CacheWarmer}s in parallel during startup.
+ * <p>
+ * Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} after every
+ * {@link ApplicationRunner} has returned, so blocking here keeps the readiness probe at not-ready while
+ * the embedded server and liveness probe are already up. When the time budget is exhausted the
+ * application becomes ready anyway and unfinished warmers keep running in the background.
+ * <p>
+ * Published metrics: {@code kiotviet.warmup.duration} and {@code kiotviet.warmup.items} per warmer,
+ * {@code kiotviet.warmup.total.duration} and {@code kiotviet.warmup.coverage} (share of warmers that
+ * completed within the budget).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupOrchestrator implements ApplicationRunner {
+
+    private final List<CacheWarmer> warmers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.timeout:60s}")
+    private Duration timeout;
+
+    @Value("${app.warmup.parallelism:4}")
+    private int parallelism;
+
+    private final Map<String, AtomicLong> itemsWarmed = new ConcurrentHashMap<>();
+    private final AtomicLong completedWarmers = new AtomicLong();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || warmers.isEmpty()) {
+            log.info("Startup warm-up skipped");
+            return;
+        }
+        Gauge.builder("kiotviet.warmup.coverage", () -> (double) completedWarmers.get() / warmers.size())
+                .description("Share of warmers that completed within the warm-up budget")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, warmers.size()), runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        log.info("Starting warm-up of {} warmers with a budget of {}", warmers.size(), timeout);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (CacheWarmer warmer : warmers) {
+                futures.add(executor.submit(() -> runWarmer(warmer)));
+            }
+            long deadline = start + timeout.toNanos();
+            for (int i = 0; i < futures.size(); i++) {
+                awaitWarmer(warmers.get(i), futures.get(i), deadline);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("kiotviet.warmup.total.duration")
+                .description("Wall-clock time spent in startup warm-up")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up finished in {} ms, {}/{} warmers completed",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), completedWarmers.get(), warmers.size());
+    }
+
+    private void runWarmer(CacheWarmer warmer) {
+        String name = warmer.getWarmerName();
+        AtomicLong items = itemsWarmed.computeIfAbsent(name, key -> {
+            AtomicLong counter = new AtomicLong();
+            Gauge.builder("kiotviet.warmup.items", counter, AtomicLong::get)
+                    .description("Items loaded by a startup warmer")
+                    .tag("warmer", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+        Timer timer = Timer.builder("kiotviet.warmup.duration")
+                .description("Time taken by a startup warmer")
+                .tag("warmer", name)
+                .register(meterRegistry);
+
+        long start = System.nanoTime();
+        items.set(warmer.warm());
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        completedWarmers.incrementAndGet();
+        log.info("Warmer '{}' loaded {} items in {} ms", name, items.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void awaitWarmer(CacheWarmer warmer, Future<?> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Warmer '{}' did not finish within the warm-up budget, continuing in background",
+                    warmer.getWarmerName());
+        } catch (ExecutionException e) {
+            log.error("Warmer '{}' failed", warmer.getWarmerName(), e.getCause());
+        } catch (CancellationException e) {
+            log.warn("Warmer '{}' was cancelled", warmer.getWarmerName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+-- Baseline schema as previously created by Hibernate (ddl-auto: update) from the entity model.
+-- Databases that already hold these tables are baselined at version 1 and skip this script.
+
+create table bestseller_snapshots (
+    taken_at datetime(6) not null,
+    name varchar(50) not null,
+    payload LONGTEXT not null,
+    primary key (name)
+) engine=InnoDB;
+
+create table categories (
+    is_active bit,
+    sort_order integer,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    parent_id bigint,
+    updated_at datetime(6),
+    description varchar(255),
+    image_url varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table cost_layers (
+    original_quantity integer not null,
+    remaining_quantity integer not null,
+    unit_cost decimal(19,4) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    received_at datetime(6) not null,
+    source_transaction_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table customer_credit_entries (
+    amount decimal(19,2) not null,
+    created_at datetime(6) not null,
+    customer_id bigint not null,
+    id bigint not null auto_increment,
+    order_id bigint,
+    entry_type enum ('CHARGE','PAYMENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table customers (
+    birth_date date,
+    credit_limit decimal(38,2),
+    current_balance decimal(38,2),
+    is_active bit,
+    loyalty_points integer,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    address varchar(255),
+    city varchar(255),
+    customer_code varchar(255) not null,
+    district varchar(255),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    notes varchar(255),
+    phone_number varchar(255),
+    postal_code varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table inventory_transactions (
+    quantity integer not null,
+    total_cost decimal(19,2),
+    unit_cost decimal(19,2),
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    reference_id bigint,
+    transaction_date datetime(6) not null,
+    updated_at datetime(6),
+    notes varchar(255),
+    reference_type varchar(255),
+    transaction_type varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items (
+    discount_amount decimal(19,2),
+    quantity integer not null,
+    total_price decimal(19,2),
+    unit_price decimal(19,2) not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    order_id bigint not null,
+    product_id bigint not null,
+    updated_at datetime(6),
+    notes varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    discount_amount decimal(19,2),
+    paid_amount decimal(19,2),
+    shipping_fee decimal(19,2),
+    tax_amount decimal(19,2),
+    total_amount decimal(19,2),
+    created_at datetime(6) not null,
+    created_by bigint,
+    customer_id bigint not null,
+    delivery_date datetime(6),
+    id bigint not null auto_increment,
+    order_date datetime(6) not null,
+    updated_at datetime(6),
+    updated_by bigint,
+    notes varchar(255),
+    order_number varchar(255) not null,
+    payment_method varchar(255),
+    payment_status varchar(255),
+    shipping_address varchar(255),
+    status enum ('CANCELLED','CONFIRMED','DELIVERED','PENDING','PROCESSING','REFUNDED','SHIPPED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_events (
+    attempts integer not null,
+    aggregate_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    published_at datetime(6),
+    event_type varchar(20) not null,
+    aggregate_type varchar(50) not null,
+    last_error varchar(1000),
+    payload TEXT,
+    status enum ('FAILED','PENDING','PUBLISHED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table product_valuations (
+    average_cost decimal(19,4) not null,
+    fifo_value decimal(19,2) not null,
+    quantity_on_hand integer not null,
+    total_value decimal(19,2) not null,
+    last_transaction_id bigint,
+    product_id bigint not null,
+    updated_at datetime(6),
+    primary key (product_id)
+) engine=InnoDB;
+
+create table products (
+    cost_price decimal(19,2),
+    is_taxable bit,
+    is_track_inventory bit,
+    max_stock_level integer,
+    min_stock_level integer,
+    price decimal(19,2) not null,
+    sale_price decimal(19,2),
+    tax_rate decimal(5,2),
+    weight decimal(38,2),
+    category_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    barcode varchar(255),
+    description varchar(255),
+    dimensions varchar(255),
+    image_url varchar(255),
+    name varchar(255) not null,
+    sku varchar(255) not null,
+    status enum ('ACTIVE','DISCONTINUED','INACTIVE','OUT_OF_STOCK') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table stock_take_counts (
+    counted_quantity integer not null,
+    expected_quantity integer,
+    variance integer,
+    variance_value decimal(19,2),
+    counted_at datetime(6) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    stock_take_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table stock_takes (
+    counted_items integer,
+    net_variance_value decimal(19,2),
+    variance_items integer,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    net_variance_quantity bigint,
+    reconciled_at datetime(6),
+    updated_at datetime(6),
+    notes varchar(255),
+    status enum ('CANCELLED','OPEN','RECONCILED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    is_active bit,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    email varchar(255) not null,
+    full_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    username varchar(255) not null,
+    role enum ('ADMIN','MANAGER','STAFF','USER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table valuation_entries (
+    average_cost_amount decimal(19,2) not null,
+    fifo_cost_amount decimal(19,2) not null,
+    quantity integer not null,
+    entry_date datetime(6) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    transaction_id bigint not null,
+    transaction_type varchar(20) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_cost_layers_product_open
+    on cost_layers (product_id, remaining_quantity);
+
+create index idx_credit_entries_customer
+    on customer_credit_entries (customer_id, id);
+
+create index idx_credit_entries_order
+    on customer_credit_entries (order_id);
+
+alter table customers
+    add constraint UKiqv746oh5t5is1vr4p2nl79r6 unique (customer_code);
+
+alter table customers
+    add constraint UKrfbvkrffamfql7cjmen8v976v unique (email);
+
+create index idx_inventory_transactions_reference
+    on inventory_transactions (reference_type, reference_id);
+
+create index idx_orders_updated_at
+    on orders (updated_at);
+
+alter table orders
+    add constraint UKnthkiu7pgmnqnu86i2jyoe2v7 unique (order_number);
+
+create index idx_outbox_status_id
+    on outbox_events (status, id);
+
+create index idx_outbox_aggregate
+    on outbox_events (aggregate_type, aggregate_id);
+
+alter table products
+    add constraint UKfhmd06dsmj6k0n90swsh8ie9g unique (sku);
+
+alter table stock_take_counts
+    add constraint uk_stock_take_counts_product unique (stock_take_id, product_id);
+
+alter table users
+    add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users
+    add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+create index idx_valuation_entries_date_type
+    on valuation_entries (entry_date, transaction_type);
+
+alter table valuation_entries
+    add constraint uk_valuation_entries_transaction unique (transaction_id);
+
+alter table categories
+    add constraint FKsaok720gsu4u2wrgbk10b5n8d
+    foreign key (parent_id)
+    references categories (id);
+
+alter table inventory_transactions
+    add constraint FKrm9aaxuvvmp9ehvxwe936ar04
+    foreign key (product_id)
+    references products (id);
+
+alter table order_items
+    add constraint FKbioxgbv59vetrxe0ejfubep1w
+    foreign key (order_id)
+    references orders (id);
+
+alter table order_items
+    add constraint FKocimc7dtr037rh4ls4l95nlfi
+    foreign key (product_id)
+    references products (id);
+
+alter table orders
+    add constraint FKtjwuphstqm46uffgc7l1r27a9
+    foreign key (created_by)
+    references users (id);
+
+alter table orders
+    add constraint FKpxtb8awmi0dk6smoh2vp1litg
+    foreign key (customer_id)
+    references customers (id);
+
+alter table orders
+    add constraint FKlp4lgmbltaqb2no1dqdceogto
+    foreign key (updated_by)
+    references users (id);
+
+alter table products
+    add constraint FKog2rp4qthbtt2lfyhfo32lsw9
+    foreign key (category_id)
+    references categories (id);
@@ -0,0 +1,34 @@
+-- Indexes for the hot filters of order, ledger and catalog queries. Each is checked by
+-- HotQueryExplainTest against the query that needs it.
+--
+-- MySQL drops the index it created implicitly for a foreign key once an explicit index with the same
+-- leading column exists, so the composites below replace the plain customer_id, product_id and
+-- category_id foreign-key indexes instead of adding to them.
+
+-- Date-range order reports, bestseller catch-up and dashboards
+create index idx_orders_order_date
+    on orders (order_date);
+
+-- Status counts and status lists within a period
+create index idx_orders_status_order_date
+    on orders (status, order_date);
+
+-- Customer order history, newest first
+create index idx_orders_customer_order_date
+    on orders (customer_id, order_date);
+
+-- Per-product stock sums read only this index (covering); also serves ledger reads per product
+create index idx_inventory_transactions_product_type
+    on inventory_transactions (product_id, transaction_type, quantity);
+
+-- Ledger exports and date-range inventory reports
+create index idx_inventory_transactions_date
+    on inventory_transactions (transaction_date);
+
+-- Barcode scans at the till
+create index idx_products_barcode
+    on products (barcode);
+
+-- Category listings filtered by status
+create index idx_products_category_status
+    on products (category_id, status);
@@ -0,0 +1,18 @@
+-- Periodic per-product stock checkpoints for point-in-time stock queries
+
+create table stock_checkpoints (
+    quantity integer not null,
+    checkpoint_at datetime(6) not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Also serves the nearest-checkpoint lookup (latest checkpoint_at at or before a point in time)
+alter table stock_checkpoints
+   add constraint uk_stock_checkpoints_product_at unique (product_id, checkpoint_at);
+
+-- Ledger tail after a checkpoint: one product's rows in a date range, read from the index alone
+create index idx_inventory_transactions_product_date
+    on inventory_transactions (product_id, transaction_date, transaction_type, quantity);
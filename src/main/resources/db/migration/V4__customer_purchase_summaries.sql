@@ -0,0 +1,21 @@
+-- One row per customer with its purchase totals, maintained by CustomerPurchaseSummaryService
+
+create table customer_purchase_summaries (
+    average_basket decimal(19,2) not null,
+    lifetime_value decimal(19,2) not null,
+    order_count integer not null,
+    customer_id bigint not null,
+    first_purchase_at datetime(6),
+    last_purchase_at datetime(6),
+    updated_at datetime(6) not null,
+    top_category_ids varchar(100),
+    primary key (customer_id)
+) engine=InnoDB;
+
+-- Segments by value, and the default highest-value-first ordering
+create index idx_customer_summaries_lifetime_value
+    on customer_purchase_summaries (lifetime_value);
+
+-- Lapsed and recently active customer segments
+create index idx_customer_summaries_last_purchase
+    on customer_purchase_summaries (last_purchase_at);
@@ -0,0 +1,31 @@
+-- Reversible bulk price changes, applied by BulkPricingService
+
+create table price_change_batches (
+    change_value decimal(19,4) not null,
+    conflict_count integer,
+    product_count integer,
+    reverted_count integer,
+    applied_at datetime(6),
+    category_id bigint not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    reverted_at datetime(6),
+    notes varchar(255),
+    field enum ('PRICE','SALE_PRICE','TAX_RATE') not null,
+    mode enum ('AMOUNT','PERCENT','SET') not null,
+    status enum ('APPLIED','APPLYING','FAILED','REVERTED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table price_change_entries (
+    new_value decimal(19,2),
+    old_value decimal(19,2),
+    batch_id bigint not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- One entry per product and batch; also serves the per-chunk joins on (batch_id, product_id)
+alter table price_change_entries
+   add constraint uk_price_change_entries_product unique (batch_id, product_id);
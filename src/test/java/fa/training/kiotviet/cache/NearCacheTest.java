@@ -0,0 +1,97 @@
+package fa.training.kiotviet.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.ProductSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NearCacheTest {
+
+    private final InMemorySharedCacheStore sharedStore = new InMemorySharedCacheStore();
+
+    private NearCache newNode() {
+        return new NearCache(sharedStore, new ObjectMapper(), new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofSeconds(2));
+    }
+
+    private static ProductSummaryDto product(String name) {
+        return ProductSummaryDto.builder().id(1L).name(name).build();
+    }
+
+    @Test
+    void evictionOnOneNodeClearsLocalCopiesOnOthers() {
+        NearCache nodeA = newNode();
+        NearCache nodeB = newNode();
+
+        assertEquals("v1", nodeA.get("product:1", ProductSummaryDto.class, () -> product("v1")).getName());
+        assertEquals("v1", nodeB.get("product:1", ProductSummaryDto.class, () -> product("unused")).getName());
+
+        nodeA.evict("product:1");
+
+        assertEquals("v2", nodeB.get("product:1", ProductSummaryDto.class, () -> product("v2")).getName());
+        assertEquals("v2", nodeA.get("product:1", ProductSummaryDto.class, () -> product("v3")).getName());
+    }
+
+    @Test
+    void concurrentMissesAcrossNodesLoadOnce() throws Exception {
+        List<NearCache> nodes = List.of(newNode(), newNode(), newNode());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<ProductSummaryDto>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                NearCache node = nodes.get(i % nodes.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return node.get("product:1", ProductSummaryDto.class, () -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        return product("loaded");
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ProductSummaryDto> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS).getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loadRacingWithEvictionIsNotPublishedToSharedStore() {
+        NearCache nodeA = newNode();
+        NearCache nodeB = newNode();
+
+        ProductSummaryDto stale = nodeA.get("product:1", ProductSummaryDto.class, () -> {
+            nodeB.evict("product:1");
+            return product("stale");
+        });
+        assertEquals("stale", stale.getName());
+
+        assertEquals("fresh", nodeB.get("product:1", ProductSummaryDto.class, () -> product("fresh")).getName());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
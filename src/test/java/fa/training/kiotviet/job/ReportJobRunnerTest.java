@@ -0,0 +1,149 @@
+package fa.training.kiotviet.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.dto.ReportJobDto;
+import fa.training.kiotviet.dto.ReportJobRequest;
+import fa.training.kiotviet.dto.RevenueReportDto;
+import fa.training.kiotviet.enums.ReportJobStatus;
+import fa.training.kiotviet.enums.ReportType;
+import fa.training.kiotviet.exception.ResourceNotFoundException;
+import fa.training.kiotviet.repository.InventoryTransactionRepository;
+import fa.training.kiotviet.service.InventoryValuationService;
+import fa.training.kiotviet.service.RevenueReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReportJobRunnerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final RevenueReportService revenueReportService = mock(RevenueReportService.class);
+    private final InventoryTransactionRepository transactionRepository = mock(InventoryTransactionRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ReportJobRunner runner = new ReportJobRunner(revenueReportService,
+            mock(InventoryValuationService.class), transactionRepository, mock(PlatformTransactionManager.class),
+            objectMapper, 4, 10, Duration.ofMinutes(10), 2, 1000);
+
+    @AfterEach
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Test
+    void identicalRequestsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        when(revenueReportService.getRevenue(any(), any(), any())).thenAnswer(invocation -> {
+            computations.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return RevenueReportDto.builder().orders(3).build();
+        });
+
+        ReportJobDto first = runner.submit(revenue(FROM.plusDays(30)));
+        ReportJobDto joined = runner.submit(revenue(FROM.plusDays(30)));
+        release.countDown();
+        awaitStatus(first.getId(), ReportJobStatus.SUCCEEDED);
+        ReportJobDto reused = runner.submit(revenue(FROM.plusDays(30)));
+
+        assertEquals(first.getId(), joined.getId());
+        assertEquals(first.getId(), reused.getId());
+        assertEquals(1, computations.get());
+        assertEquals(3, ((RevenueReportDto) runner.getResult(first.getId())).getOrders());
+    }
+
+    @Test
+    void jobsOverTheTypeLimitWaitAndCanBeCancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(revenueReportService.getRevenue(any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return RevenueReportDto.builder().build();
+        });
+
+        ReportJobDto first = runner.submit(revenue(FROM.plusDays(1)));
+        ReportJobDto second = runner.submit(revenue(FROM.plusDays(2)));
+        ReportJobDto third = runner.submit(revenue(FROM.plusDays(3)));
+        awaitStatus(first.getId(), ReportJobStatus.RUNNING);
+        awaitStatus(second.getId(), ReportJobStatus.RUNNING);
+
+        assertEquals(2, ReportType.REVENUE.getMaxConcurrent());
+        assertEquals(ReportJobStatus.QUEUED, runner.getJob(third.getId()).getStatus());
+        assertEquals(ReportJobStatus.CANCELLED, runner.cancel(third.getId()).getStatus());
+
+        release.countDown();
+        awaitStatus(first.getId(), ReportJobStatus.SUCCEEDED);
+        awaitStatus(second.getId(), ReportJobStatus.SUCCEEDED);
+        assertEquals(ReportJobStatus.CANCELLED, runner.getJob(third.getId()).getStatus());
+        assertNotEquals(third.getId(), runner.submit(revenue(FROM.plusDays(3))).getId());
+    }
+
+    @Test
+    void newResultsEvictTheOldestBeyondTheLimit() throws Exception {
+        when(revenueReportService.getRevenue(any(), any(), any())).thenReturn(RevenueReportDto.builder().build());
+
+        ReportJobDto first = runner.submit(revenue(FROM.plusDays(1)));
+        awaitStatus(first.getId(), ReportJobStatus.SUCCEEDED);
+        ReportJobDto second = runner.submit(revenue(FROM.plusDays(2)));
+        awaitStatus(second.getId(), ReportJobStatus.SUCCEEDED);
+        ReportJobDto third = runner.submit(revenue(FROM.plusDays(3)));
+        awaitStatus(third.getId(), ReportJobStatus.SUCCEEDED);
+        // The result is retained right after the job reports success
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertThrows(ResourceNotFoundException.class, () -> runner.getJob(first.getId()));
+        assertEquals(ReportJobStatus.SUCCEEDED, runner.getJob(second.getId()).getStatus());
+        assertNotEquals(first.getId(), runner.submit(revenue(FROM.plusDays(1))).getId());
+    }
+
+    @Test
+    void ledgerExportIsKeptInAFileDeletedWithItsJob() throws Exception {
+        when(transactionRepository.countLedgerRows(any(), any(), any())).thenReturn(2L);
+        when(transactionRepository.streamLedgerRows(any(), any(), any())).thenReturn(Stream.of(
+                new LedgerRow(1L, 7L, "IN", 5, BigDecimal.TEN, FROM),
+                new LedgerRow(2L, 7L, "OUT", 2, null, FROM.plusHours(1))));
+
+        ReportJobDto job = runner.submit(new ReportJobRequest(ReportType.LEDGER, FROM, FROM.plusDays(1), 7L));
+        awaitStatus(job.getId(), ReportJobStatus.SUCCEEDED);
+
+        ReportFile file = (ReportFile) runner.getResult(job.getId());
+        assertEquals(2, file.count());
+        JsonNode rows = objectMapper.readTree(file.path().toFile());
+        assertEquals(2, rows.size());
+        assertEquals("OUT", rows.get(1).get("transactionType").asText());
+
+        runner.shutdown();
+        assertFalse(Files.exists(file.path()));
+    }
+
+    private static ReportJobRequest revenue(LocalDateTime to) {
+        return new ReportJobRequest(ReportType.REVENUE, FROM, to, null);
+    }
+
+    private void awaitStatus(String id, ReportJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runner.getJob(id).getStatus() != status && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(runner.getJob(id).getStatus() == status, "Job " + id + " did not reach " + status);
+    }
+}
@@ -0,0 +1,73 @@
+package fa.training.kiotviet.limiter;
+
+import fa.training.kiotviet.enums.EndpointClass;
+import fa.training.kiotviet.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    // A global budget of 6 with 5 reserved for checkout leaves REPORT a single slot
+    private final ConcurrencyLimiterRegistry registry = new ConcurrencyLimiterRegistry(new SimpleMeterRegistry(), 6, 5);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamingController(release))
+            .addInterceptors(new ConcurrencyLimitInterceptor(registry))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void streamKeepsItsSlotUntilTheResponseCompletes() throws Exception {
+        MvcResult streaming = mockMvc.perform(get("/export")).andExpect(request().asyncStarted()).andReturn();
+        assertEquals(1, inFlight());
+
+        mockMvc.perform(get("/export")).andExpect(status().isServiceUnavailable());
+
+        release.countDown();
+        streaming.getAsyncResult(TimeUnit.SECONDS.toMillis(5));
+        mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+        assertEquals(0, inFlight());
+        assertEquals(0, registry.getGlobalInFlight());
+    }
+
+    private int inFlight() {
+        return registry.getLimiters().get(EndpointClass.REPORT).getInFlight().get();
+    }
+
+    @RestController
+    static class StreamingController {
+
+        private final CountDownLatch release;
+
+        StreamingController(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @GetMapping("/export")
+        @ConcurrencyLimited(EndpointClass.REPORT)
+        public StreamingResponseBody export() {
+            return out -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write('x');
+            };
+        }
+    }
+}
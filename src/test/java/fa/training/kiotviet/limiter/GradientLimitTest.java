@@ -0,0 +1,72 @@
+package fa.training.kiotviet.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradientLimitTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void growsWhileLatencyStaysAtBaseline() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+
+        samples(limit, BASELINE, 20, 10);
+
+        assertTrue(limit.getLimit() > 20, "limit should grow, was " + limit.getLimit());
+        assertEquals(10.0, limit.getShortRttMillis(), 1e-9);
+        assertEquals(10.0, limit.getLongRttMillis(), 1e-9);
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        GradientLimit limit = new GradientLimit(20, 1, 25);
+
+        samples(limit, BASELINE, 25, 100);
+
+        assertEquals(25, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveBaseline() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+        samples(limit, BASELINE, 50, 1);
+
+        samples(limit, BASELINE * 10, 50, 20);
+
+        assertTrue(limit.getLimit() < 50, "limit should shrink, was " + limit.getLimit());
+        assertTrue(limit.getShortRttMillis() > limit.getLongRttMillis() * 1.5);
+    }
+
+    @Test
+    void dropCutsTheLimitByATenthDownToTheMinimum() {
+        GradientLimit limit = new GradientLimit(50, 44, 100);
+
+        limit.onSample(BASELINE, 50, true);
+        assertEquals(45, limit.getLimit());
+
+        limit.onSample(BASELINE, 50, true);
+        assertEquals(44, limit.getLimit());
+        // A drop does not feed the latency averages
+        assertEquals(0.0, limit.getLongRttMillis());
+    }
+
+    @Test
+    void doesNotGrowALimitTheTrafficIsNotUsing() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+
+        samples(limit, BASELINE, 9, 50);
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    private static void samples(GradientLimit limit, long rttNanos, int inFlight, int count) {
+        for (int i = 0; i < count; i++) {
+            limit.onSample(rttNanos, inFlight, false);
+        }
+    }
+}
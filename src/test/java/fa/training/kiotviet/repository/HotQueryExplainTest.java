@@ -0,0 +1,284 @@
+package fa.training.kiotviet.repository;
+
+import fa.training.kiotviet.enums.OrderStatus;
+import fa.training.kiotviet.enums.ProductStatus;
+import fa.training.kiotviet.loadtest.SyntheticDataGenerator;
+import fa.training.kiotviet.service.StockHistoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Calls the hot repository queries, captures the SQL and bound values they send to MySQL, and fails when
+ * EXPLAIN shows that MySQL would read a whole table or a whole index for them.
+ * <p>
+ * Runs against the dedicated schema of the {@code test} profile, never the development database. If it
+ * holds fewer than {@link #MIN_ORDERS} orders, it is seeded first with the load-test generator at small
+ * volumes, and tables are analyzed so the optimizer sees realistic statistics.
+ */
+@SpringBootTest(properties = {
+        "app.loadtest.mode=none",
+        "app.loadtest.exit-when-done=false",
+        "app.loadtest.generate.categories=20",
+        "app.loadtest.generate.products=5000",
+        "app.loadtest.generate.customers=5000",
+        "app.loadtest.generate.orders=50000",
+        "app.loadtest.generate.days=180"
+})
+@ActiveProfiles({"loadtest", "test"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HotQueryExplainTest {
+
+    private static final long MIN_ORDERS = 20_000;
+    private static final List<String> FULL_SCAN_TYPES = List.of("ALL", "index");
+
+    /**
+     * Values that make the queries selective in the way production calls are.
+     */
+    private record Samples(LocalDateTime day, long customerId, long productId, long categoryId, String barcode,
+                           String referenceType, long referenceId) {
+    }
+
+    /**
+     * A hot query, issued by {@code call}, whose statements reading {@code table} must use an index for it.
+     */
+    private record HotQuery(String name, String table, Consumer<Samples> call) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private record CapturedStatement(String sql, List<Object> parameters) {
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    /**
+     * Wraps the data source so that every statement executed while {@link #capture} runs is recorded with
+     * the values bound to it.
+     */
+    static class StatementCapture implements BeanPostProcessor {
+
+        private final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+        private volatile boolean capturing;
+
+        List<CapturedStatement> capture(Runnable action) {
+            captured.clear();
+            capturing = true;
+            try {
+                action.run();
+            } finally {
+                capturing = false;
+            }
+            return List.copyOf(captured);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource, (method, args, result) ->
+                        result instanceof Connection connection ? wrapConnection(connection) : result);
+            }
+            return bean;
+        }
+
+        private Connection wrapConnection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+                            ? wrapStatement(statement, (String) args[0]) : result);
+        }
+
+        private PreparedStatement wrapStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0) && capturing) {
+                    captured.add(new CapturedStatement(sql, new ArrayList<>(parameters.values())));
+                }
+                return result;
+            });
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        return afterCall.apply(method, args, result);
+                    }));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Samples samples;
+
+    @BeforeAll
+    void seed() {
+        Long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        if (orders == null || orders < MIN_ORDERS) {
+            generator.generate();
+        }
+        jdbcTemplate.execute("ANALYZE TABLE orders, inventory_transactions, products, customers, stock_checkpoints");
+
+        LocalDateTime latest = jdbcTemplate.queryForObject("SELECT MAX(order_date) FROM orders", LocalDateTime.class);
+        Map<String, Object> reference = jdbcTemplate.queryForMap("SELECT reference_type, reference_id " +
+                "FROM inventory_transactions WHERE reference_id IS NOT NULL ORDER BY id LIMIT 1");
+        samples = new Samples(
+                latest.toLocalDate().atStartOfDay(),
+                jdbcTemplate.queryForObject("SELECT customer_id FROM orders ORDER BY id LIMIT 1", Long.class),
+                jdbcTemplate.queryForObject("SELECT product_id FROM inventory_transactions ORDER BY id LIMIT 1", Long.class),
+                jdbcTemplate.queryForObject("SELECT category_id FROM products ORDER BY id LIMIT 1", Long.class),
+                jdbcTemplate.queryForObject("SELECT barcode FROM products WHERE barcode IS NOT NULL " +
+                        "ORDER BY id LIMIT 1", String.class),
+                (String) reference.get("reference_type"),
+                ((Number) reference.get("reference_id")).longValue());
+    }
+
+    Stream<HotQuery> hotQueries() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return Stream.of(
+                new HotQuery("OrderRepository.findByDateRange", "orders",
+                        s -> orderRepository.findByDateRange(s.day(), s.day().plusDays(1))),
+                new HotQuery("OrderRepository.countByStatus", "orders",
+                        s -> orderRepository.countByStatus(OrderStatus.PENDING)),
+                new HotQuery("OrderRepository.findByCustomerId", "orders",
+                        s -> orderRepository.findByCustomerId(s.customerId())),
+                new HotQuery("InventoryTransactionRepository.getCurrentStock", "inventory_transactions",
+                        s -> inventoryTransactionRepository.getCurrentStock(s.productId())),
+                new HotQuery("InventoryTransactionRepository.findLedgerRows", "inventory_transactions",
+                        s -> inventoryTransactionRepository.findLedgerRows(s.productId())),
+                new HotQuery("InventoryTransactionRepository.streamLedgerRows", "inventory_transactions",
+                        s -> readOnly.executeWithoutResult(status -> {
+                            try (Stream<?> rows = inventoryTransactionRepository.streamLedgerRows(null, s.day(),
+                                    s.day().plusDays(1))) {
+                                rows.findFirst();
+                            }
+                        })),
+                new HotQuery("InventoryTransactionRepository.findLedgerRowsByReference", "inventory_transactions",
+                        s -> inventoryTransactionRepository.findLedgerRowsByReference(s.referenceType(),
+                                s.referenceId())),
+                new HotQuery("StockHistoryService.getStockAsOf", "inventory_transactions",
+                        s -> stockHistoryService.getStockAsOf(s.productId(), s.day())),
+                new HotQuery("ProductRepository.existsByBarcode", "products",
+                        s -> productRepository.existsByBarcode(s.barcode())),
+                new HotQuery("ProductRepository.streamSummaries", "products",
+                        s -> readOnly.executeWithoutResult(status -> {
+                            try (Stream<?> rows = productRepository.streamSummaries(s.categoryId(),
+                                    ProductStatus.ACTIVE)) {
+                                rows.findFirst();
+                            }
+                        })),
+                new HotQuery("ProductRepository.countByCategory", "products",
+                        s -> productRepository.countByCategory(s.categoryId()))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesAnIndex(HotQuery query) {
+        List<CapturedStatement> statements = statementCapture.capture(() -> query.call().accept(samples));
+        List<CapturedStatement> reading = statements.stream()
+                .filter(statement -> aliasOf(statement.sql(), query.table()).isPresent())
+                .toList();
+        assertFalse(reading.isEmpty(), query.name() + " issued no statement reading " + query.table()
+                + ": " + statements);
+
+        for (CapturedStatement statement : reading) {
+            String alias = aliasOf(statement.sql(), query.table()).orElseThrow();
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.sql(),
+                    statement.parameters().toArray());
+            List<Map<String, Object>> rows = plan.stream()
+                    .filter(row -> alias.equals(row.get("table")))
+                    .toList();
+            assertFalse(rows.isEmpty(), "No plan row for " + alias + " in " + statement.sql() + ": " + plan);
+            for (Map<String, Object> row : rows) {
+                if (FULL_SCAN_TYPES.contains(String.valueOf(row.get("type")))) {
+                    fail(query.name() + " scans all of " + query.table() + ": " + statement.sql() + " " + row);
+                }
+            }
+        }
+    }
+
+    /**
+     * The alias the statement gives {@code table} in its FROM or JOIN clause, if it reads it at all.
+     */
+    private static Optional<String> aliasOf(String sql, String table) {
+        Matcher matcher = Pattern.compile("\\b(?:from|join)\\s+" + table + "\\s+(?:as\\s+)?(\\w+)",
+                Pattern.CASE_INSENSITIVE).matcher(sql);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+}
@@ -0,0 +1,106 @@
+package fa.training.kiotviet.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fa.training.kiotviet.dto.BestsellerItemRow;
+import fa.training.kiotviet.enums.BestsellerWindow;
+import fa.training.kiotviet.search.SpaceSavingSketch.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static fa.training.kiotviet.search.BestsellerTracker.ALL_SCOPE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BestsellerTrackerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+    private static final long CATEGORY = 5;
+
+    private final BestsellerTracker tracker = new BestsellerTracker(10, 10, 10);
+
+    private static List<BestsellerItemRow> lines(long productId, int quantity) {
+        return List.of(new BestsellerItemRow(null, null, productId, CATEGORY, quantity));
+    }
+
+    private List<Counter> top(BestsellerTracker from, BestsellerWindow window, long scope) {
+        return from.top(window, scope, 10);
+    }
+
+    @Test
+    void ordersFallIntoTheWindowsCoveringTheirDate() {
+        tracker.record(1, NOW.minusMinutes(1), lines(10, 3), NOW);
+        tracker.record(2, NOW.minusHours(2), lines(11, 5), NOW);
+        tracker.record(3, NOW.minusDays(3), lines(12, 7), NOW);
+
+        tracker.refresh(NOW);
+
+        assertEquals(List.of(new Counter(10, 3, 0)), top(tracker, BestsellerWindow.LAST_HOUR, ALL_SCOPE));
+        assertEquals(List.of(new Counter(11, 5, 0), new Counter(10, 3, 0)),
+                top(tracker, BestsellerWindow.TODAY, ALL_SCOPE));
+        assertEquals(List.of(new Counter(12, 7, 0), new Counter(11, 5, 0), new Counter(10, 3, 0)),
+                top(tracker, BestsellerWindow.LAST_7_DAYS, CATEGORY));
+    }
+
+    @Test
+    void bucketsLeaveTheirWindowsAsTheRingsRollOver() {
+        tracker.record(1, NOW, lines(10, 3), NOW);
+
+        tracker.refresh(NOW.plusHours(1));
+        assertTrue(top(tracker, BestsellerWindow.LAST_HOUR, ALL_SCOPE).isEmpty());
+        assertEquals(1, top(tracker, BestsellerWindow.TODAY, ALL_SCOPE).size());
+
+        tracker.refresh(NOW.plusDays(1));
+        assertTrue(top(tracker, BestsellerWindow.TODAY, ALL_SCOPE).isEmpty());
+        assertEquals(1, top(tracker, BestsellerWindow.LAST_7_DAYS, ALL_SCOPE).size());
+
+        tracker.refresh(NOW.plusDays(7));
+        assertTrue(top(tracker, BestsellerWindow.LAST_7_DAYS, ALL_SCOPE).isEmpty());
+    }
+
+    @Test
+    void reusedRingSlotStartsEmpty() {
+        tracker.record(1, NOW, lines(10, 3), NOW);
+        LocalDateTime later = NOW.plusHours(1);
+        // Twelve five-minute slots: an hour later the same slot is reused
+        tracker.record(2, later, lines(11, 2), later);
+
+        tracker.refresh(later);
+
+        assertEquals(List.of(new Counter(11, 2, 0)), top(tracker, BestsellerWindow.LAST_HOUR, ALL_SCOPE));
+    }
+
+    @Test
+    void ordersAreCountedOnceAndOnlyWithinTheDedupeHorizon() {
+        assertTrue(tracker.record(1, NOW, lines(10, 3), NOW));
+        assertFalse(tracker.record(1, NOW, lines(10, 3), NOW));
+        assertFalse(tracker.record(2, NOW.minusDays(8), lines(10, 3), NOW));
+
+        tracker.refresh(NOW);
+
+        assertEquals(List.of(new Counter(10, 3, 0)), top(tracker, BestsellerWindow.LAST_HOUR, ALL_SCOPE));
+    }
+
+    @Test
+    void exportedStateRestoresRankingsAndCountedOrders() throws Exception {
+        tracker.record(1, NOW.minusMinutes(1), lines(10, 3), NOW);
+        tracker.record(2, NOW.minusDays(2), lines(11, 4), NOW);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String payload = objectMapper.writeValueAsString(tracker.exportState());
+
+        BestsellerTracker restored = new BestsellerTracker(10, 10, 10);
+        restored.restoreState(objectMapper.readValue(payload, BestsellerTracker.State.class));
+        restored.refresh(NOW);
+        tracker.refresh(NOW);
+
+        for (BestsellerWindow window : BestsellerWindow.values()) {
+            assertEquals(top(tracker, window, ALL_SCOPE),
+                    top(restored, window, ALL_SCOPE));
+            assertEquals(top(tracker, window, CATEGORY), top(restored, window, CATEGORY));
+        }
+        assertFalse(restored.record(2, NOW.minusDays(2), lines(11, 4), NOW));
+        assertTrue(restored.record(3, NOW, lines(11, 4), NOW));
+    }
+}
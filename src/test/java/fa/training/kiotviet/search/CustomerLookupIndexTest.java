@@ -0,0 +1,65 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.dto.CustomerLookupRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerLookupIndexTest {
+
+    private final CustomerLookupIndex index = new CustomerLookupIndex();
+
+    @BeforeEach
+    void load() {
+        index.load(List.of(
+                new CustomerLookupRow(1L, "Nguyễn Văn Đạt", "0901234567", true),
+                new CustomerLookupRow(2L, "Trần Thị Hòa", "+84 912 345 678", true),
+                new CustomerLookupRow(3L, "Nguyễn Thị Hoa", "0912999888", true),
+                new CustomerLookupRow(4L, "Lê Văn Nam", "0933111222", false)));
+        index.markReady();
+    }
+
+    @Test
+    void findsCustomersByPhonePrefix() {
+        assertEquals(List.of(2L, 3L), index.search("0912", 10));
+        assertEquals(List.of(2L, 3L), index.search("912", 10));
+        assertEquals(List.of(1L), index.search("+84 90", 10));
+        assertTrue(index.search("0933", 10).isEmpty());
+    }
+
+    @Test
+    void findsCustomersByFoldedNameTokens() {
+        assertEquals(List.of(1L, 3L), index.search("nguyen", 10));
+        assertEquals(List.of(3L), index.search("Nguyễn hoa", 10));
+        assertEquals(List.of(2L, 3L), index.search("ho", 10));
+        assertEquals(List.of(1L), index.search("dat ng", 10));
+        assertEquals(List.of(1L), index.search("nguyen", 1));
+    }
+
+    @Test
+    void updatesAndRemovalsHideOlderEntries() {
+        index.upsert(new CustomerLookupRow(1L, "Phạm Đạt", "0977000111", true));
+        index.remove(2L);
+
+        assertEquals(List.of(3L), index.search("nguyen", 10));
+        assertEquals(List.of(1L), index.search("pham", 10));
+        assertEquals(List.of(1L), index.search("0977", 10));
+        assertTrue(index.search("0901", 10).isEmpty());
+        assertEquals(List.of(3L), index.search("0912", 10));
+    }
+
+    @Test
+    void loadSkipsCustomersAlreadyIndexedByChangeEvents() {
+        index.load(List.of(new CustomerLookupRow(3L, "Nguyễn Thị Hoa", "0912999888", true)));
+        index.upsert(new CustomerLookupRow(5L, "Võ Minh Khôi", "0944000555", true));
+        index.load(List.of(new CustomerLookupRow(5L, "Old Name", "0944000000", true)));
+
+        assertEquals(List.of(5L), index.search("khoi", 10));
+        assertTrue(index.search("old", 10).isEmpty());
+        assertEquals(List.of(3L), index.search("hoa nguyen", 10));
+    }
+}
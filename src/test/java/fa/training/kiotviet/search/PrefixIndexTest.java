@@ -0,0 +1,67 @@
+package fa.training.kiotviet.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex();
+
+    private List<String> scan(String prefix) {
+        List<String> hits = new ArrayList<>();
+        index.scan(prefix, (key, id, generation) -> hits.add(key + "#" + id + "@" + generation));
+        return hits;
+    }
+
+    @Test
+    void scansMatchingKeysInOrderAcrossBaseAndDelta() {
+        index.add("0912000002", 2, 1);
+        index.add("0903000001", 1, 1);
+        index.add("0912000005", 5, 1);
+        index.compact((id, generation) -> true);
+        index.add("0912000003", 3, 1);
+        index.add("0988000004", 4, 1);
+
+        assertEquals(List.of("0912000002#2@1", "0912000003#3@1", "0912000005#5@1"), scan("0912"));
+        assertEquals(5, scan("09").size());
+        assertTrue(scan("0977").isEmpty());
+        assertEquals(5, index.size());
+        assertEquals(2, index.deltaSize());
+    }
+
+    @Test
+    void visitorCanStopTheScan() {
+        index.add("an", 1, 1);
+        index.add("anh", 2, 1);
+        index.add("anna", 3, 1);
+
+        List<Long> ids = new ArrayList<>();
+        index.scan("an", (key, id, generation) -> {
+            ids.add(id);
+            return ids.size() < 2;
+        });
+
+        assertEquals(List.of(1L, 2L), ids);
+    }
+
+    @Test
+    void compactionDropsEntriesOfStaleGenerations() {
+        index.add("hoa", 1, 1);
+        index.add("hoang", 2, 1);
+        index.compact((id, generation) -> true);
+        // Customer 1 renamed: the new generation is added and the old one becomes stale
+        index.add("hung", 1, 2);
+
+        index.compact((id, generation) -> id != 1 || generation == 2);
+
+        assertEquals(List.of("hoang#2@1"), scan("ho"));
+        assertEquals(List.of("hung#1@2"), scan("hu"));
+        assertEquals(2, index.size());
+        assertEquals(0, index.deltaSize());
+    }
+}
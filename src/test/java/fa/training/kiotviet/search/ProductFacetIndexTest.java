@@ -0,0 +1,116 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.dto.ProductFacetQuery;
+import fa.training.kiotviet.dto.ProductFacetResult;
+import fa.training.kiotviet.dto.ProductFacetRow;
+import fa.training.kiotviet.enums.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductFacetIndexTest {
+
+    private final ProductFacetIndex index = new ProductFacetIndex(new long[]{1000, 0, 100});
+
+    @BeforeEach
+    void load() {
+        index.load(List.of(
+                row(1, 1L, ProductStatus.ACTIVE, true, "50"),
+                row(2, 1L, ProductStatus.ACTIVE, false, "150"),
+                row(3, 2L, ProductStatus.INACTIVE, true, "500"),
+                row(4, 2L, ProductStatus.ACTIVE, true, "2000"),
+                row(5, 3L, ProductStatus.ACTIVE, true, "100")));
+        index.markReady();
+    }
+
+    private static ProductFacetRow row(long id, Long categoryId, ProductStatus status, boolean taxable, String price) {
+        return new ProductFacetRow(id, categoryId, status, taxable, new BigDecimal(price));
+    }
+
+    private static ProductFacetQuery.ProductFacetQueryBuilder query() {
+        return ProductFacetQuery.builder().page(0).size(20);
+    }
+
+    @Test
+    void combinesFiltersWithinAndAcrossFacets() {
+        assertEquals(List.of(1L, 4L), index.query(query()
+                .categoryIds(Set.of(1L, 2L))
+                .statuses(Set.of(ProductStatus.ACTIVE))
+                .taxable(true)
+                .build()).getProductIds());
+        assertEquals(List.of(2L, 5L), index.query(query()
+                .statuses(Set.of(ProductStatus.ACTIVE))
+                .minPrice(new BigDecimal("100"))
+                .maxPrice(new BigDecimal("1000"))
+                .build()).getProductIds());
+        assertEquals(List.of(2L, 3L), index.query(query()
+                .minPrice(new BigDecimal("120"))
+                .maxPrice(new BigDecimal("600"))
+                .build()).getProductIds());
+        assertEquals(List.of(2L), index.query(query().taxable(false).build()).getProductIds());
+    }
+
+    @Test
+    void countsEachFacetAgainstTheOtherFacetsFilters() {
+        ProductFacetResult result = index.query(query()
+                .categoryIds(Set.of(1L))
+                .statuses(Set.of(ProductStatus.ACTIVE))
+                .taxable(true)
+                .build());
+
+        assertEquals(1, result.getTotal());
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 1L), result.getCategoryCounts());
+        assertEquals(1L, result.getStatusCounts().get(ProductStatus.ACTIVE));
+        assertEquals(0L, result.getStatusCounts().get(ProductStatus.INACTIVE));
+        assertEquals(Map.of(true, 1L, false, 1L), result.getTaxableCounts());
+    }
+
+    @Test
+    void pricesFallIntoBucketsByLowerBound() {
+        List<ProductFacetResult.PriceBucketCount> buckets = index.query(query().build()).getPriceBucketCounts();
+
+        assertEquals(3, buckets.size());
+        assertEquals(0, new BigDecimal("100").compareTo(buckets.get(1).getFrom()));
+        assertEquals(0, new BigDecimal("1000").compareTo(buckets.get(1).getTo()));
+        assertNull(buckets.get(2).getTo());
+        assertEquals(List.of(1L, 3L, 1L), buckets.stream().map(ProductFacetResult.PriceBucketCount::getCount).toList());
+    }
+
+    @Test
+    void upsertMovesAProductAndRemoveDropsIt() {
+        index.upsert(row(1, 3L, ProductStatus.DISCONTINUED, false, "1500"));
+        index.remove(4L);
+        index.remove(99L);
+
+        ProductFacetResult result = index.query(query().build());
+        assertEquals(4, index.size());
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 2L), result.getCategoryCounts());
+        assertEquals(1L, result.getStatusCounts().get(ProductStatus.DISCONTINUED));
+        assertEquals(List.of(0L, 3L, 1L), result.getPriceBucketCounts().stream()
+                .map(ProductFacetResult.PriceBucketCount::getCount).toList());
+        assertEquals(List.of(1L), index.query(query().categoryIds(Set.of(3L)).taxable(false).build())
+                .getProductIds());
+    }
+
+    @Test
+    void loadKeepsRowsWrittenByChangeEvents() {
+        index.upsert(row(6, 1L, ProductStatus.ACTIVE, true, "10"));
+        index.load(List.of(row(6, 2L, ProductStatus.INACTIVE, false, "10")));
+
+        assertEquals(List.of(1L, 2L, 6L), index.query(query().categoryIds(Set.of(1L)).build()).getProductIds());
+    }
+
+    @Test
+    void pagesThroughMatchesInIdOrder() {
+        assertEquals(List.of(3L, 4L), index.query(query().page(1).size(2).build()).getProductIds());
+        assertEquals(List.of(5L), index.query(query().page(2).size(2).build()).getProductIds());
+        assertEquals(List.of(), index.query(query().page(3).size(2).build()).getProductIds());
+    }
+}
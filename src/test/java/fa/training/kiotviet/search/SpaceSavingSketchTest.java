@@ -0,0 +1,67 @@
+package fa.training.kiotviet.search;
+
+import fa.training.kiotviet.search.SpaceSavingSketch.Counter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsExactlyWhileBelowCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.offer(1, 2);
+        sketch.offer(2, 5);
+        sketch.offer(1, 4);
+
+        assertEquals(List.of(new Counter(1, 6, 0), new Counter(2, 5, 0)), sketch.top(5));
+        assertEquals(List.of(new Counter(1, 6, 0)), sketch.top(1));
+    }
+
+    @Test
+    void newKeyReplacesTheSmallestAndInheritsItsCountAsError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(1, 5);
+        sketch.offer(2, 3);
+
+        sketch.offer(3, 1);
+
+        assertEquals(2, sketch.size());
+        assertEquals(List.of(new Counter(1, 5, 0), new Counter(3, 4, 3)), sketch.top(2));
+    }
+
+    @Test
+    void keyAboveTotalOverCapacityIsKeptWithinItsErrorBound() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        for (long key = 100; key < 120; key++) {
+            sketch.offer(key, 1);
+            if (key % 4 != 3) {
+                sketch.offer(1, 1);
+            }
+        }
+        // Key 1 occurred 15 times out of 35, more than 35 / 3
+
+        Counter heavy = sketch.counters().stream().filter(counter -> counter.key() == 1).findFirst().orElseThrow();
+        assertTrue(heavy.count() >= 15);
+        assertTrue(heavy.count() - heavy.error() <= 15);
+        assertEquals(1, sketch.top(1).get(0).key());
+    }
+
+    @Test
+    void mergeSumsCountsAndErrorsOfSharedKeys() {
+        SpaceSavingSketch first = new SpaceSavingSketch(2);
+        first.offer(1, 4);
+        first.offer(2, 1);
+        first.offer(3, 2);
+        SpaceSavingSketch second = new SpaceSavingSketch(2);
+        second.offer(3, 6);
+        second.offer(1, 1);
+
+        first.merge(second);
+
+        assertEquals(List.of(new Counter(3, 9, 1), new Counter(1, 5, 0)), first.top(2));
+    }
+}
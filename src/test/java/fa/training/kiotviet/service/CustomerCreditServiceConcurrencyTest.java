@@ -0,0 +1,108 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CreditChargeRequest;
+import fa.training.kiotviet.exception.BusinessRuleException;
+import fa.training.kiotviet.model.Customer;
+import fa.training.kiotviet.model.CustomerCreditEntry;
+import fa.training.kiotviet.repository.CustomerCreditEntryRepository;
+import fa.training.kiotviet.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the configured database, like the application context test.
+ */
+@SpringBootTest
+class CustomerCreditServiceConcurrencyTest {
+
+    private static final BigDecimal CREDIT_LIMIT = new BigDecimal("1000.00");
+    private static final BigDecimal CHARGE = new BigDecimal("7.00");
+    private static final int TERMINALS = 16;
+    private static final int CHARGES_PER_TERMINAL = 25;
+
+    @Autowired
+    private CustomerCreditService creditService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerCreditEntryRepository entryRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void createCustomer() {
+        String code = "KH-CREDIT-" + System.nanoTime();
+        customer = customerRepository.save(Customer.builder()
+                .customerCode(code)
+                .name("Credit limit test")
+                .email(code.toLowerCase() + "@test.local")
+                .creditLimit(CREDIT_LIMIT)
+                .currentBalance(BigDecimal.ZERO)
+                .loyaltyPoints(0)
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void deleteCustomer() {
+        List<CustomerCreditEntry> entries = entryRepository
+                .findByCustomerIdOrderByIdDesc(customer.getId(), Pageable.unpaged()).getContent();
+        entryRepository.deleteAll(entries);
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    void concurrentChargesNeverExceedCreditLimit() throws Exception {
+        ExecutorService terminals = Executors.newFixedThreadPool(TERMINALS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TERMINALS; i++) {
+            futures.add(terminals.submit(() -> {
+                start.await();
+                for (int j = 0; j < CHARGES_PER_TERMINAL; j++) {
+                    try {
+                        creditService.charge(customer.getId(), new CreditChargeRequest(null, CHARGE));
+                        accepted.incrementAndGet();
+                    } catch (BusinessRuleException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        terminals.shutdown();
+
+        int maxCharges = CREDIT_LIMIT.divideToIntegralValue(CHARGE).intValue();
+        BigDecimal balance = customerRepository.findById(customer.getId()).orElseThrow().getCurrentBalance();
+        assertEquals(TERMINALS * CHARGES_PER_TERMINAL, accepted.get() + refused.get());
+        assertEquals(maxCharges, accepted.get());
+        assertTrue(balance.compareTo(CREDIT_LIMIT) <= 0, "balance " + balance + " exceeds the credit limit");
+        assertEquals(0, CHARGE.multiply(BigDecimal.valueOf(accepted.get())).compareTo(balance));
+        assertEquals(0, balance.compareTo(entryRepository.sumByCustomerId(customer.getId())));
+    }
+}
@@ -0,0 +1,98 @@
+package fa.training.kiotviet.service;
+
+import fa.training.kiotviet.dto.CustomerSummaryDto;
+import fa.training.kiotviet.dto.GlobalSearchResult;
+import fa.training.kiotviet.dto.GlobalSearchSourceDto;
+import fa.training.kiotviet.enums.SearchSource;
+import fa.training.kiotviet.enums.SearchSourceStatus;
+import fa.training.kiotviet.model.Order;
+import fa.training.kiotviet.model.Product;
+import fa.training.kiotviet.repository.OrderRepository;
+import fa.training.kiotviet.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GlobalSearchServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final CustomerLookupService customerLookupService = mock(CustomerLookupService.class);
+    private final GlobalSearchService service = new GlobalSearchService(productRepository, orderRepository,
+            customerLookupService, mock(PlatformTransactionManager.class), 4, 10, Duration.ofMillis(300), Duration.ofMillis(300), Duration.ofMillis(100));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void slowSourceTimesOutWithoutDelayingTheOthers() throws InterruptedException {
+        when(productRepository.searchProducts(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(150);
+            return new PageImpl<>(List.of(
+                    Product.builder().id(1L).name("Sữa tươi Vinamilk").sku("SUA-01").build(),
+                    Product.builder().id(2L).name("Bánh sữa").sku("SUA").build()));
+        });
+        when(customerLookupService.lookup(anyString(), anyInt())).thenReturn(List.of(
+                CustomerSummaryDto.builder().id(7L).name("Sửa Văn An").customerCode("C007").build()));
+        CountDownLatch orderInterrupted = new CountDownLatch(1);
+        when(orderRepository.searchOrders(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            try {
+                TimeUnit.SECONDS.sleep(2);
+            } catch (InterruptedException e) {
+                orderInterrupted.countDown();
+                throw e;
+            }
+            return new PageImpl<>(List.of(Order.builder().id(9L).orderNumber("SUA").build()));
+        });
+
+        long start = System.nanoTime();
+        GlobalSearchResult result = service.search("sua", 10);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 1000, "search took " + elapsedMs + " ms");
+        assertTrue(result.isPartial());
+        Map<SearchSource, SearchSourceStatus> statuses = result.getSources().stream()
+                .collect(Collectors.toMap(GlobalSearchSourceDto::getSource, GlobalSearchSourceDto::getStatus));
+        assertEquals(SearchSourceStatus.COMPLETED, statuses.get(SearchSource.PRODUCT));
+        assertEquals(SearchSourceStatus.COMPLETED, statuses.get(SearchSource.CUSTOMER));
+        assertEquals(SearchSourceStatus.TIMED_OUT, statuses.get(SearchSource.ORDER));
+        assertTrue(orderInterrupted.await(1, TimeUnit.SECONDS), "timed-out source was not interrupted");
+
+        // Each source reports its own time, not the time until the merge got to it
+        Map<SearchSource, Long> durations = result.getSources().stream()
+                .collect(Collectors.toMap(GlobalSearchSourceDto::getSource, GlobalSearchSourceDto::getDurationMs));
+        assertTrue(durations.get(SearchSource.PRODUCT) >= 150, "product took " + durations);
+        assertTrue(durations.get(SearchSource.CUSTOMER) < 100, "customer took " + durations);
+
+        // Exact SKU match first, then the name prefix matches of both sources, products before customers
+        assertEquals(List.of(2L, 1L, 7L), result.getHits().stream().map(hit -> hit.getId()).toList());
+    }
+
+    @Test
+    void blankQueryRunsNoSource() {
+        GlobalSearchResult result = service.search("  ", 10);
+
+        assertFalse(result.isPartial());
+        assertTrue(result.getHits().isEmpty());
+    }
+}
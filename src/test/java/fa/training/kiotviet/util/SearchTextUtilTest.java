@@ -0,0 +1,53 @@
+package fa.training.kiotviet.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchTextUtilTest {
+
+    @Test
+    void foldsVietnameseDiacriticsAndCase() {
+        assertEquals("nguyen van dat", SearchTextUtil.foldDiacritics("Nguyễn Văn Đạt"));
+        assertEquals("tran thi hoa", SearchTextUtil.foldDiacritics("TRẦN THỊ HÒA"));
+        assertEquals("le duc thuy", SearchTextUtil.foldDiacritics("Lê Đức Thủy"));
+        assertEquals("", SearchTextUtil.foldDiacritics(null));
+    }
+
+    @Test
+    void tokenizesIntoDistinctAsciiWords() {
+        assertArrayEquals(new String[]{"pham", "thi", "ngoc", "anh"},
+                SearchTextUtil.tokenize("  Phạm Thị-Ngọc, Ánh "));
+        assertArrayEquals(new String[]{"ho", "hoa"}, SearchTextUtil.tokenize("Hồ Hòa Hồ"));
+        assertArrayEquals(new String[0], SearchTextUtil.tokenize(" - "));
+    }
+
+    @Test
+    void normalizesPhoneNumbersToNationalForm() {
+        assertEquals("0901234567", SearchTextUtil.normalizePhone("+84 90 123 4567"));
+        assertEquals("0901234567", SearchTextUtil.normalizePhone("0084901234567"));
+        assertEquals("0901234567", SearchTextUtil.normalizePhone("84901234567"));
+        assertEquals("0901234567", SearchTextUtil.normalizePhone("090.123.4567"));
+        assertEquals("", SearchTextUtil.normalizePhone("n/a"));
+    }
+
+    @Test
+    void phonePrefixGetsItsLeadingZero() {
+        assertEquals("0912", SearchTextUtil.normalizePhonePrefix("912"));
+        assertEquals("0912", SearchTextUtil.normalizePhonePrefix("0912"));
+        assertEquals("0912", SearchTextUtil.normalizePhonePrefix("+84 912"));
+        // Short input starting with 84 is a national prefix being typed, not a country code
+        assertEquals("084", SearchTextUtil.normalizePhonePrefix("84"));
+    }
+
+    @Test
+    void detectsPhoneQueries() {
+        assertTrue(SearchTextUtil.isPhoneQuery("(090) 123-45"));
+        assertTrue(SearchTextUtil.isPhoneQuery("+84 90"));
+        assertFalse(SearchTextUtil.isPhoneQuery("Nguyen 090"));
+        assertFalse(SearchTextUtil.isPhoneQuery(" "));
+    }
+}
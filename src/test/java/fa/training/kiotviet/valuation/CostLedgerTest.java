@@ -0,0 +1,102 @@
+package fa.training.kiotviet.valuation;
+
+import fa.training.kiotviet.dto.LedgerRow;
+import fa.training.kiotviet.model.CostLayer;
+import fa.training.kiotviet.model.ProductValuation;
+import fa.training.kiotviet.model.ValuationEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CostLedgerTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private final CostLedger ledger = CostLedger.empty(1L);
+    private long nextId = 1;
+
+    private ValuationEntry apply(String type, int quantity, String unitCost) {
+        return ledger.apply(new LedgerRow(nextId, 1L, type, quantity,
+                unitCost != null ? new BigDecimal(unitCost) : null, DAY.plusHours(nextId++)));
+    }
+
+    @Test
+    void issueConsumesOldestLayersAndLeavesThePartialOneOpen() {
+        apply("IN", 10, "5");
+        apply("IN", 10, "7");
+
+        ValuationEntry issue = apply("OUT", 15, null);
+
+        assertEquals(-15, issue.getQuantity());
+        assertEquals(new BigDecimal("-85.00"), issue.getFifoCostAmount());
+        assertEquals(new BigDecimal("-90.00"), issue.getAverageCostAmount());
+        List<CostLayer> open = List.copyOf(ledger.getOpenLayers());
+        assertEquals(1, open.size());
+        assertEquals(5, open.get(0).getRemainingQuantity());
+        assertEquals(new BigDecimal("7.0000"), open.get(0).getUnitCost());
+        assertEquals(2, ledger.getTouchedLayers().size());
+
+        ProductValuation valuation = ledger.toValuation();
+        assertEquals(5, valuation.getQuantityOnHand());
+        assertEquals(new BigDecimal("35.00"), valuation.getFifoValue());
+        assertEquals(new BigDecimal("30.00"), valuation.getTotalValue());
+        assertEquals(new BigDecimal("6.0000"), valuation.getAverageCost());
+    }
+
+    @Test
+    void issueBeyondStockOnHandCarriesDeficitLayerFilledByNextReceipt() {
+        apply("IN", 5, "10");
+
+        ValuationEntry issue = apply("OUT", 8, null);
+
+        assertEquals(new BigDecimal("-80.00"), issue.getFifoCostAmount());
+        assertEquals(new BigDecimal("-80.00"), issue.getAverageCostAmount());
+        List<CostLayer> open = List.copyOf(ledger.getOpenLayers());
+        assertEquals(1, open.size());
+        assertEquals(-3, open.get(0).getRemainingQuantity());
+        assertEquals(new BigDecimal("10.0000"), open.get(0).getUnitCost());
+        assertEquals(-3, ledger.toValuation().getQuantityOnHand());
+
+        ValuationEntry receipt = apply("IN", 5, "12");
+
+        assertEquals(new BigDecimal("54.00"), receipt.getFifoCostAmount());
+        assertEquals(new BigDecimal("54.00"), receipt.getAverageCostAmount());
+        open = List.copyOf(ledger.getOpenLayers());
+        assertEquals(1, open.size());
+        assertEquals(2, open.get(0).getRemainingQuantity());
+        assertEquals(new BigDecimal("12.0000"), open.get(0).getUnitCost());
+
+        ProductValuation valuation = ledger.toValuation();
+        assertEquals(2, valuation.getQuantityOnHand());
+        assertEquals(new BigDecimal("24.00"), valuation.getFifoValue());
+        assertEquals(new BigDecimal("24.00"), valuation.getTotalValue());
+        assertEquals(new BigDecimal("12.0000"), valuation.getAverageCost());
+    }
+
+    @Test
+    void returnsWithoutCostKeepTheAverageAndReturnsWithCostBlendIntoIt() {
+        apply("IN", 10, "5");
+        apply("IN", 10, "8");
+        apply("OUT", 4, null);
+
+        ValuationEntry uncosted = apply("RETURN", 2, null);
+
+        assertEquals(new BigDecimal("13.00"), uncosted.getAverageCostAmount());
+        assertEquals(new BigDecimal("13.00"), uncosted.getFifoCostAmount());
+        assertEquals(new BigDecimal("6.5000"), ledger.toValuation().getAverageCost());
+        assertEquals(new BigDecimal("117.00"), ledger.toValuation().getTotalValue());
+
+        ValuationEntry costed = apply("RETURN", 2, "9");
+
+        assertEquals(new BigDecimal("18.00"), costed.getAverageCostAmount());
+        ProductValuation valuation = ledger.toValuation();
+        assertEquals(20, valuation.getQuantityOnHand());
+        assertEquals(new BigDecimal("135.00"), valuation.getTotalValue());
+        assertEquals(new BigDecimal("6.7500"), valuation.getAverageCost());
+        assertEquals(new BigDecimal("6.5000"), List.copyOf(ledger.getOpenLayers()).get(2).getUnitCost());
+    }
+}